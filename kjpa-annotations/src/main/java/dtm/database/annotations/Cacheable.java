@@ -0,0 +1,17 @@
+package dtm.database.annotations;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Armazena o resultado do metodo de repositorio no cache de consultas, indexado pelo metodo
+ * e pelos parametros informados. As entradas expiram apos {@link #ttl()} e sao invalidadas
+ * automaticamente quando uma operacao de escrita altera a mesma entidade.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cacheable {
+    long ttl() default 60;
+    TimeUnit unit() default TimeUnit.SECONDS;
+}
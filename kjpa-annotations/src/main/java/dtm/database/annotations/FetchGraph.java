@@ -0,0 +1,17 @@
+package dtm.database.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Associacoes carregadas junto com a entidade raiz na mesma consulta, aplicadas como
+ * {@code jakarta.persistence.loadgraph}: os atributos fora do grafo mantem o carregamento declarado no
+ * mapeamento ({@code EAGER} continua {@code EAGER}). Cada caminho parte da entidade do repositorio e pode
+ * navegar por associacoes aninhadas com ponto ({@code "itens.produto"}). Os caminhos sao
+ * validados em tempo de compilacao.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface FetchGraph {
+    String[] value();
+}
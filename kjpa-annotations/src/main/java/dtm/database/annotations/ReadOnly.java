@@ -0,0 +1,14 @@
+package dtm.database.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Executa o metodo em uma transacao somente leitura: conexao JDBC {@code readOnly},
+ * {@code FlushMode.MANUAL} e entidades carregadas sem snapshot para dirty checking.
+ * Pode ser usada em metodos de repositorio ou em metodos interceptados pelo {@code TransactionalAspect}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ReadOnly {
+}
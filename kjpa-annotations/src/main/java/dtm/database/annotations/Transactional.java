@@ -0,0 +1,13 @@
+package dtm.database.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Equivalente ao {@code jakarta.transaction.Transactional}, com suporte a transacoes somente leitura.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Transactional {
+    boolean readOnly() default false;
+}
@@ -0,0 +1,98 @@
+package dtm.database.benchmarks;
+
+import dtm.database.repository.sessions.DatabaseSession;
+import dtm.database.repository.sessions.DatabaseSessionSynchronizationContext;
+import dtm.database.repository.sessions.SessionKey;
+import dtm.database.repository.sessions.imple.DatabaseSessionSynchronizationContextContextImple;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por chamada da busca da sessao vinculada a thread, feita em toda chamada de repositorio.
+ * {@code stackWalkerLookup} reproduz a implementacao anterior, que identificava o chamador com {@link StackWalker};
+ * {@code keyedLookup} usa o contexto atual, indexado por {@link SessionKey}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionLookupBenchmark {
+
+    private final DatabaseSession session = new BenchmarkSession();
+    private final StackWalkerSessionContext stackWalkerContext = new StackWalkerSessionContext();
+    private final DatabaseSessionSynchronizationContext keyedContext = new DatabaseSessionSynchronizationContextContextImple();
+
+    @Setup(Level.Trial)
+    public void bind() {
+        stackWalkerContext.addSession(session);
+        keyedContext.addSession(SessionKey.TRANSACTIONAL, session);
+    }
+
+    @TearDown(Level.Trial)
+    public void unbind() {
+        keyedContext.removeSession(SessionKey.TRANSACTIONAL);
+    }
+
+    @Benchmark
+    public DatabaseSession stackWalkerLookup() {
+        return stackWalkerContext.getSession();
+    }
+
+    @Benchmark
+    public DatabaseSession keyedLookup() {
+        return keyedContext.getSession(SessionKey.TRANSACTIONAL);
+    }
+
+    /**
+     * Busca anterior: a chave era a primeira classe da pilha fora do proprio contexto.
+     */
+    static final class StackWalkerSessionContext {
+
+        private final ThreadLocal<Map<Class<?>, DatabaseSession>> storage = ThreadLocal.withInitial(HashMap::new);
+
+        void addSession(DatabaseSession databaseSession) {
+            storage.get().put(getCaller(), databaseSession);
+        }
+
+        DatabaseSession getSession() {
+            return storage.get().get(getCaller());
+        }
+
+        private Class<?> getCaller() {
+            return StackWalker
+                    .getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE)
+                    .walk(frames -> frames.map(StackWalker.StackFrame::getDeclaringClass)
+                            .filter(clazz -> !clazz.equals(StackWalkerSessionContext.class))
+                            .findFirst()
+                            .orElseThrow());
+        }
+    }
+
+    /**
+     * Sessao sem {@link EntityManager}: o benchmark mede apenas a busca, sem acesso ao banco.
+     */
+    static final class BenchmarkSession implements DatabaseSession {
+
+        @Override
+        public EntityManager getEntityManager() {
+            return null;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package dtm.database.repository;
 
 import dtm.database.annotations.AutoFlush;
+import dtm.database.repository.pagination.Page;
+import dtm.database.repository.pagination.Pageable;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface CrudRepository<S, ID> {
@@ -13,6 +16,19 @@ public interface CrudRepository<S, ID> {
     @AutoFlush
     S saveAndFlush(S entity);
 
+    /**
+     * Persiste uma entidade sabidamente nova com um unico {@code INSERT}, sem o {@code SELECT} do merge.
+     * Falha se a linha ja existir.
+     */
+    S insert(S entity);
+
+    /**
+     * Atualiza uma entidade destacada com um unico {@code UPDATE ... WHERE id = ? AND version = ?},
+     * sem carregar a linha antes. Lanca {@link jakarta.persistence.OptimisticLockException} quando
+     * nenhuma linha e afetada (versao desatualizada ou registro inexistente).
+     */
+    S update(S entity);
+
     List<S> saveAll(Collection<S> entities);
 
 
@@ -24,11 +40,33 @@ public interface CrudRepository<S, ID> {
 
     void deleteById(ID id);
 
+    /**
+     * Remove as entidades em lotes de {@code DELETE ... WHERE id IN (...)} na mesma transacao,
+     * sem carregar as entidades (cascatas e {@code @PreRemove} nao sao aplicados).
+     */
+    void deleteAllById(Collection<ID> ids);
+
+    void deleteAll(Collection<S> entities);
+
 
 
     List<S> findAll();
 
+    Page<S> findAll(Pageable pageable);
+
     Optional<S> findById(ID id);
 
+    /**
+     * Busca varias entidades em lotes, na ordem dos IDs informados; IDs inexistentes sao ignorados.
+     */
+    List<S> findAllById(Collection<ID> ids);
+
+    /**
+     * Igual a {@link #findAllById(Collection)}, indexado pelo ID para consulta direta.
+     */
+    Map<ID, S> findAllByIdAsMap(Collection<ID> ids);
+
+    boolean existsById(ID id);
+
     long count();
 }
@@ -1,16 +1,20 @@
 package dtm.database.repository.aspect;
 
+import dtm.database.annotations.ReadOnly;
 import dtm.database.repository.exceptions.DatabaseSessionOutOfContextException;
+import dtm.database.repository.exceptions.UnexpectedRollbackException;
+import dtm.database.repository.metrics.KjpaMetrics;
 import dtm.database.repository.prototype.datasource.EntityManagerFactoryContext;
 import dtm.database.repository.sessions.DatabaseSession;
+import dtm.database.repository.sessions.DatabaseSessionStatementInspector;
 import dtm.database.repository.sessions.DatabaseSessionSynchronizationContext;
+import dtm.database.repository.sessions.SessionKey;
 import dtm.di.annotations.DisableInjectionWarn;
 import dtm.di.annotations.aop.*;
 import dtm.di.exceptions.DependencyInjectionException;
 import dtm.di.prototypes.LazyDependency;
 import dtm.di.prototypes.async.AsyncComponent;
 import jakarta.transaction.Transactional;
-import dtm.database.repository.proxy.RepositoryInvocationHandler;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.Method;
@@ -37,22 +41,42 @@ public class TransactionalAspect {
     public boolean pointcut(Method method){
         if(!entityManagerFactoryContextAsyncLazy.isPresent()) return false;
 
-        return method.isAnnotationPresent(Transactional.class);
+        return method.isAnnotationPresent(Transactional.class)
+                || method.isAnnotationPresent(dtm.database.annotations.Transactional.class)
+                || method.isAnnotationPresent(ReadOnly.class);
     }
 
     @BeforeExecution
     public void aspectBefore(Method method){
         try{
-            if(!this.databaseSessionSynchronizationContext.hasSession()){
+            if(!this.databaseSessionSynchronizationContext.hasSession(SessionKey.TRANSACTIONAL)){
                 EntityManagerFactoryContext entityManagerFactoryContext = getEntityManagerFactoryContext();
                 DatabaseSession databaseSession = entityManagerFactoryContext.createDatabaseSession();
-                databaseSession.beginTransaction();
+                try {
+                    if (isReadOnly(method)) {
+                        databaseSession.beginReadOnlyTransaction();
+                    } else {
+                        databaseSession.beginTransaction();
+                    }
+                } catch (RuntimeException e) {
+                    databaseSession.close();
+                    throw e;
+                }
+                DatabaseSessionStatementInspector statementInspector = databaseSession.getStatementInspector();
+                if (statementInspector != null) {
+                    statementInspector.setTransactionalMethod(method.getDeclaringClass().getSimpleName() + "." + method.getName());
+                }
                 log.debug("Nova transação iniciada e vinculada à thread: {}.", Thread.currentThread().getName());
-                databaseSessionSynchronizationContext.addSession(databaseSession, RepositoryInvocationHandler.class);
+                databaseSessionSynchronizationContext.addSession(SessionKey.TRANSACTIONAL, databaseSession);
+                databaseSession.incrementDepth();
             }else{
                 log.debug("Reutilizando sessão existente para transação aninhada no método: {} vinculada à thread: {}.", method.getName(), Thread.currentThread().getName());
-                DatabaseSession databaseSession = databaseSessionSynchronizationContext.getSession();
+                DatabaseSession databaseSession = databaseSessionSynchronizationContext.getSession(SessionKey.TRANSACTIONAL);
+                if (databaseSession.isReadOnly() && !isReadOnly(method)) {
+                    log.warn("O método {} exige escrita, mas foi chamado dentro de uma transação somente leitura. As alterações não serão gravadas.", method.getName());
+                }
                 databaseSession.beginTransaction();
+                databaseSession.incrementDepth();
             }
         } catch (Exception e) {
             log.error("""
@@ -69,7 +93,7 @@ public class TransactionalAspect {
 
     @AfterExecution
     public void aspectAfter(Method method){
-        DatabaseSession session = databaseSessionSynchronizationContext.getSession();
+        DatabaseSession session = databaseSessionSynchronizationContext.getSession(SessionKey.TRANSACTIONAL);
         if (session == null) {
             log.error("""
             
@@ -86,20 +110,40 @@ public class TransactionalAspect {
             );
         }
 
-        log.debug("""
-        
-        [ TRANSAÇÃO FINALIZADA ]
-        Commit realizado com sucesso.
-        > Método: {}
-        > Thread: {}
-        """, method.getName(), Thread.currentThread().getName());
+        if (session.decrementDepth() > 0) {
+            log.debug("Transação aninhada finalizada no método: {}. O commit ocorrerá na fronteira mais externa.", method.getName());
+            return;
+        }
 
-        session.commitIfActive();
+        boolean committed = false;
+        try {
+            if (session.isRollbackOnly()) {
+                log.debug("A transação foi marcada como rollback-only por um método aninhado. Revertendo ao final de: {}", method.getName());
+                session.rollbackIfActive();
+                throw new UnexpectedRollbackException(String.format(
+                        "A transação do método '%s' foi revertida porque um método @Transactional aninhado falhou e a marcou como rollback-only. Nenhuma alteração foi gravada.",
+                        method.getName()));
+            }
+
+            session.commitIfActive();
+            committed = true;
+
+            log.debug("""
+            
+            [ TRANSAÇÃO FINALIZADA ]
+            Commit realizado com sucesso.
+            > Método: {}
+            > Thread: {}
+            """, method.getName(), Thread.currentThread().getName());
+        } finally {
+            databaseSessionSynchronizationContext.removeSession(SessionKey.TRANSACTIONAL);
+            recordTransaction(method, session, !committed);
+        }
     }
 
     @AfterException
     public void aspectException(Method method){
-        DatabaseSession session = databaseSessionSynchronizationContext.getSession();
+        DatabaseSession session = databaseSessionSynchronizationContext.getSession(SessionKey.TRANSACTIONAL);
         if (session == null) {
 
             log.error("""
@@ -117,6 +161,19 @@ public class TransactionalAspect {
             );
         }
 
+        if (session.decrementDepth() > 0) {
+            log.debug("Exceção em transação aninhada no método: {}. A transação foi marcada como rollback-only.", method.getName());
+            session.markRollbackOnly();
+            return;
+        }
+
+        try {
+            session.rollbackIfActive();
+        } finally {
+            databaseSessionSynchronizationContext.removeSession(SessionKey.TRANSACTIONAL);
+            recordTransaction(method, session, true);
+        }
+
         log.debug("""
         
         [ OPERAÇÃO DE ROLLBACK ]
@@ -124,7 +181,28 @@ public class TransactionalAspect {
         > Thread: {}
         > Status: A integridade dos dados foi preservada.
         """, method.getName(), Thread.currentThread().getName());
-        session.rollbackIfActive();
+    }
+
+    /**
+     * Registra a duracao da transacao, da abertura da sessao na fronteira mais externa ate o commit ou rollback.
+     */
+    private void recordTransaction(Method method, DatabaseSession session, boolean rolledBack) {
+        KjpaMetrics metrics = getEntityManagerFactoryContext().getMetrics();
+        if (metrics == null || session.getOpenedAtNanos() == Long.MIN_VALUE) {
+            return;
+        }
+        metrics.recordTransaction(method, System.nanoTime() - session.getOpenedAtNanos(), rolledBack);
+    }
+
+    /**
+     * Indica se o metodo abre a transacao em modo somente leitura.
+     * Em chamadas aninhadas prevalece o modo da fronteira mais externa.
+     */
+    private boolean isReadOnly(Method method){
+        if (method.isAnnotationPresent(ReadOnly.class)) return true;
+
+        dtm.database.annotations.Transactional transactional = method.getAnnotation(dtm.database.annotations.Transactional.class);
+        return transactional != null && transactional.readOnly();
     }
 
     private EntityManagerFactoryContext getEntityManagerFactoryContext(){
@@ -0,0 +1,14 @@
+package dtm.database.repository.cache;
+
+public record QueryCacheStatistics(
+        long hits,
+        long misses,
+        long evictions,
+        long size
+) {
+
+    public double hitRatio() {
+        long requests = hits + misses;
+        return (requests == 0) ? 0.0 : (double) hits / requests;
+    }
+}
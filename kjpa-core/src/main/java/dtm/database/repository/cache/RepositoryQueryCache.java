@@ -0,0 +1,200 @@
+package dtm.database.repository.cache;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache de resultados de metodos de repositorio anotados com {@code @Cacheable}.
+ * <p>
+ * As entradas sao distribuidas em segmentos LRU independentes, cada um protegido pelo seu proprio lock,
+ * e limitadas por tamanho e TTL. A invalidacao e feita por tipo de entidade: cada escrita incrementa a
+ * geracao da entidade e toda entrada gravada em uma geracao anterior passa a ser tratada como ausente.
+ */
+public final class RepositoryQueryCache {
+
+    private static final Object NULL_VALUE = new Object();
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final Map<Class<?>, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RepositoryQueryCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("O cache de consultas deve comportar ao menos uma entrada: " + maxEntries);
+        }
+
+        int segmentCount = Math.min(Integer.highestOneBit(Math.max(1, maxEntries / 16)), 64);
+        int segmentCapacity = Math.ceilDiv(maxEntries, segmentCount);
+
+        this.segments = new Segment[segmentCount];
+        this.segmentMask = segmentCount - 1;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * Retorna o valor armazenado para o metodo e argumentos, convertido por {@code fromCached}, ou executa
+     * {@code loader}, armazena o resultado convertido por {@code toCached} e devolve o resultado original.
+     * O carregamento ocorre fora do lock, de modo que uma consulta lenta nao bloqueia o segmento.
+     */
+    @SuppressWarnings("unchecked")
+    public <T, C> T getOrLoad(
+            Class<?> entityType,
+            Class<?> repository,
+            String method,
+            Object[] args,
+            long ttlMillis,
+            Supplier<T> loader,
+            Function<? super T, ? extends C> toCached,
+            Function<? super C, ? extends T> fromCached
+    ) {
+        if (ttlMillis < 1) {
+            throw new IllegalArgumentException("O ttl do cache de consultas deve ser de ao menos 1 ms: " + ttlMillis);
+        }
+
+        CacheKey key = new CacheKey(repository, method, args.clone());
+        Segment segment = segmentFor(key);
+        long generation = generation(entityType).get();
+        long now = System.nanoTime();
+
+        Object cached = segment.get(key, generation, now);
+        if (cached != null) {
+            hits.increment();
+            return fromCached.apply((cached == NULL_VALUE) ? null : (C) cached);
+        }
+
+        misses.increment();
+        T value = loader.get();
+        C stored = toCached.apply(value);
+
+        segment.put(key, new Entry(
+                (stored == null) ? NULL_VALUE : stored,
+                now + TimeUnit.MILLISECONDS.toNanos(ttlMillis),
+                generation
+        ));
+        return value;
+    }
+
+    /**
+     * Invalida todas as entradas associadas ao tipo de entidade.
+     */
+    public void invalidate(Class<?> entityType) {
+        generation(entityType).incrementAndGet();
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public QueryCacheStatistics getStatistics() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return new QueryCacheStatistics(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    private AtomicLong generation(Class<?> entityType) {
+        return generations.computeIfAbsent(entityType, ignored -> new AtomicLong());
+    }
+
+    private Segment segmentFor(CacheKey key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & segmentMask];
+    }
+
+    private record Entry(Object value, long expiresAtNanos, long generation) {}
+
+    private record CacheKey(Class<?> repository, String method, Object[] args) {
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CacheKey other)) return false;
+            return repository == other.repository
+                    && method.equals(other.method)
+                    && Arrays.deepEquals(args, other.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * repository.hashCode() + method.hashCode()) + Arrays.deepHashCode(args);
+        }
+    }
+
+    private final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<CacheKey, Entry> entries;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CacheKey, Entry> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private Object get(CacheKey key, long generation, long now) {
+            lock.lock();
+            try {
+                Entry entry = entries.get(key);
+                if (entry == null) return null;
+
+                if (entry.generation() != generation || now - entry.expiresAtNanos() >= 0) {
+                    entries.remove(key);
+                    evictions.increment();
+                    return null;
+                }
+                return entry.value();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void put(CacheKey key, Entry entry) {
+            lock.lock();
+            try {
+                entries.put(key, entry);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void clear() {
+            lock.lock();
+            try {
+                entries.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package dtm.database.repository.cache.region;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.internal.SimpleCacheKeysFactory;
+import org.hibernate.cache.spi.CacheKeysFactory;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * {@code RegionFactory} embutido do KJPA: cache de segundo nivel em memoria, sem produto externo.
+ * <p>
+ * Cada regiao de entidade recebe o seu proprio {@link LongKeyedStorageAccess}. Como as chaves sao geradas
+ * pelo {@link SimpleCacheKeysFactory}, o identificador da entidade e usado diretamente como chave.
+ * O tamanho de cada regiao e lido da propriedade {@value #MAX_ENTRIES_SETTING}.
+ */
+public class KjpaRegionFactory extends RegionFactoryTemplate {
+
+    public static final String MAX_ENTRIES_SETTING = "kjpa.cache.region.max_entries";
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final Queue<StorageAccess> storages = new ConcurrentLinkedQueue<>();
+    private volatile int maxEntriesPerRegion = DEFAULT_MAX_ENTRIES;
+
+    @Override
+    protected CacheKeysFactory getImplicitCacheKeysFactory() {
+        return SimpleCacheKeysFactory.INSTANCE;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    protected void prepareForUse(SessionFactoryOptions settings, Map configValues) {
+        Object maxEntries = configValues.get(MAX_ENTRIES_SETTING);
+        if (maxEntries != null) {
+            this.maxEntriesPerRegion = Integer.parseInt(maxEntries.toString());
+        }
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        StorageAccess storage;
+        while ((storage = storages.poll()) != null) {
+            storage.release();
+        }
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig, DomainDataRegionBuildingContext buildingContext) {
+        return register(new LongKeyedStorageAccess(maxEntriesPerRegion));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return register(new BoundedStorageAccess(maxEntriesPerRegion));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return register(new BoundedStorageAccess(maxEntriesPerRegion));
+    }
+
+    @Override
+    public AccessType getDefaultAccessType() {
+        return AccessType.READ_WRITE;
+    }
+
+    @Override
+    public boolean isMinimalPutsEnabledByDefault() {
+        return false;
+    }
+
+    private <T extends StorageAccess> T register(T storage) {
+        storages.add(storage);
+        return storage;
+    }
+}
@@ -0,0 +1,252 @@
+package dtm.database.repository.cache.region;
+
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Armazenamento de uma regiao de entidade indexado por identificadores inteiros.
+ * <p>
+ * Cada segmento e uma tabela de enderecamento aberto ({@code long[]} de chaves e {@code Object[]} de valores),
+ * sem boxing das chaves e sem alocacao por entrada. Leituras usam leitura otimista do {@link StampedLock};
+ * quando o segmento atinge a capacidade, uma entrada e removida pelo algoritmo CLOCK (segunda chance).
+ * Chaves que nao sao inteiras sao delegadas para {@link BoundedStorageAccess}.
+ */
+public final class LongKeyedStorageAccess implements DomainDataStorageAccess {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final BoundedStorageAccess fallback;
+
+    public LongKeyedStorageAccess(int maxEntries) {
+        int segmentCapacity = Math.max(1, Math.ceilDiv(maxEntries, SEGMENTS));
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+        this.fallback = new BoundedStorageAccess(maxEntries);
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        if (!isIntegralKey(key)) return fallback.getFromCache(key, session);
+
+        long id = ((Number) key).longValue();
+        return segmentFor(id).get(id);
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        if (value == null) return;
+        if (!isIntegralKey(key)) {
+            fallback.putIntoCache(key, value, session);
+            return;
+        }
+
+        long id = ((Number) key).longValue();
+        segmentFor(id).put(id, value);
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        if (!isIntegralKey(key)) return fallback.contains(key);
+
+        long id = ((Number) key).longValue();
+        return segmentFor(id).get(id) != null;
+    }
+
+    @Override
+    public void evictData() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+        fallback.evictData();
+    }
+
+    @Override
+    public void evictData(Object key) {
+        if (!isIntegralKey(key)) {
+            fallback.evictData(key);
+            return;
+        }
+
+        long id = ((Number) key).longValue();
+        segmentFor(id).remove(id);
+    }
+
+    @Override
+    public void release() {
+        evictData();
+    }
+
+    private static boolean isIntegralKey(Object key) {
+        return key instanceof Long || key instanceof Integer || key instanceof Short;
+    }
+
+    private static int mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private Segment segmentFor(long id) {
+        return segments[(mix(id) >>> 28) & (SEGMENTS - 1)];
+    }
+
+    private static final class Segment {
+        private final StampedLock lock = new StampedLock();
+        private final int capacity;
+        private final int mask;
+        private final long[] keys;
+        private final Object[] values;
+        private final boolean[] referenced;
+        private int size;
+        private int hand;
+
+        private Segment(int capacity) {
+            int tableSize = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+            this.capacity = capacity;
+            this.mask = tableSize - 1;
+            this.keys = new long[tableSize];
+            this.values = new Object[tableSize];
+            this.referenced = new boolean[tableSize];
+        }
+
+        private Object get(long id) {
+            long stamp = lock.tryOptimisticRead();
+            Object value = find(id);
+            if (lock.validate(stamp)) {
+                return value;
+            }
+
+            stamp = lock.readLock();
+            try {
+                return find(id);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private Object find(long id) {
+            int index = mix(id) & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                Object value = values[index];
+                if (value == null) return null;
+                if (keys[index] == id) {
+                    referenced[index] = true;
+                    return value;
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        private void put(long id, Object value) {
+            long stamp = lock.writeLock();
+            try {
+                int index = indexOf(id);
+                if (index >= 0) {
+                    values[index] = value;
+                    referenced[index] = true;
+                    return;
+                }
+
+                if (size >= capacity) {
+                    evictOne();
+                }
+
+                index = mix(id) & mask;
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = id;
+                values[index] = value;
+                referenced[index] = false;
+                size++;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void remove(long id) {
+            long stamp = lock.writeLock();
+            try {
+                int index = indexOf(id);
+                if (index >= 0) {
+                    removeAt(index);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void clear() {
+            long stamp = lock.writeLock();
+            try {
+                Arrays.fill(values, null);
+                Arrays.fill(referenced, false);
+                size = 0;
+                hand = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private int indexOf(long id) {
+            int index = mix(id) & mask;
+            while (values[index] != null) {
+                if (keys[index] == id) return index;
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void evictOne() {
+            while (true) {
+                int index = hand;
+                hand = (hand + 1) & mask;
+
+                if (values[index] == null) continue;
+                if (referenced[index]) {
+                    referenced[index] = false;
+                    continue;
+                }
+
+                removeAt(index);
+                return;
+            }
+        }
+
+        /**
+         * Remocao com deslocamento para tras (linear probing), dispensando marcadores de exclusao.
+         */
+        private void removeAt(int index) {
+            values[index] = null;
+            referenced[index] = false;
+            size--;
+
+            int free = index;
+            int current = index;
+            while (true) {
+                current = (current + 1) & mask;
+                if (values[current] == null) return;
+
+                int home = mix(keys[current]) & mask;
+                boolean stays = (free <= current)
+                        ? (free < home && home <= current)
+                        : (free < home || home <= current);
+
+                if (!stays) {
+                    keys[free] = keys[current];
+                    values[free] = values[current];
+                    referenced[free] = referenced[current];
+                    values[current] = null;
+                    referenced[current] = false;
+                    free = current;
+                }
+            }
+        }
+    }
+}
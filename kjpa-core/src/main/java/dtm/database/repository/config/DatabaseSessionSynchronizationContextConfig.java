@@ -1,12 +1,18 @@
 package dtm.database.repository.config;
 
+import dtm.database.repository.prototype.datasource.DatabaseConfiguration;
 import dtm.database.repository.sessions.DatabaseSessionSynchronizationContext;
+import dtm.database.repository.sessions.SessionContextMode;
 import dtm.database.repository.sessions.imple.DatabaseSessionSynchronizationContextContextImple;
+import dtm.database.repository.sessions.imple.ScopedDatabaseSessionSynchronizationContext;
 import dtm.di.annotations.BeanDefinition;
 import dtm.di.annotations.Component;
 import dtm.di.annotations.Configuration;
+import dtm.di.annotations.DisableInjectionWarn;
 import dtm.di.annotations.aop.DisableAop;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @DisableAop
 @Configuration
 public class DatabaseSessionSynchronizationContextConfig {
@@ -14,8 +20,18 @@ public class DatabaseSessionSynchronizationContextConfig {
 
     @Component
     @DisableAop
-    public DatabaseSessionSynchronizationContext databaseSessionSynchronizationContextBean(){
-        return new DatabaseSessionSynchronizationContextContextImple();
+    @DisableInjectionWarn
+    public DatabaseSessionSynchronizationContext databaseSessionSynchronizationContextBean(DatabaseConfiguration databaseConfiguration){
+        SessionContextMode mode = (databaseConfiguration != null && databaseConfiguration.getSessionContextMode() != null)
+                ? databaseConfiguration.getSessionContextMode()
+                : SessionContextMode.THREAD_LOCAL;
+
+        log.debug("Contexto de sessoes selecionado: {}", mode);
+
+        return switch (mode) {
+            case SCOPED -> new ScopedDatabaseSessionSynchronizationContext();
+            case THREAD_LOCAL -> new DatabaseSessionSynchronizationContextContextImple();
+        };
     }
 
 }
@@ -3,9 +3,17 @@ package dtm.database.repository.config;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import com.zaxxer.hikari.pool.HikariPool;
+import dtm.database.repository.cache.RepositoryQueryCache;
+import dtm.database.repository.cache.region.KjpaRegionFactory;
 import dtm.database.repository.exceptions.DatabaseInitializationException;
+import dtm.database.repository.execution.RepositoryAsyncExecutor;
+import dtm.database.repository.metrics.FlightRecorderDataSource;
+import dtm.database.repository.metrics.KjpaMetrics;
+import dtm.database.repository.metrics.MetricsExporter;
 import dtm.database.repository.prototype.datasource.DatabaseConfiguration;
 import dtm.database.repository.prototype.datasource.EntityManagerFactoryContext;
+import dtm.database.repository.sessions.DatabaseSessionLeakDetector;
+import dtm.database.repository.sessions.StatementInspectionMode;
 import dtm.di.annotations.Component;
 import dtm.di.annotations.Configuration;
 import dtm.di.annotations.DisableInjectionWarn;
@@ -14,8 +22,10 @@ import dtm.di.application.startup.ManagedApplication;
 import dtm.di.common.ComponentRegistor;
 import dtm.di.core.DependencyContainer;
 import dtm.di.prototypes.async.AsyncRegistrationFunction;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.SharedCacheMode;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.HibernateException;
 import org.hibernate.SessionFactory;
@@ -24,6 +34,9 @@ import org.hibernate.boot.registry.classloading.spi.ClassLoadingException;
 import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.service.spi.ServiceException;
 
+import javax.sql.DataSource;
+import java.util.Arrays;
+
 @Slf4j
 @DisableAop
 @Configuration
@@ -42,7 +55,11 @@ public class HibernateConfiguration {
             HikariDataSource dataSource = null;
             try {
 
+                final KjpaMetrics metrics = createMetrics(databaseConfiguration);
                 final HikariConfig hikariConfig = getHikariConfig(databaseConfiguration);
+                if (metrics != null) {
+                    hikariConfig.setMetricsTrackerFactory(metrics.poolMetricsTrackerFactory());
+                }
 
                 dataSource = new HikariDataSource(hikariConfig);
 
@@ -53,22 +70,35 @@ public class HibernateConfiguration {
                 configuration.setProperty("hibernate.show_sql", String.valueOf(databaseConfiguration.showSql()));
                 configuration.setProperty("hibernate.format_sql", String.valueOf(databaseConfiguration.formatSql()));
 
+                configuration.setProperty("hibernate.jdbc.batch_size", String.valueOf(databaseConfiguration.getJdbcBatchSize()));
+                configuration.setProperty("hibernate.order_inserts", "true");
+                configuration.setProperty("hibernate.order_updates", "true");
+                configuration.setProperty("hibernate.jdbc.batch_versioned_data", "true");
+                configuration.setProperty(AvailableSettings.GENERATE_STATISTICS, String.valueOf(metrics != null));
 
-                configuration.addAnnotatedClasses(
-                        dependencyContainer
-                                .getLoadedSystemClasses()
-                                .stream()
-                                .filter(c -> c.isAnnotationPresent(Entity.class))
-                                .toArray(Class[]::new)
-                );
+                Class<?>[] entityClasses = dependencyContainer
+                        .getLoadedSystemClasses()
+                        .stream()
+                        .filter(c -> c.isAnnotationPresent(Entity.class))
+                        .toArray(Class[]::new);
 
+                configureSecondLevelCache(configuration, databaseConfiguration, entityClasses);
+                configuration.addAnnotatedClasses(entityClasses);
+
+                // o Hibernate obtem as conexoes pelo wrapper, que emite eventos JFR de espera no pool
+                DataSource recordedDataSource = new FlightRecorderDataSource(dataSource, dataSource.getPoolName());
                 StandardServiceRegistryBuilder builder = new StandardServiceRegistryBuilder()
                         .applySettings(configuration.getProperties())
-                        .applySetting(AvailableSettings.JAKARTA_JTA_DATASOURCE, dataSource)
-                        .applySetting("hibernate.connection.datasource", dataSource);
+                        .applySetting(AvailableSettings.JAKARTA_JTA_DATASOURCE, recordedDataSource)
+                        .applySetting("hibernate.connection.datasource", recordedDataSource);
 
                 SessionFactory sessionFactory = configuration.buildSessionFactory(builder.build());
-                registerGracefulShutdown(sessionFactory, dataSource);
+                validStatementInspection(databaseConfiguration);
+                DatabaseSessionLeakDetector sessionLeakDetector = createSessionLeakDetector(databaseConfiguration);
+                RepositoryQueryCache queryCache = createQueryCache(databaseConfiguration);
+                RepositoryAsyncExecutor asyncExecutor = new RepositoryAsyncExecutor(databaseConfiguration.getAsyncMaxConcurrency());
+                MetricsExporter metricsExporter = startMetrics(metrics, sessionFactory, databaseConfiguration);
+                registerGracefulShutdown(sessionFactory, dataSource, sessionLeakDetector, asyncExecutor, metricsExporter);
                 return new EntityManagerFactoryContext() {
                     @Override
                     public DatabaseConfiguration getDatabaseConfiguration() {
@@ -79,6 +109,26 @@ public class HibernateConfiguration {
                     public EntityManagerFactory getEntityManagerFactory() {
                         return sessionFactory;
                     }
+
+                    @Override
+                    public DatabaseSessionLeakDetector getSessionLeakDetector() {
+                        return sessionLeakDetector;
+                    }
+
+                    @Override
+                    public RepositoryQueryCache getQueryCache() {
+                        return queryCache;
+                    }
+
+                    @Override
+                    public RepositoryAsyncExecutor getAsyncExecutor() {
+                        return asyncExecutor;
+                    }
+
+                    @Override
+                    public KjpaMetrics getMetrics() {
+                        return metrics;
+                    }
                 };
             } catch (ServiceException e) {
                 Throwable rootCause = e.getCause();
@@ -194,15 +244,105 @@ public class HibernateConfiguration {
 
         hikariConfig.setAutoCommit(false);
 
-        hikariConfig.setMaximumPoolSize(20);
-        hikariConfig.setMinimumIdle(5);
+        hikariConfig.setMaximumPoolSize(databaseConfiguration.getMaximumPoolSize());
+        hikariConfig.setMinimumIdle(Math.min(5, databaseConfiguration.getMaximumPoolSize()));
         hikariConfig.setIdleTimeout(300000);
         hikariConfig.setConnectionTimeout(20000);
         hikariConfig.setPoolName("Kernon-HikariPool-" + databaseConfiguration.getDialect());
+
+        if (databaseConfiguration.getLeakDetectionThreshold() > 0) {
+            hikariConfig.setLeakDetectionThreshold(databaseConfiguration.getLeakDetectionThreshold());
+        }
         return hikariConfig;
     }
 
-    private void registerGracefulShutdown(SessionFactory sessionFactory, HikariDataSource dataSource) {
+    /**
+     * Habilita o cache de segundo nivel embutido apenas para as entidades anotadas com
+     * {@link Cacheable}; as demais continuam indo direto ao banco.
+     */
+    private void configureSecondLevelCache(org.hibernate.cfg.Configuration configuration, DatabaseConfiguration databaseConfiguration, Class<?>[] entityClasses) {
+        int maxEntries = databaseConfiguration.getEntityCacheMaxEntries();
+        long cachedEntities = Arrays.stream(entityClasses)
+                .filter(c -> c.isAnnotationPresent(Cacheable.class) && c.getAnnotation(Cacheable.class).value())
+                .count();
+
+        if (maxEntries <= 0 || cachedEntities == 0) {
+            configuration.setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false");
+            return;
+        }
+
+        configuration.setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+        configuration.setProperty(AvailableSettings.CACHE_REGION_FACTORY, KjpaRegionFactory.class.getName());
+        configuration.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_MODE, SharedCacheMode.ENABLE_SELECTIVE.name());
+        configuration.setProperty(AvailableSettings.DEFAULT_CACHE_CONCURRENCY_STRATEGY, "read-write");
+        configuration.setProperty(KjpaRegionFactory.MAX_ENTRIES_SETTING, String.valueOf(maxEntries));
+
+        log.info("Cache de segundo nivel habilitado para {} entidade(s) (capacidade por regiao: {} entradas).", cachedEntities, maxEntries);
+    }
+
+    /**
+     * Com a deteccao de N+1 desligada nenhum {@code StatementInspector} e registrado; ligada, cada sessao recebe o seu.
+     */
+    private void validStatementInspection(DatabaseConfiguration databaseConfiguration) {
+        StatementInspectionMode mode = databaseConfiguration.getStatementInspectionMode();
+        if (mode == null || mode == StatementInspectionMode.OFF) {
+            return;
+        }
+
+        int threshold = databaseConfiguration.getRepeatedStatementThreshold();
+        if (threshold <= 1) {
+            throw new DatabaseInitializationException("Configuração de banco inválida: o limite de instruções repetidas deve ser maior que um (informado: " + threshold + ").");
+        }
+
+        log.info("Deteccao de N+1 habilitada (modo: {}, limite: {} execucoes da mesma instrucao por sessao).", mode, threshold);
+    }
+
+    private DatabaseSessionLeakDetector createSessionLeakDetector(DatabaseConfiguration databaseConfiguration) {
+        long threshold = databaseConfiguration.getLeakDetectionThreshold();
+        if (threshold <= 0) {
+            return null;
+        }
+
+        log.info("Deteccao de vazamento de sessoes habilitada (limite: {} ms).", threshold);
+        return new DatabaseSessionLeakDetector(threshold);
+    }
+
+    private RepositoryQueryCache createQueryCache(DatabaseConfiguration databaseConfiguration) {
+        int maxEntries = databaseConfiguration.getQueryCacheMaxEntries();
+        if (maxEntries <= 0) {
+            return null;
+        }
+
+        log.info("Cache de consultas @Cacheable habilitado (capacidade: {} entradas).", maxEntries);
+        return new RepositoryQueryCache(maxEntries);
+    }
+
+    private KjpaMetrics createMetrics(DatabaseConfiguration databaseConfiguration) {
+        if (!databaseConfiguration.isMetricsEnabled()) {
+            return null;
+        }
+        return new KjpaMetrics();
+    }
+
+    /**
+     * Liga as estatisticas do Hibernate ao registro e inicia o exportador, quando configurado.
+     */
+    private MetricsExporter startMetrics(KjpaMetrics metrics, SessionFactory sessionFactory, DatabaseConfiguration databaseConfiguration) {
+        if (metrics == null) {
+            return null;
+        }
+
+        metrics.bindHibernateStatistics(sessionFactory.getStatistics());
+        MetricsExporter exporter = databaseConfiguration.getMetricsExporter();
+        if (exporter != null) {
+            exporter.start(metrics);
+        }
+
+        log.info("Metricas de repositorio habilitadas (exportador: {}).", exporter != null ? exporter.getClass().getSimpleName() : "nenhum");
+        return exporter;
+    }
+
+    private void registerGracefulShutdown(SessionFactory sessionFactory, HikariDataSource dataSource, DatabaseSessionLeakDetector sessionLeakDetector, RepositoryAsyncExecutor asyncExecutor, MetricsExporter metricsExporter) {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             log.info("""
         
@@ -211,6 +351,18 @@ public class HibernateConfiguration {
         """);
 
             try {
+                if (metricsExporter != null) {
+                    metricsExporter.close();
+                }
+
+                if (asyncExecutor != null) {
+                    asyncExecutor.close();
+                }
+
+                if (sessionLeakDetector != null) {
+                    sessionLeakDetector.close();
+                }
+
                 if (sessionFactory != null && sessionFactory.isOpen()) {
                     log.debug("Fechando Hibernate SessionFactory...");
                     sessionFactory.close();
@@ -261,6 +413,7 @@ public class HibernateConfiguration {
         validateField(databaseConfiguration.getUsername(), "Database Username");
         validateField(databaseConfiguration.getPassword(), "Database Password", true);
         validateField(databaseConfiguration.getDialect(), "Hibernate Dialect");
+        validAsyncConcurrency(databaseConfiguration);
 
         int size = 60;
         log.info("""
@@ -287,6 +440,22 @@ public class HibernateConfiguration {
         );
     }
 
+    /**
+     * Cada chamada assincrona ocupa uma conexao: ao menos uma conexao precisa sobrar para as chamadas sincronas.
+     */
+    private void validAsyncConcurrency(DatabaseConfiguration databaseConfiguration) {
+        int maximumPoolSize = databaseConfiguration.getMaximumPoolSize();
+        int asyncMaxConcurrency = databaseConfiguration.getAsyncMaxConcurrency();
+
+        if (maximumPoolSize < 2) {
+            throw new DatabaseInitializationException("Configuração de banco inválida: o pool de conexões deve ter ao menos duas conexões (informado: " + maximumPoolSize + ").");
+        }
+        if (asyncMaxConcurrency < 1 || asyncMaxConcurrency >= maximumPoolSize) {
+            log.error("Falha na validação do banco de dados: a concorrência assíncrona ({}) deve ficar entre 1 e o tamanho do pool menos um ({}).", asyncMaxConcurrency, maximumPoolSize - 1);
+            throw new DatabaseInitializationException("Configuração de banco inválida: a concorrência assíncrona deve ser de 1 a " + (maximumPoolSize - 1) + " (informado: " + asyncMaxConcurrency + ").");
+        }
+    }
+
     private void validateField(String value, String fieldName) {
         validateField(value, fieldName, false);
     }
@@ -2,6 +2,7 @@ package dtm.database.repository.config;
 
 import dtm.database.annotations.Repository;
 import dtm.database.repository.CrudRepository;
+import dtm.database.repository.execution.RepositoryExecutor;
 import dtm.database.repository.prototype.datasource.EntityManagerFactoryContext;
 import dtm.database.repository.proxy.ProxyDbUtils;
 import dtm.database.repository.sessions.DatabaseSessionSynchronizationContext;
@@ -38,8 +39,11 @@ public class RepositoryCreatorConfiguration {
             for (Class<?> clazz : dependencyContainer.getLoadedSystemClasses()){
                 tasks.add(CompletableFuture.runAsync(() -> {
                     if(isReporitoryInterface(clazz)){
-                        Object repositoryProxy = createInterfaceProxy(clazz, dependencyContainer, databaseSessionSynchronizationContext, entityManagerFactoryContextAsync);
-                        registerProxy(clazz, repositoryProxy, dependencyContainer);
+                        Object repositoryInstance = createGeneratedImplementation(clazz, databaseSessionSynchronizationContext, entityManagerFactoryContextAsync);
+                        if(repositoryInstance == null){
+                            repositoryInstance = createInterfaceProxy(clazz, dependencyContainer, databaseSessionSynchronizationContext, entityManagerFactoryContextAsync);
+                        }
+                        registerProxy(clazz, repositoryInstance, dependencyContainer);
                     }
                 }, executorService));
             }
@@ -60,6 +64,32 @@ public class RepositoryCreatorConfiguration {
         return (extendsBase) && clazz.isAnnotationPresent(Repository.class);
     }
 
+    private Object createGeneratedImplementation(
+            Class<?> clazz,
+            DatabaseSessionSynchronizationContext databaseSessionSynchronizationContext,
+            AsyncComponent<EntityManagerFactoryContext> entityManagerFactoryContextAsync
+    ){
+        String className = RepositoryExecutor.GENERATED_PACKAGE + "." + clazz.getSimpleName() + "Impl";
+        try {
+            Class<?> implementationClass = Class.forName(className, true, clazz.getClassLoader());
+            if(!clazz.isAssignableFrom(implementationClass)){
+                log.warn("A classe gerada [{}] nao implementa [{}]. Utilizando JDK Proxy.", className, clazz.getCanonicalName());
+                return null;
+            }
+
+            RepositoryExecutor repositoryExecutor = new RepositoryExecutor(clazz, databaseSessionSynchronizationContext, entityManagerFactoryContextAsync);
+            Object instance = implementationClass.getConstructor(RepositoryExecutor.class).newInstance(repositoryExecutor);
+            log.debug("Utilizando implementacao gerada {} para: {}", className, clazz.getName());
+            return instance;
+        } catch (ClassNotFoundException e) {
+            log.debug("Implementacao gerada ausente para {}. Utilizando JDK Proxy.", clazz.getName());
+            return null;
+        } catch (ReflectiveOperationException e) {
+            log.warn("Falha ao instanciar a implementacao gerada [{}]. Utilizando JDK Proxy.", className, e);
+            return null;
+        }
+    }
+
     private Object createInterfaceProxy(
             Class<?> clazz,
             DependencyContainer dependencyContainer,
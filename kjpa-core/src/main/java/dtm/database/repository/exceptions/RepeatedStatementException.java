@@ -0,0 +1,7 @@
+package dtm.database.repository.exceptions;
+
+public class RepeatedStatementException extends RuntimeException {
+    public RepeatedStatementException(String message) {
+        super(message);
+    }
+}
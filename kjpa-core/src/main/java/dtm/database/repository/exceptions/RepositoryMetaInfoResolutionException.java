@@ -8,4 +8,8 @@ public class RepositoryMetaInfoResolutionException extends RuntimeException {
     public RepositoryMetaInfoResolutionException(String message) {
         super(message);
     }
+
+    public RepositoryMetaInfoResolutionException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -0,0 +1,7 @@
+package dtm.database.repository.exceptions;
+
+public class UnexpectedRollbackException extends RuntimeException {
+    public UnexpectedRollbackException(String message) {
+        super(message);
+    }
+}
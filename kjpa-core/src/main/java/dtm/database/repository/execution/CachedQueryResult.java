@@ -0,0 +1,131 @@
+package dtm.database.repository.execution;
+
+import dtm.database.repository.pagination.Page;
+import dtm.database.repository.pagination.Pageable;
+import dtm.database.repository.pagination.Slice;
+import dtm.database.repository.pagination.imple.PageImple;
+import dtm.database.repository.pagination.imple.SliceImple;
+import dtm.database.repository.prototype.ReturnStrategy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Forma armazenada no cache de consultas. Entidades gerenciadas nunca sao compartilhadas entre sessoes e threads:
+ * o cache guarda apenas os identificadores, e cada acerto recarrega as entidades na sessao da chamada a partir do
+ * contexto de persistencia ou do cache de segundo nivel. Por isso so entidades {@code jakarta.persistence.Cacheable}
+ * sao armazenadas aqui. Projecoes, agregacoes e escalares sao armazenados como valores, com listas e mapas copiados
+ * para colecoes imutaveis.
+ */
+sealed interface CachedQueryResult {
+
+    static CachedQueryResult of(Object result, ReturnStrategy returnStrategy, Class<?> entityType, PersistenceUnitUtil persistenceUnitUtil) {
+        if (entityType == null || result == null) {
+            return new Value(immutableCopy(result));
+        }
+
+        return switch (returnStrategy) {
+            case SINGLE_ENTITY -> new Entities(entityType, returnStrategy, identifiers(List.of(result), persistenceUnitUtil), null, null, null, -1);
+            case OPTIONAL -> new Entities(entityType, returnStrategy, identifiers(
+                    ((Optional<?>) result).map(List::of).orElse(List.of()), persistenceUnitUtil), null, null, null, -1);
+            case COLLECTION -> new Entities(entityType, returnStrategy, identifiers((Collection<?>) result, persistenceUnitUtil), null, null, null, -1);
+            case MAP -> {
+                Map<?, ?> map = (Map<?, ?>) result;
+                yield new Entities(entityType, returnStrategy, identifiers(map.values(), persistenceUnitUtil),
+                        List.copyOf(map.keySet()), null, null, -1);
+            }
+            case PAGE, SLICE -> {
+                Slice<?> slice = (Slice<?>) result;
+                long totalElements = (slice instanceof Page<?> page) ? page.getTotalElements() : -1;
+                yield new Entities(entityType, returnStrategy, identifiers(slice.getContent(), persistenceUnitUtil),
+                        null, slice.getPageable(), slice.nextPageable(), totalElements);
+            }
+            default -> new Value(immutableCopy(result));
+        };
+    }
+
+    private static List<Object> identifiers(Collection<?> entities, PersistenceUnitUtil persistenceUnitUtil) {
+        List<Object> ids = new ArrayList<>(entities.size());
+        for (Object entity : entities) {
+            ids.add(persistenceUnitUtil.getIdentifier(entity));
+        }
+        return List.copyOf(ids);
+    }
+
+    private static Object immutableCopy(Object result) {
+        if (result instanceof List<?> list) {
+            return Collections.unmodifiableList(new ArrayList<>(list));
+        }
+        if (result instanceof Map<?, ?> map) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(map));
+        }
+        return result;
+    }
+
+    record Value(Object value) implements CachedQueryResult {}
+
+    record Entities(
+            Class<?> entityType,
+            ReturnStrategy returnStrategy,
+            List<Object> ids,
+            List<Object> keys,
+            Pageable pageable,
+            Pageable nextPageable,
+            long totalElements
+    ) implements CachedQueryResult {
+
+        boolean requiresSession() {
+            return !ids.isEmpty();
+        }
+
+        /**
+         * Recarrega as entidades em {@code em}; {@code em} so e usado quando ha identificadores.
+         */
+        Object restore(EntityManager em) {
+            List<?> loaded = load(em);
+            if (returnStrategy == ReturnStrategy.MAP) {
+                Map<Object, Object> entitiesByKey = new LinkedHashMap<>(Math.max(16, (int) (loaded.size() / 0.75f) + 1));
+                for (int i = 0; i < loaded.size(); i++) {
+                    if (loaded.get(i) != null) entitiesByKey.put(keys.get(i), loaded.get(i));
+                }
+                return entitiesByKey;
+            }
+
+            // entidades removidas depois do carregamento sao ignoradas ate a proxima invalidacao
+            List<Object> entities = new ArrayList<>(loaded.size());
+            for (Object entity : loaded) {
+                if (entity != null) entities.add(entity);
+            }
+
+            return switch (returnStrategy) {
+                case SINGLE_ENTITY -> entities.isEmpty() ? null : entities.getFirst();
+                case OPTIONAL -> entities.isEmpty() ? Optional.empty() : Optional.of(entities.getFirst());
+                case PAGE -> new PageImple<>(entities, pageable, nextPageable, totalElements);
+                case SLICE -> new SliceImple<>(entities, pageable, nextPageable);
+                default -> entities;
+            };
+        }
+
+        private List<?> load(EntityManager em) {
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+
+            return em.unwrap(Session.class)
+                    .byMultipleIds(entityType)
+                    .enableOrderedReturn(true)
+                    .enableSessionCheck(true)
+                    .with(CacheMode.NORMAL)
+                    .multiLoad(ids);
+        }
+    }
+}
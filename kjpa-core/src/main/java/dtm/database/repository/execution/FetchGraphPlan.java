@@ -0,0 +1,49 @@
+package dtm.database.repository.execution;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Graph;
+
+import java.util.List;
+
+/**
+ * Caminhos do {@code @FetchGraph} de um metodo, convertidos em {@link EntityGraph} no primeiro uso.
+ * O grafo do Hibernate referencia apenas o metamodelo, nao a sessao que o criou, e por isso e
+ * reutilizado em todas as chamadas seguintes; ele nunca e alterado depois de montado.
+ */
+final class FetchGraphPlan {
+
+    private final Class<?> rootType;
+    private final List<String> paths;
+    private volatile EntityGraph<?> graph;
+
+    FetchGraphPlan(Class<?> rootType, List<String> paths) {
+        this.rootType = rootType;
+        this.paths = List.copyOf(paths);
+    }
+
+    EntityGraph<?> graph(EntityManager em) {
+        EntityGraph<?> current = graph;
+        if (current == null) {
+            // corrida benigna: grafos equivalentes podem ser montados em paralelo, e qualquer um serve
+            current = build(em);
+            graph = current;
+        }
+        return current;
+    }
+
+    private EntityGraph<?> build(EntityManager em) {
+        EntityGraph<?> root = em.createEntityGraph(rootType);
+
+        for (String path : paths) {
+            String[] segments = path.split("\\.");
+            Graph<?> node = root;
+            for (int i = 0; i < segments.length - 1; i++) {
+                node = node.addSubgraph(segments[i]);
+            }
+            node.addAttributeNodes(segments[segments.length - 1]);
+        }
+
+        return root;
+    }
+}
@@ -0,0 +1,135 @@
+package dtm.database.repository.execution;
+
+import dtm.database.repository.exceptions.InvalidQueryOperationException;
+import dtm.database.repository.pagination.Sort;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Decomposicao de uma query de selecao, feita uma unica vez por metodo, usada para anexar
+ * ordenacao, criterio keyset e derivar a query de contagem de paginas.
+ */
+final class PageableQueryTemplate {
+
+    static final String KEYSET_PARAMETER = "kjpaKeysetCursor";
+
+    private static final Pattern FROM = Pattern.compile("(?i)\\bFROM\\b");
+    private static final Pattern FROM_ALIAS = Pattern.compile("(?i)\\bFROM\\s+[\\w.]+(?:\\s+AS)?\\s+(?!(?:WHERE|ORDER|GROUP|JOIN|LEFT|RIGHT|INNER|OUTER|FETCH)\\b)(\\w+)");
+    private static final Pattern WHERE = Pattern.compile("(?i)\\bWHERE\\b");
+    private static final Pattern ORDER_BY = Pattern.compile("(?i)\\bORDER\\s+BY\\b");
+    private static final Pattern DISTINCT = Pattern.compile("(?i)^\\s*SELECT\\s+DISTINCT\\b");
+    private static final Pattern JOIN_FETCH = Pattern.compile("(?i)\\bJOIN\\s+FETCH\\b");
+
+    private final String methodName;
+    private final boolean nativeQuery;
+    private final String body;
+    private final String orderBy;
+    private final String alias;
+    private final int fromIndex;
+    private final int whereIndex;
+    private final boolean distinct;
+    private final boolean fetchJoin;
+
+    PageableQueryTemplate(String methodName, String query, boolean nativeQuery) {
+        this.methodName = methodName;
+        this.nativeQuery = nativeQuery;
+
+        Matcher orderMatcher = ORDER_BY.matcher(query);
+        int orderIndex = -1;
+        int orderEnd = -1;
+        while (orderMatcher.find()) {
+            orderIndex = orderMatcher.start();
+            orderEnd = orderMatcher.end();
+        }
+
+        this.body = (orderIndex >= 0) ? query.substring(0, orderIndex).trim() : query.trim();
+        this.orderBy = (orderIndex >= 0) ? query.substring(orderEnd).trim() : null;
+
+        Matcher fromMatcher = FROM.matcher(body);
+        this.fromIndex = fromMatcher.find() ? fromMatcher.start() : -1;
+
+        Matcher aliasMatcher = FROM_ALIAS.matcher(body);
+        this.alias = aliasMatcher.find() ? aliasMatcher.group(1) : null;
+
+        Matcher whereMatcher = WHERE.matcher(body);
+        this.whereIndex = (fromIndex >= 0 && whereMatcher.find(fromIndex)) ? whereMatcher.start() : -1;
+
+        this.distinct = DISTINCT.matcher(body).find();
+        this.fetchJoin = JOIN_FETCH.matcher(body).find();
+    }
+
+    /**
+     * Query de selecao com o criterio keyset (quando {@code keysetAttribute} nao e nulo) e a ordenacao aplicados.
+     * No keyset a ordem e sempre a do identificador, por isso {@code Sort} e {@code ORDER BY} proprio sao rejeitados.
+     */
+    String select(Sort sort, String keysetAttribute, boolean hasCursor) {
+        boolean sorted = sort != null && sort.isSorted();
+        if (keysetAttribute != null && sorted) {
+            throw new InvalidQueryOperationException("Paginacao keyset ordena pelo identificador e nao aceita Sort (metodo '" + methodName + "'). Remova o Sort ou use paginacao por offset.");
+        }
+        if (keysetAttribute != null && orderBy != null) {
+            throw new InvalidQueryOperationException("Paginacao keyset ordena pelo identificador e nao aceita uma query com ORDER BY (metodo '" + methodName + "'). Remova o ORDER BY ou use paginacao por offset.");
+        }
+        if (!sorted && keysetAttribute == null) {
+            return (orderBy != null) ? body + " ORDER BY " + orderBy : body;
+        }
+
+        String qualifier = requireAlias();
+        StringBuilder query = new StringBuilder(body.length() + 64);
+
+        if (keysetAttribute != null) {
+            String cursorCondition = qualifier + "." + keysetAttribute + " > :" + KEYSET_PARAMETER;
+            if (!hasCursor) {
+                query.append(body);
+            } else if (whereIndex >= 0) {
+                query.append(body, 0, whereIndex)
+                        .append("WHERE (")
+                        .append(body.substring(whereIndex + "WHERE".length()).trim())
+                        .append(") AND ")
+                        .append(cursorCondition);
+            } else {
+                query.append(body).append(" WHERE ").append(cursorCondition);
+            }
+            return query.append(" ORDER BY ").append(qualifier).append(".").append(keysetAttribute).append(" ASC").toString();
+        }
+
+        query.append(body).append(" ORDER BY ");
+        if (orderBy != null) {
+            query.append(orderBy).append(", ");
+        }
+        for (int i = 0; i < sort.orders().size(); i++) {
+            Sort.Order order = sort.orders().get(i);
+            if (i > 0) query.append(", ");
+            query.append(qualifier).append(".").append(order.property()).append(" ").append(order.direction().name());
+        }
+        return query.toString();
+    }
+
+    String count() {
+        if (nativeQuery) {
+            return "SELECT COUNT(*) FROM (" + body + ") kjpa_count";
+        }
+        if (fromIndex < 0) {
+            throw new InvalidQueryOperationException("Nao foi possivel derivar a query de contagem do metodo '" + methodName + "': " + body);
+        }
+
+        // JOIN FETCH nao e permitido em COUNT; sem o FETCH o join de colecao repete a raiz, dai o DISTINCT
+        String from = body.substring(fromIndex);
+        if (fetchJoin) {
+            from = JOIN_FETCH.matcher(from).replaceAll("JOIN");
+        }
+        String projection = (alias == null) ? "*" : ((distinct || fetchJoin) ? "DISTINCT " + alias : alias);
+        return "SELECT COUNT(" + projection + ") " + from;
+    }
+
+    private String requireAlias() {
+        if (nativeQuery) {
+            throw new InvalidQueryOperationException("Sort e paginacao keyset nao sao suportados em query nativa (metodo '" + methodName + "')");
+        }
+        if (alias == null) {
+            throw new InvalidQueryOperationException("A query do metodo '" + methodName + "' precisa declarar um alias na clausula FROM para aceitar Sort ou paginacao keyset");
+        }
+        return alias;
+    }
+}
@@ -0,0 +1,40 @@
+package dtm.database.repository.execution;
+
+import jakarta.persistence.Query;
+
+import java.util.Map;
+
+/**
+ * Aplica os argumentos de uma chamada de repositorio aos parametros nomeados da query.
+ * As instancias sao construidas uma unica vez por metodo e reutilizadas em todas as chamadas.
+ */
+@FunctionalInterface
+public interface ParameterBinder {
+
+    ParameterBinder NONE = (query, args) -> {};
+
+    void bind(Query query, Object[] args);
+
+    static ParameterBinder positional(Map<Integer, String> paramMap) {
+        if (paramMap == null || paramMap.isEmpty()) {
+            return NONE;
+        }
+
+        final int[] indexes = new int[paramMap.size()];
+        final String[] names = new String[paramMap.size()];
+
+        int position = 0;
+        for (Map.Entry<Integer, String> entry : paramMap.entrySet()) {
+            indexes[position] = entry.getKey();
+            names[position] = entry.getValue();
+            position++;
+        }
+
+        return (query, args) -> {
+            if (args == null) return;
+            for (int i = 0; i < indexes.length; i++) {
+                query.setParameter(names[i], args[indexes[i]]);
+            }
+        };
+    }
+}
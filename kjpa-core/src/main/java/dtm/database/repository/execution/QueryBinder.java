@@ -0,0 +1,16 @@
+package dtm.database.repository.execution;
+
+import jakarta.persistence.Query;
+
+/**
+ * Aplica os parametros de uma chamada diretamente a query, com os tipos declarados pelo metodo.
+ * Gerado pelo processor em cada metodo derivado ou {@code @Query} do {@code XxxRepositoryImpl}, dispensa o
+ * array de argumentos e a indexacao posicional do {@link ParameterBinder}.
+ */
+@FunctionalInterface
+public interface QueryBinder {
+
+    QueryBinder NONE = query -> {};
+
+    void bind(Query query);
+}
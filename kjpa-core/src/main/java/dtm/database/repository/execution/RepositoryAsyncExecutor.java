@@ -0,0 +1,65 @@
+package dtm.database.repository.execution;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Executor dos metodos de repositorio que retornam {@link CompletableFuture}.
+ * <p>
+ * Cada chamada roda em uma virtual thread propria, que nao herda a sessao transacional do chamador.
+ * O {@link Semaphore} limita quantas chamadas usam o banco ao mesmo tempo, mantendo a
+ * concorrencia abaixo do tamanho do pool de conexoes; as demais aguardam sem ocupar threads de plataforma.
+ */
+@Slf4j
+public final class RepositoryAsyncExecutor implements AutoCloseable {
+
+    private final ExecutorService executorService;
+    private final Semaphore permits;
+
+    public RepositoryAsyncExecutor(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("O executor assincrono deve permitir ao menos uma chamada simultanea: " + maxConcurrency);
+        }
+
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.executorService = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual()
+                        .name("kjpa-async-", 0)
+                        .inheritInheritableThreadLocals(false)
+                        .factory()
+        );
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+
+            try {
+                return task.get();
+            } finally {
+                permits.release();
+            }
+        }, executorService);
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        log.debug("Encerrando executor assincrono de repositorios...");
+        executorService.close();
+    }
+}
@@ -0,0 +1,38 @@
+package dtm.database.repository.execution;
+
+import dtm.database.repository.pagination.Pageable;
+import dtm.database.repository.pagination.Sort;
+import jakarta.persistence.Query;
+
+/**
+ * Argumentos de uma chamada de repositorio. Os metodos derivados e {@code @Query} do {@code XxxRepositoryImpl}
+ * informam um {@link QueryBinder} tipado e o {@link Pageable}/{@link Sort} ja separados; o JDK Proxy, os metodos
+ * do {@code CrudRepository} e os metodos {@code @Cacheable} (cuja chave sao os argumentos) informam o array,
+ * aplicado pelo {@link ParameterBinder} do invoker.
+ */
+record RepositoryCall(Object[] args, QueryBinder binder, Pageable pageable, Sort sort) {
+
+    static RepositoryCall of(RepositoryMethodInvoker invoker, Object[] args) {
+        Pageable pageable = null;
+        Sort sort = null;
+        if (args.length > invoker.metainfo().paramMap().size()) {
+            for (Object arg : args) {
+                if (arg instanceof Pageable value) pageable = value;
+                else if (arg instanceof Sort value) sort = value;
+            }
+        }
+        return new RepositoryCall(args, null, pageable, sort);
+    }
+
+    static RepositoryCall of(QueryBinder binder, Pageable pageable, Sort sort) {
+        return new RepositoryCall(RepositoryExecutor.NO_ARGS, (binder != null) ? binder : QueryBinder.NONE, pageable, sort);
+    }
+
+    void bind(Query query, RepositoryMethodInvoker invoker) {
+        if (binder != null) {
+            binder.bind(query);
+        } else {
+            invoker.parameterBinder().bind(query, args);
+        }
+    }
+}
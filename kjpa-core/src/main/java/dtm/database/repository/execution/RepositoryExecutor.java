@@ -0,0 +1,1080 @@
+package dtm.database.repository.execution;
+
+import dtm.database.repository.cache.RepositoryQueryCache;
+import dtm.database.repository.exceptions.InvalidQueryOperationException;
+import dtm.database.repository.exceptions.RepositoryMetaInfoResolutionException;
+import dtm.database.repository.metrics.KjpaMetrics;
+import dtm.database.repository.metrics.RepositoryCallEvent;
+import dtm.database.repository.pagination.Page;
+import dtm.database.repository.pagination.Pageable;
+import dtm.database.repository.pagination.Slice;
+import dtm.database.repository.pagination.Sort;
+import dtm.database.repository.pagination.imple.PageImple;
+import dtm.database.repository.pagination.imple.SliceImple;
+import dtm.database.repository.prototype.RepositoryMetaInfoManager;
+import dtm.database.repository.prototype.RepositoryMetainfo;
+import dtm.database.repository.prototype.ReturnStrategy;
+import dtm.database.repository.prototype.datasource.EntityManagerFactoryContext;
+import dtm.database.repository.sessions.DatabaseSession;
+import dtm.database.repository.sessions.DatabaseSessionStatementInspector;
+import dtm.database.repository.sessions.DatabaseSessionSynchronizationContext;
+import dtm.database.repository.sessions.SessionKey;
+import dtm.di.annotations.aop.DisableAop;
+import dtm.di.exceptions.DependencyInjectionException;
+import dtm.di.prototypes.async.AsyncComponent;
+import jakarta.persistence.Cache;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.FlushModeType;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.Query;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.StaleStateException;
+import org.hibernate.StatelessSession;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * API de execucao compartilhada pelos repositorios, tanto pelo proxy dinamico quanto
+ * pelas implementacoes concretas geradas pelo processor ({@code XxxRepositoryImpl}).
+ */
+@Slf4j
+@DisableAop
+public class RepositoryExecutor {
+
+    public static final Object[] NO_ARGS = new Object[0];
+    public static final String GENERATED_PACKAGE = "dtm.database.repository.generated";
+    private static final int MAX_IN_CLAUSE_CHUNK = 1000;
+
+    private final AtomicReference<RepositoryMetaInfoManager> repositoryMetaInfoManagerRef = new AtomicReference<>();
+    private final AtomicReference<EntityManagerFactoryContext> entityManagerFactoryContextRef = new AtomicReference<>();
+    private final Class<?> repositoryInterface;
+    private final DatabaseSessionSynchronizationContext databaseSessionSynchronizationContext;
+    private final AsyncComponent<EntityManagerFactoryContext> entityManagerFactoryContextAsync;
+    private volatile int inClauseChunkSize;
+
+    public RepositoryExecutor(
+            Class<?> repositoryInterface,
+            DatabaseSessionSynchronizationContext databaseSessionSynchronizationContext,
+            AsyncComponent<EntityManagerFactoryContext> entityManagerFactoryContextAsync
+    ) {
+        this.repositoryInterface = repositoryInterface;
+        this.databaseSessionSynchronizationContext = databaseSessionSynchronizationContext;
+        this.entityManagerFactoryContextAsync = entityManagerFactoryContextAsync;
+    }
+
+    public Class<?> getRepositoryInterface() {
+        return repositoryInterface;
+    }
+
+    /**
+     * Entidade gerenciada pelo repositorio, conforme os metadados gerados pelo processor.
+     */
+    public Class<?> getEntityClass() {
+        return resolveRepositoryMetaInfoManager().getEntityClass();
+    }
+
+    public Class<?> getIdClass() {
+        return resolveRepositoryMetaInfoManager().getIdClass();
+    }
+
+    public RepositoryMethodInvoker invoker(String signature) {
+        return RepositoryMethodInvoker.of(resolveMetadata(signature), signature);
+    }
+
+    public Object execute(RepositoryMethodInvoker invoker, Object[] args) {
+        return execute(invoker, RepositoryCall.of(invoker, args));
+    }
+
+    /**
+     * Entrada dos metodos derivados e {@code @Query} gerados: os parametros sao aplicados pelo {@link QueryBinder}
+     * tipado, sem array de argumentos.
+     */
+    public Object execute(RepositoryMethodInvoker invoker, QueryBinder binder) {
+        return execute(invoker, null, null, binder);
+    }
+
+    /**
+     * Igual a {@link #execute(RepositoryMethodInvoker, QueryBinder)}, para metodos com parametros {@link Pageable}
+     * e/ou {@link Sort} (nulos quando o metodo nao os declara).
+     */
+    public Object execute(RepositoryMethodInvoker invoker, Pageable pageable, Sort sort, QueryBinder binder) {
+        if (invoker.metainfo().isCacheable()) {
+            throw new InvalidQueryOperationException(
+                    invoker.metainfo().methodName(),
+                    repositoryInterface.getSimpleName(),
+                    "Metodos @Cacheable devem informar o array de argumentos, usado como chave do cache."
+            );
+        }
+
+        return execute(invoker, RepositoryCall.of(binder, pageable, sort));
+    }
+
+    private Object execute(RepositoryMethodInvoker invoker, RepositoryCall call) {
+        if (invoker.metainfo().async()) {
+            return executeAsync(invoker, call);
+        }
+
+        return execute(invoker, call, databaseSessionSynchronizationContext.getSession(SessionKey.TRANSACTIONAL));
+    }
+
+    /**
+     * Metodos {@code CompletableFuture} nunca participam da transacao do chamador: cada chamada abre a propria
+     * {@link DatabaseSession}, permitindo que consultas independentes rodem em paralelo.
+     */
+    private CompletableFuture<Object> executeAsync(RepositoryMethodInvoker invoker, RepositoryCall call) {
+        RepositoryAsyncExecutor asyncExecutor = getEntityManagerFactoryContext().getAsyncExecutor();
+        if (asyncExecutor == null) {
+            try {
+                return CompletableFuture.completedFuture(execute(invoker, call, null));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        return asyncExecutor.submit(() -> execute(invoker, call, null));
+    }
+
+    /**
+     * Com as metricas habilitadas ou uma gravacao JFR ativa, mede cada chamada do metodo (inclusive as atendidas pelo
+     * cache); as falhas sao as chamadas encerradas por excecao. Streams sao medidos ate o retorno, nao ate o seu consumo.
+     * A chave e a assinatura do metodo, para que sobrecargas nao se misturem.
+     */
+    private Object execute(RepositoryMethodInvoker invoker, RepositoryCall call, DatabaseSession boundSession) {
+        KjpaMetrics metrics = getEntityManagerFactoryContext().getMetrics();
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (metrics == null && !event.isEnabled()) {
+            return executeCacheable(invoker, call, boundSession);
+        }
+
+        event.begin();
+        long start = System.nanoTime();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = executeCacheable(invoker, call, boundSession);
+            failed = false;
+            return result;
+        } finally {
+            if (metrics != null) {
+                metrics.recordRepositoryCall(repositoryInterface, invoker.signature(), System.nanoTime() - start, failed);
+            }
+            if (event.shouldCommit()) {
+                event.complete(repositoryInterface, invoker.signature(), invoker.metainfo().operationType().name(), countRows(invoker, result), failed);
+            }
+        }
+    }
+
+    /**
+     * Linhas retornadas ou afetadas pela chamada; {@code -1} quando o resultado nao tem tamanho conhecido.
+     */
+    private long countRows(RepositoryMethodInvoker invoker, Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getContent().size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number number) {
+            return invoker.dml() ? number.longValue() : 1;
+        }
+        if (result instanceof Stream<?> || result instanceof Boolean) {
+            return -1;
+        }
+        return 1;
+    }
+
+    private Object executeCacheable(RepositoryMethodInvoker invoker, RepositoryCall call, DatabaseSession boundSession) {
+        RepositoryMetainfo metadata = invoker.metainfo();
+
+        // dentro de uma transacao de escrita o cache e ignorado: a sessao pode enxergar dados ainda nao confirmados
+        if (metadata.isCacheable() && (boundSession == null || !boundSession.isValidSession() || boundSession.isReadOnly())) {
+            RepositoryQueryCache queryCache = getEntityManagerFactoryContext().getQueryCache();
+            EntityPersister cachedEntity = resolveResultEntity(metadata.resultType());
+
+            // entidades fora do cache de segundo nivel custariam um SELECT a cada acerto; o processor ja rejeita esses metodos
+            if (queryCache != null && (cachedEntity == null || cachedEntity.canReadFromCache())) {
+                Class<?> cachedEntityType = (cachedEntity != null) ? metadata.resultType() : null;
+                PersistenceUnitUtil persistenceUnitUtil = getEntityManagerFactoryContext().getEntityManagerFactory().getPersistenceUnitUtil();
+
+                return queryCache.<Object, CachedQueryResult>getOrLoad(
+                        resolveRepositoryMetaInfoManager().getEntityClass(),
+                        repositoryInterface,
+                        metadata.methodName(),
+                        call.args(),
+                        metadata.cacheTtlMillis(),
+                        () -> executeWithSession(invoker, call, boundSession),
+                        loaded -> CachedQueryResult.of(loaded, metadata.returnStrategy(), cachedEntityType, persistenceUnitUtil),
+                        cached -> restoreCachedResult(cached, boundSession)
+                );
+            }
+        }
+
+        Object result = executeWithSession(invoker, call, boundSession);
+
+        if (!invoker.readOperation()) {
+            invalidateQueryCache(boundSession);
+        }
+        return result;
+    }
+
+    private EntityPersister resolveResultEntity(Class<?> resultType) {
+        if (resultType == null || !resultType.isAnnotationPresent(Entity.class)) {
+            return null;
+        }
+        return getEntityManagerFactoryContext().getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .findEntityDescriptor(resultType);
+    }
+
+    /**
+     * Entidades em cache sao recarregadas pelos identificadores na sessao da chamada, ou em um {@link EntityManager}
+     * proprio, sem transacao, quando nao ha sessao vinculada. A carga consulta o contexto de persistencia e o cache de
+     * segundo nivel antes do banco, entao um acerto nao abre conexao; instancias gerenciadas nunca sao compartilhadas
+     * entre sessoes.
+     */
+    private Object restoreCachedResult(CachedQueryResult cached, DatabaseSession boundSession) {
+        if (cached == null) {
+            return null;
+        }
+        if (cached instanceof CachedQueryResult.Value value) {
+            return value.value();
+        }
+
+        CachedQueryResult.Entities entities = (CachedQueryResult.Entities) cached;
+        if (!entities.requiresSession()) {
+            return entities.restore(null);
+        }
+        if (boundSession != null && boundSession.isValidSession()) {
+            return entities.restore(boundSession.getEntityManager());
+        }
+
+        try (EntityManager em = getEntityManagerFactoryContext().getEntityManagerFactory().createEntityManager()) {
+            return entities.restore(em);
+        }
+    }
+
+    private Object executeWithSession(RepositoryMethodInvoker invoker, RepositoryCall call, DatabaseSession boundSession) {
+        if(boundSession != null && boundSession.isValidSession()){
+            return executeEfetiveSqlWithSession(invoker, call, boundSession);
+        }else{
+            EntityManagerFactoryContext entityManagerFactoryContext = getEntityManagerFactoryContext();
+
+            DatabaseSession databaseSession = entityManagerFactoryContext.createDatabaseSession();
+
+            if (invoker.metainfo().returnStrategy() == ReturnStrategy.STREAM) {
+                return executeStreamWithOwnSession(invoker, call, databaseSession);
+            }
+
+            return databaseSession.runInTransaction(invoker.readOperation(), () -> {
+                return executeEfetiveSqlWithSession(invoker, call, databaseSession);
+            });
+        }
+    }
+
+    /**
+     * Fora de um {@code @Transactional}, a sessao (e sua conexao) pertence ao {@link Stream} retornado
+     * e so e encerrada quando o stream e fechado.
+     */
+    private Object executeStreamWithOwnSession(RepositoryMethodInvoker invoker, RepositoryCall call, DatabaseSession databaseSession) {
+        try {
+            databaseSession.beginReadOnlyTransaction();
+
+            Stream<?> stream = (Stream<?>) executeEfetiveSqlWithSession(invoker, call, databaseSession);
+            return stream.onClose(() -> {
+                try {
+                    databaseSession.commitIfActive();
+                } finally {
+                    databaseSession.close();
+                }
+            });
+        } catch (RuntimeException e) {
+            databaseSession.rollbackIfActive();
+            databaseSession.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Invalida imediatamente e, dentro de uma transacao, novamente apos o commit ou rollback: uma leitura concorrente
+     * feita antes do commit ainda enxerga o estado antigo e nao pode permanecer no cache.
+     */
+    private void invalidateQueryCache(DatabaseSession boundSession) {
+        RepositoryQueryCache queryCache = getEntityManagerFactoryContext().getQueryCache();
+        if (queryCache == null) {
+            return;
+        }
+
+        Class<?> entityClass = resolveRepositoryMetaInfoManager().getEntityClass();
+        queryCache.invalidate(entityClass);
+        if (boundSession != null && boundSession.isValidSession()) {
+            boundSession.afterCompletion(entityClass, () -> queryCache.invalidate(entityClass));
+        }
+    }
+
+    private RepositoryMetainfo resolveMetadata(String signature) {
+        RepositoryMetainfo metadata = resolveRepositoryMetaInfoManager().getByMethod(signature);
+
+        if (metadata == null) {
+            handleMetadataNotFound(signature);
+        }
+        return metadata;
+    }
+
+    private RepositoryMetaInfoManager resolveRepositoryMetaInfoManager() {
+        if(repositoryMetaInfoManagerRef.get() == null){
+
+            String className = GENERATED_PACKAGE + "." + repositoryInterface.getSimpleName() + "MetaData";
+
+            try {
+                Class<?> metaDataManagerInfo = Class.forName(className, true, repositoryInterface.getClassLoader());
+                Object instance = metaDataManagerInfo.getMethod("getInstance").invoke(null);
+
+                if(instance instanceof RepositoryMetaInfoManager metaInfoManager){
+                    repositoryMetaInfoManagerRef.set(metaInfoManager);
+                }
+            } catch (ClassNotFoundException e) {
+                throwIfInvalidrepositoryMetaInfoManagerRef(className);
+            } catch (ReflectiveOperationException e) {
+                throw new RepositoryMetaInfoResolutionException(
+                        "Falha ao instanciar os metadados de " + repositoryInterface.getSimpleName() + " a partir de " + className, e
+                );
+            }
+        }
+
+        return repositoryMetaInfoManagerRef.get();
+    }
+
+    private void throwIfInvalidrepositoryMetaInfoManagerRef(String attemptedClassName) {
+        if(repositoryMetaInfoManagerRef.get() == null){
+            log.error("""
+
+                [ ERRO DE RESOLUÇÃO DE REPOSITÓRIO ]
+                Não foi possível encontrar os metadados gerados para o repositório.
+                > Interface  : {}
+                > Classe Alvo : {}
+                > Possível Causa: O processador de anotações não gerou a classe de metadados ou está desabilitado
+                """, repositoryInterface.getName(), attemptedClassName);
+
+            throw new RepositoryMetaInfoResolutionException(
+                    "Falha ao localizar metadados para " + repositoryInterface.getSimpleName() +
+                            ". Certifique-se de que o Proceessor esta habilitado e a classe " + attemptedClassName + " foi gerada corretamente"
+            );
+        }
+    }
+
+    private void handleMetadataNotFound(String signature) {
+        String repoName = repositoryInterface.getName();
+
+        String solution = String.format(
+                "Certifique-se de que o Annotation Processor do Kernon foi executado. " +
+                "Tente realizar um 'Clean and Build' no projeto. " +
+                "Se o erro persistir, verifique se a dependência do processor está configurada no seu pom.xml/build.gradle " +
+                "e se as anotações no repositório '%s' estão corretas.", repoName);
+
+
+        log.error("""
+
+        [ ERRO DE EXECUÇÃO: METADADO AUSENTE ]
+        O método chamado não possui instruções de execução mapeadas.
+        > Assinatura Gerada: {}
+        > Repositório: {}.
+        > Possível Solução : {}
+        """, signature, repoName, solution);
+
+        throw new RepositoryMetaInfoResolutionException(
+                String.format("Metadados ausentes para '%s' em '%s'. %s", signature, repoName, solution)
+        );
+    }
+
+    private Object executeEfetiveSqlWithSession(RepositoryMethodInvoker invoker, RepositoryCall call, DatabaseSession databaseSession){
+        RepositoryMetainfo metadata = invoker.metainfo();
+        Object[] args = call.args();
+        DatabaseSessionStatementInspector statementInspector = databaseSession.getStatementInspector();
+        if (statementInspector != null) {
+            statementInspector.setRepositoryMethod(repositoryInterface.getSimpleName() + "." + invoker.signature());
+        }
+
+        return switch (metadata.operationType()){
+            case SAVE -> {
+                Object entity = (args.length == 1) ? args[0] : null;
+                yield executeSave(entity, databaseSession, metadata.autoFlush());
+            }
+            case INSERT -> {
+                Object entity = (args.length == 1) ? args[0] : null;
+                yield executeInsert(entity, databaseSession, metadata.autoFlush());
+            }
+            case UPDATE -> {
+                Object entity = (args.length == 1) ? args[0] : null;
+                yield executeUpdate(entity, databaseSession);
+            }
+            case SAVE_ALL -> {
+                Object entities = (args.length == 1) ? args[0] : null;
+                yield executeSaveAll(entities, databaseSession, metadata.autoFlush());
+            }
+            case DELETE -> {
+                Object entity = (args.length == 1) ? args[0] : null;
+                yield executeDelete(entity, databaseSession, metadata.autoFlush());
+            }
+            case DELETE_BY_ID -> {
+                yield executeDeleteById(call, invoker, databaseSession);
+            }
+            case DELETE_ALL -> {
+                Object entities = (args.length == 1) ? args[0] : null;
+                yield executeDeleteAll(entities, invoker, databaseSession);
+            }
+            case DELETE_ALL_BY_ID -> {
+                Object ids = (args.length == 1) ? args[0] : null;
+                yield executeDeleteAllById(ids, invoker, databaseSession);
+            }
+            case FIND_ALL -> {
+                yield executeFindAll(call, invoker, databaseSession);
+            }
+            case FIND_BY_ID -> {
+                yield executeFindById(call, invoker, databaseSession);
+            }
+            case FIND_ALL_BY_ID -> {
+                Object ids = (args.length == 1) ? args[0] : null;
+                yield executeFindAllById(ids, invoker, databaseSession);
+            }
+            case COUNT -> {
+                yield executeCount(call, invoker, databaseSession);
+            }
+            case EXISTS -> {
+                yield executeExists(call, invoker, databaseSession);
+            }
+            case PROJECTION -> {
+                yield executeProjection(call, invoker, databaseSession);
+            }
+            case QUERY -> {
+                yield executeQuery(call, invoker, databaseSession);
+            }
+            default -> throw new InvalidQueryOperationException(
+                    metadata.methodName(),
+                    repositoryInterface.getSimpleName(),
+                    "Tipo de operacao '" + metadata.operationType() + "' nao suportada ou nao implementada."
+            );
+        };
+    }
+
+    private Object executeSave(Object entity, DatabaseSession databaseSession, boolean flush){
+        if (entity == null) {
+            throw new InvalidQueryOperationException("Tentativa de salvar uma entidade nula.");
+        }
+
+        try {
+            EntityManager em = databaseSession.getEntityManager();
+
+            if (em.contains(entity)) {
+                em.flush();
+                return entity;
+            }
+
+            if (isNewEntity(entity, em)) {
+                em.persist(entity);
+                if(flush)em.flush();
+                return entity;
+            }
+
+            Object managedEntity = em.merge(entity);
+            if(flush)em.flush();
+
+            return managedEntity;
+        }catch (Exception e) {
+            log.error("Falha ao persistir entidade do tipo: {}", entity.getClass().getName(), e);
+            throw e;
+        }
+    }
+
+    private Object executeInsert(Object entity, DatabaseSession databaseSession, boolean flush){
+        if (entity == null) {
+            throw new InvalidQueryOperationException("Tentativa de inserir uma entidade nula.");
+        }
+
+        try {
+            EntityManager em = databaseSession.getEntityManager();
+            em.persist(entity);
+            if(flush)em.flush();
+
+            return entity;
+        }catch (Exception e) {
+            log.error("Falha ao inserir entidade do tipo: {}", entity.getClass().getName(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Atualizacao direta por uma {@link StatelessSession} aberta sobre a conexao (e a transacao) da sessao atual,
+     * dentro de {@link Session#doWork}: o Hibernate emite apenas o {@code UPDATE} com a condicao de versao e incrementa
+     * a versao na propria instancia. O batch JDBC e desligado para que a verificacao da versao ocorra no proprio
+     * {@code update}. Uma copia da mesma linha ja carregada na sessao e destacada para nao sobrescrever a atualizacao no flush.
+     */
+    private Object executeUpdate(Object entity, DatabaseSession databaseSession){
+        if (entity == null) {
+            throw new InvalidQueryOperationException("Tentativa de atualizar uma entidade nula.");
+        }
+
+        EntityManager em = databaseSession.getEntityManager();
+        if (em.contains(entity)) {
+            em.flush();
+            return entity;
+        }
+
+        Object id = em.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+        if (id == null) {
+            throw new InvalidQueryOperationException("Tentativa de atualizar uma entidade sem identificador: " + entity.getClass().getName());
+        }
+
+        Session session = em.unwrap(Session.class);
+        try {
+            session.flush();
+            session.detach(session.getReference(entity.getClass(), id));
+
+            session.doWork(connection -> {
+                try (StatelessSession statelessSession = session.getSessionFactory()
+                        .withStatelessOptions()
+                        .connection(connection)
+                        .openStatelessSession()) {
+                    statelessSession.setJdbcBatchSize(0);
+                    statelessSession.update(entity);
+                }
+            });
+
+            em.getEntityManagerFactory().getCache().evict(entity.getClass(), id);
+            return entity;
+        } catch (StaleStateException | EntityNotFoundException e) {
+            throw new OptimisticLockException(
+                    "Nenhuma linha atualizada para " + entity.getClass().getName() + "#" + id + ": versao desatualizada ou registro inexistente.",
+                    e,
+                    entity
+            );
+        } catch (Exception e) {
+            log.error("Falha ao atualizar entidade do tipo: {}", entity.getClass().getName(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Entidade nova: {@code @Version} nulo quando a entidade e versionada; caso contrario {@code @Id} nulo
+     * ou com o valor padrao do tipo primitivo. Novas entidades seguem por {@code persist}, evitando o
+     * {@code SELECT} que o {@code merge} executa antes do {@code INSERT}.
+     * <p>
+     * Um {@code @Version} primitivo nunca e nulo e o Hibernate inicia a versao em {@code 0}, portanto {@code 0} nao
+     * distingue uma entidade nova de uma recem inserida: nesse caso a decisao cabe ao {@code @Id}, como na estrategia
+     * de valor nao salvo do proprio Hibernate.
+     */
+    private boolean isNewEntity(Object entity, EntityManager em) {
+        RepositoryMetaInfoManager metaInfoManager = resolveRepositoryMetaInfoManager();
+        PersistenceUnitUtil persistenceUnitUtil = em.getEntityManagerFactory().getPersistenceUnitUtil();
+
+        if (metaInfoManager.getVersionAttribute() != null) {
+            Object version = persistenceUnitUtil.getVersion(entity);
+            if (version == null) {
+                return true;
+            }
+            if (!metaInfoManager.hasPrimitiveVersion() || !(version instanceof Number number) || number.longValue() != 0L) {
+                return false;
+            }
+        }
+
+        Object id = persistenceUnitUtil.getIdentifier(entity);
+        if (id == null) {
+            return true;
+        }
+        return metaInfoManager.hasPrimitiveId() && id instanceof Number number && number.longValue() == 0L;
+    }
+
+    /**
+     * Persiste entidades novas e mescla as destacadas, executando flush e clear a cada lote
+     * de {@code jdbcBatchSize} entidades para manter o contexto de persistencia limitado.
+     * Entidades gerenciadas antes da chamada tambem sao destacadas a cada clear.
+     */
+    private Object executeSaveAll(Object entities, DatabaseSession databaseSession, boolean flush){
+        if (!(entities instanceof Collection<?> collection)) {
+            throw new InvalidQueryOperationException("Tentativa de salvar uma colecao nula de entidades.");
+        }
+
+        EntityManager em = databaseSession.getEntityManager();
+        int batchSize = Math.max(1, getEntityManagerFactoryContext().getDatabaseConfiguration().getJdbcBatchSize());
+
+        List<Object> savedEntities = new ArrayList<>(collection.size());
+        int pending = 0;
+
+        for (Object entity : collection) {
+            if (entity == null) {
+                throw new InvalidQueryOperationException("Tentativa de salvar uma entidade nula.");
+            }
+
+            try {
+                if (em.contains(entity)) {
+                    savedEntities.add(entity);
+                } else if (isNewEntity(entity, em)) {
+                    em.persist(entity);
+                    savedEntities.add(entity);
+                } else {
+                    savedEntities.add(em.merge(entity));
+                }
+            } catch (Exception e) {
+                log.error("Falha ao persistir entidade do tipo: {}", entity.getClass().getName(), e);
+                throw e;
+            }
+
+            if (++pending == batchSize) {
+                em.flush();
+                em.clear();
+                pending = 0;
+            }
+        }
+
+        if (pending > 0 && flush) {
+            em.flush();
+        }
+
+        return savedEntities;
+    }
+
+    private Object executeDelete(Object entity, DatabaseSession databaseSession, boolean flush){
+        if (entity == null) {
+            throw new InvalidQueryOperationException("Tentativa de remover uma entidade nula.");
+        }
+
+        try {
+            EntityManager em = databaseSession.getEntityManager();
+
+            Object entityToRemove = entity;
+
+            if (!em.contains(entity)) {
+                entityToRemove = em.merge(entity);
+            }
+
+            em.remove(entityToRemove);
+            if(flush)em.flush();
+        }catch (Exception e) {
+            log.error("Falha ao remover entidade do tipo: {}", entity.getClass().getName(), e);
+            throw e;
+        }
+
+        return null;
+    }
+
+    private Object executeDeleteById(RepositoryCall call, RepositoryMethodInvoker invoker, DatabaseSession databaseSession){
+        Object[] args = call.args();
+        if (args.length == 0 || args[0] == null) {
+            throw new IllegalArgumentException("O ID da entidade deve ser fornecido.");
+        }
+
+        try {
+          return executeQuery(call, invoker, databaseSession);
+        }catch (Exception e) {
+            log.error("Erro ao remover entidade por ID no repositório: {}", repositoryInterface.getName(), e);
+            throw e;
+        }
+    }
+
+    private Object executeDeleteAll(Object entities, RepositoryMethodInvoker invoker, DatabaseSession databaseSession){
+        if (!(entities instanceof Collection<?> collection)) {
+            throw new InvalidQueryOperationException("Tentativa de remover uma colecao nula de entidades.");
+        }
+
+        EntityManager em = databaseSession.getEntityManager();
+        PersistenceUnitUtil persistenceUnitUtil = em.getEntityManagerFactory().getPersistenceUnitUtil();
+
+        List<Object> ids = new ArrayList<>(collection.size());
+        for (Object entity : collection) {
+            if (entity == null) continue;
+
+            Object id = persistenceUnitUtil.getIdentifier(entity);
+            if (id != null) ids.add(id);
+            if (em.contains(entity)) em.detach(entity);
+        }
+
+        return executeDeleteAllById(ids, invoker, databaseSession);
+    }
+
+    /**
+     * Remocao em massa com {@code DELETE ... WHERE id IN (...)} em lotes dimensionados pelo limite de parametros
+     * do dialeto, todos na mesma transacao. Por ser uma operacao em massa, nao dispara cascatas nem callbacks
+     * {@code @PreRemove}; as entradas dos IDs removidos sao retiradas do cache de segundo nivel.
+     */
+    private Object executeDeleteAllById(Object ids, RepositoryMethodInvoker invoker, DatabaseSession databaseSession){
+        if (!(ids instanceof Collection<?> collection)) {
+            throw new IllegalArgumentException("A colecao de IDs deve ser fornecida.");
+        }
+
+        List<Object> distinctIds = collection.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (distinctIds.isEmpty()) {
+            return null;
+        }
+
+        try {
+            EntityManager em = databaseSession.getEntityManager();
+            if (invoker.metainfo().autoFlush()) {
+                em.flush();
+            }
+
+            int chunkSize = resolveInClauseChunkSize(em);
+            int deleted = 0;
+            for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+                List<Object> chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+                deleted += em.createQuery(invoker.metainfo().queryTemplate())
+                        .setParameter("ids", chunk)
+                        .executeUpdate();
+            }
+
+            Class<?> entityClass = resolveRepositoryMetaInfoManager().getEntityClass();
+            Cache secondLevelCache = em.getEntityManagerFactory().getCache();
+            for (Object id : distinctIds) {
+                secondLevelCache.evict(entityClass, id);
+            }
+
+            log.debug("{} registro(s) removido(s) em lotes de {} no repositório: {}", deleted, chunkSize, repositoryInterface.getName());
+        }catch (Exception e) {
+            log.error("Erro ao remover entidades por ID no repositório: {}", repositoryInterface.getName(), e);
+            throw e;
+        }
+
+        return null;
+    }
+
+    /**
+     * Tamanho do lote do {@code IN}: o menor entre o limite de expressoes do {@code IN} e o limite de parametros
+     * por instrucao informados pelo dialeto (ex: 1000 no Oracle, 2100 no SQL Server), com teto de {@value #MAX_IN_CLAUSE_CHUNK}.
+     */
+    private int resolveInClauseChunkSize(EntityManager em) {
+        int chunkSize = inClauseChunkSize;
+        if (chunkSize > 0) {
+            return chunkSize;
+        }
+
+        Dialect dialect = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        chunkSize = MAX_IN_CLAUSE_CHUNK;
+        if (dialect.getInExpressionCountLimit() > 0) {
+            chunkSize = Math.min(chunkSize, dialect.getInExpressionCountLimit());
+        }
+        if (dialect.getParameterCountLimit() > 0) {
+            chunkSize = Math.min(chunkSize, dialect.getParameterCountLimit());
+        }
+
+        inClauseChunkSize = chunkSize;
+        return chunkSize;
+    }
+
+    /**
+     * Busca por chave primaria via {@link EntityManager#find}: consulta o contexto de persistencia e o cache
+     * de segundo nivel (entidades {@code @Cacheable}) antes de ir ao banco.
+     */
+    private Object executeFindById(RepositoryCall call, RepositoryMethodInvoker invoker, DatabaseSession databaseSession){
+        Object[] args = call.args();
+        if (args.length == 0 || args[0] == null) {
+            throw new IllegalArgumentException("O ID da entidade deve ser fornecido.");
+        }
+
+        try {
+            EntityManager em = databaseSession.getEntityManager();
+            if (invoker.metainfo().autoFlush()) {
+                em.flush();
+            }
+
+            Class<?> entityClass = resolveRepositoryMetaInfoManager().getEntityClass();
+            Object entity = invoker.readOnly()
+                    ? em.find(entityClass, args[0], Map.<String, Object>of(HibernateHints.HINT_READ_ONLY, true))
+                    : em.find(entityClass, args[0]);
+
+            return (invoker.metainfo().returnStrategy() == ReturnStrategy.OPTIONAL)
+                    ? Optional.ofNullable(entity)
+                    : entity;
+        }catch (Exception e) {
+            log.error("Erro ao buscar entidade por ID no repositório: {}", repositoryInterface.getName(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Carregamento multiplo via {@code byMultipleIds}: entidades ja gerenciadas pela sessao ou presentes no
+     * cache de segundo nivel sao resolvidas localmente e as demais buscadas em lotes de {@code IN}.
+     * O resultado segue a ordem dos IDs informados; IDs inexistentes sao ignorados.
+     */
+    private Object executeFindAllById(Object ids, RepositoryMethodInvoker invoker, DatabaseSession databaseSession){
+        if (!(ids instanceof Collection<?> collection)) {
+            throw new IllegalArgumentException("A colecao de IDs deve ser fornecida.");
+        }
+
+        boolean asMap = invoker.metainfo().returnStrategy() == ReturnStrategy.MAP;
+        List<Object> distinctIds = collection.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (distinctIds.isEmpty()) {
+            return asMap ? new LinkedHashMap<>() : new ArrayList<>();
+        }
+
+        try {
+            EntityManager em = databaseSession.getEntityManager();
+            if (invoker.metainfo().autoFlush()) {
+                em.flush();
+            }
+
+            List<?> entities = em.unwrap(Session.class)
+                    .byMultipleIds(resolveRepositoryMetaInfoManager().getEntityClass())
+                    .enableOrderedReturn(true)
+                    .enableSessionCheck(true)
+                    .withBatchSize(resolveInClauseChunkSize(em))
+                    .multiLoad(distinctIds);
+
+            if (asMap) {
+                Map<Object, Object> result = new LinkedHashMap<>(Math.max(16, (int) (entities.size() / 0.75f) + 1));
+                for (int i = 0; i < entities.size(); i++) {
+                    if (entities.get(i) != null) result.put(distinctIds.get(i), entities.get(i));
+                }
+                return result;
+            }
+
+            List<Object> result = new ArrayList<>(entities.size());
+            for (Object entity : entities) {
+                if (entity != null) result.add(entity);
+            }
+            return result;
+        }catch (Exception e) {
+            log.error("Erro ao buscar entidades por ID no repositório: {}", repositoryInterface.getName(), e);
+            throw e;
+        }
+    }
+
+    private Object executeFindAll(RepositoryCall call, RepositoryMethodInvoker invoker, DatabaseSession databaseSession){
+        try {
+            return executeQuery(call, invoker, databaseSession);
+        }catch (Exception e) {
+            log.error("Erro ao buscar entidades no repositório: {}", repositoryInterface.getName(), e);
+            throw e;
+        }
+    }
+
+    private Object executeCount(RepositoryCall call, RepositoryMethodInvoker invoker, DatabaseSession databaseSession){
+        try {
+            return executeQuery(call, invoker, databaseSession);
+        }catch (Exception e) {
+            log.error("Erro ao contar entidades no repositório: {}", repositoryInterface.getName(), e);
+            throw e;
+        }
+    }
+
+    private Object executeExists(RepositoryCall call, RepositoryMethodInvoker invoker, DatabaseSession databaseSession){
+        try {
+            return executeQuery(call, invoker, databaseSession);
+        }catch (Exception e) {
+            log.error("Erro ao verificar existencia de entidade no repositório: {}", repositoryInterface.getName(), e);
+            throw e;
+        }
+    }
+
+    private Object executeProjection(RepositoryCall call, RepositoryMethodInvoker invoker, DatabaseSession databaseSession){
+        try {
+            return executeQuery(call, invoker, databaseSession);
+        }catch (Exception e) {
+            log.error("Erro ao executar projecao no repositório: {}", repositoryInterface.getName(), e);
+            throw e;
+        }
+    }
+
+    private EntityManagerFactoryContext getEntityManagerFactoryContext(){
+        if(entityManagerFactoryContextRef.get() == null){
+            EntityManagerFactoryContext entityManagerFactoryContext = entityManagerFactoryContextAsync.getAsync().await();
+            validEntityManagerFactoryContext(entityManagerFactoryContext);
+            entityManagerFactoryContextRef.set(entityManagerFactoryContext);
+        }
+
+        return entityManagerFactoryContextRef.get();
+    }
+
+    private Object executeQuery(RepositoryCall call, RepositoryMethodInvoker invoker, DatabaseSession databaseSession){
+        RepositoryMetainfo metadata = invoker.metainfo();
+        boolean isAutoFlush = metadata.autoFlush();
+        String queryString = metadata.queryTemplate();
+        ReturnStrategy returnStrategy = metadata.returnStrategy();
+        boolean paged = returnStrategy == ReturnStrategy.PAGE || returnStrategy == ReturnStrategy.SLICE;
+
+        Pageable pageable = call.pageable();
+        Sort sort = call.sort();
+
+        if (paged && pageable == null) {
+            throw new InvalidQueryOperationException(
+                    metadata.methodName(),
+                    repositoryInterface.getSimpleName(),
+                    "Metodos que retornam Page ou Slice exigem um Pageable nao nulo."
+            );
+        }
+
+        EntityManager em = databaseSession.getEntityManager();
+        try {
+
+            if (isAutoFlush) {
+                em.flush();
+            }
+
+            Class<?> entityType = metadata.resultType();
+            boolean keyset = pageable != null && pageable.keyset();
+            boolean hasCursor = keyset && pageable.lastSeen() != null;
+
+            if ((pageable != null || sort != null) && invoker.pageableQuery() != null) {
+                Sort effectiveSort = (pageable != null) ? pageable.sort().and(sort) : sort;
+                String keysetAttribute = keyset ? resolveIdAttribute(em, entityType) : null;
+                queryString = invoker.pageableQuery().select(effectiveSort, keysetAttribute, hasCursor);
+            }
+
+            Query query;
+            if (invoker.dml()) {
+                // instrucoes de escrita nao podem ser tipadas
+                query = metadata.isNative() ? em.createNativeQuery(queryString) : em.createQuery(queryString);
+            } else {
+                query = metadata.isNative()
+                        ? em.createNativeQuery(queryString, entityType)
+                        : em.createQuery(queryString, entityType);
+            }
+
+            call.bind(query, invoker);
+
+            if (invoker.readOnly()) {
+                query.setHint(HibernateHints.HINT_READ_ONLY, true);
+                query.setFlushMode(FlushModeType.COMMIT);
+            }
+
+            if (invoker.fetchGraph() != null) {
+                query.setHint(SpecHints.HINT_SPEC_LOAD_GRAPH, invoker.fetchGraph().graph(em));
+            }
+
+            if (hasCursor) {
+                query.setParameter(PageableQueryTemplate.KEYSET_PARAMETER, pageable.lastSeen());
+            }
+
+            if (pageable != null) {
+                query.setFirstResult(Math.toIntExact(pageable.offset()));
+                query.setMaxResults(paged ? pageable.size() + 1 : pageable.size());
+            } else if (metadata.isLimited()) {
+                query.setMaxResults(metadata.maxResults());
+            }
+
+            Object result;
+            if (paged) {
+                result = buildPagedResult(query, invoker, call, pageable, em);
+            } else if (returnStrategy == ReturnStrategy.STREAM) {
+                // sessoes e queries somente leitura nao gravam alteracoes, entao podem destacar sem flush
+                boolean flushBeforeDetach = !invoker.readOnly() && !databaseSession.isReadOnly();
+                // fora de um @Transactional a sessao pertence ao stream, que pode limpar o contexto inteiro a cada lote
+                boolean ownsSession = databaseSessionSynchronizationContext.getSession(SessionKey.TRANSACTIONAL) != databaseSession;
+                result = ScrollableResultStream.open(query, em, entityType, getEntityManagerFactoryContext().getDatabaseConfiguration().getJdbcFetchSize(), flushBeforeDetach, ownsSession);
+            } else {
+                result = invoker.resultAdapter().adapt(query);
+            }
+
+            if (isAutoFlush) {
+                em.flush();
+            }
+            return result;
+        } catch (Exception e) {
+            log.error("Erro ao executar query no repositório {}: {}",
+                   repositoryInterface.getSimpleName(), queryString, e);
+            throw e;
+        }
+
+    }
+
+    /**
+     * A query ja foi limitada a {@code size + 1} linhas: a linha excedente indica a existencia
+     * da proxima pagina sem {@code COUNT}. Para {@link Page}, o total so e consultado quando nao
+     * pode ser deduzido do offset e da quantidade de linhas lidas.
+     */
+    private Object buildPagedResult(Query query, RepositoryMethodInvoker invoker, RepositoryCall call, Pageable pageable, EntityManager em) {
+        List<?> rows = query.getResultList();
+        boolean hasNext = rows.size() > pageable.size();
+        List<?> content = hasNext ? rows.subList(0, pageable.size()) : rows;
+
+        Pageable nextPageable = null;
+        if (hasNext) {
+            nextPageable = pageable.keyset()
+                    ? Pageable.keyset(em.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(content.getLast()), pageable.size())
+                    : pageable.next();
+        }
+
+        if (invoker.metainfo().returnStrategy() == ReturnStrategy.SLICE) {
+            return new SliceImple<>(content, pageable, nextPageable);
+        }
+
+        boolean totalKnown = !hasNext
+                && (pageable.keyset() ? pageable.lastSeen() == null : (!content.isEmpty() || pageable.offset() == 0));
+
+        long totalElements = totalKnown
+                ? pageable.offset() + content.size()
+                : countPagedQuery(invoker, call, em);
+
+        return new PageImple<>(content, pageable, nextPageable, totalElements);
+    }
+
+    private long countPagedQuery(RepositoryMethodInvoker invoker, RepositoryCall call, EntityManager em) {
+        String countQueryString = invoker.pageableQuery().count();
+        Query countQuery = invoker.metainfo().isNative()
+                ? em.createNativeQuery(countQueryString)
+                : em.createQuery(countQueryString);
+
+        call.bind(countQuery, invoker);
+        return ((Number) countQuery.getSingleResult()).longValue();
+    }
+
+    private String resolveIdAttribute(EntityManager em, Class<?> entityType) {
+        if (em.getMetamodel().getEntities().stream().noneMatch(type -> type.getJavaType().equals(entityType))) {
+            throw new InvalidQueryOperationException("Paginacao keyset exige que o metodo retorne a entidade, encontrado: " + entityType.getName());
+        }
+
+        EntityType<?> metamodelType = em.getMetamodel().entity(entityType);
+        if (!metamodelType.hasSingleIdAttribute()) {
+            throw new InvalidQueryOperationException("Paginacao keyset exige uma entidade com identificador simples: " + entityType.getName());
+        }
+        return metamodelType.getId(metamodelType.getIdType().getJavaType()).getName();
+    }
+
+    private void validEntityManagerFactoryContext(EntityManagerFactoryContext entityManagerFactoryContext){
+        if(entityManagerFactoryContext == null){
+            throw new DependencyInjectionException("Erro ao criar o EntityManagerFactory");
+        }
+
+
+        if(entityManagerFactoryContext.getEntityManagerFactory() == null){
+            throw new DependencyInjectionException("Erro ao criar o EntityManagerFactory");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RepositoryExecutor<" + repositoryInterface.getSimpleName() + ">";
+    }
+}
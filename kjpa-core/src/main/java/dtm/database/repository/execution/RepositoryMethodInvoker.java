@@ -0,0 +1,67 @@
+package dtm.database.repository.execution;
+
+import dtm.database.repository.prototype.OperationType;
+import dtm.database.repository.prototype.RepositoryMetainfo;
+
+/**
+ * Plano de execucao imutavel de um metodo de repositorio, resolvido uma unica vez por {@link java.lang.reflect.Method}.
+ * {@code readOnly} aplica as hints de somente leitura na propria query, inclusive dentro de um {@code @Transactional};
+ * {@code readOperation} indica que a sessao propria, fora de transacao, pode ser aberta como somente leitura.
+ * {@code fetchGraph} e nulo quando o metodo nao declara {@code @FetchGraph}. {@code signature} e a chave do metodo
+ * nos metadados gerados (nome e tipos dos parametros) e identifica as sobrecargas nas metricas e nos eventos JFR.
+ */
+public record RepositoryMethodInvoker(
+        RepositoryMetainfo metainfo,
+        String signature,
+        ParameterBinder parameterBinder,
+        ResultAdapter resultAdapter,
+        PageableQueryTemplate pageableQuery,
+        FetchGraphPlan fetchGraph,
+        boolean dml,
+        boolean readOnly,
+        boolean readOperation
+) {
+
+    public static RepositoryMethodInvoker of(RepositoryMetainfo metainfo) {
+        return of(metainfo, metainfo.methodName());
+    }
+
+    public static RepositoryMethodInvoker of(RepositoryMetainfo metainfo, String signature) {
+        return of(metainfo, signature, ParameterBinder.positional(metainfo.paramMap()));
+    }
+
+    public static RepositoryMethodInvoker of(RepositoryMetainfo metainfo, String signature, ParameterBinder parameterBinder) {
+        boolean dml = ResultAdapter.isDml(metainfo.queryTemplate());
+        ResultAdapter resultAdapter = (metainfo.operationType() == OperationType.EXISTS)
+                ? ResultAdapter.EXISTS
+                : ResultAdapter.of(metainfo.returnStrategy(), dml, metainfo.resultType());
+        PageableQueryTemplate pageableQuery = (dml || metainfo.queryTemplate() == null || metainfo.queryTemplate().isBlank())
+                ? null
+                : new PageableQueryTemplate(metainfo.methodName(), metainfo.queryTemplate(), metainfo.isNative());
+        FetchGraphPlan fetchGraph = metainfo.fetchGraph().isEmpty()
+                ? null
+                : new FetchGraphPlan(metainfo.resultType(), metainfo.fetchGraph());
+
+        return new RepositoryMethodInvoker(
+                metainfo,
+                signature,
+                parameterBinder,
+                resultAdapter,
+                pageableQuery,
+                fetchGraph,
+                dml,
+                metainfo.readOnly() || metainfo.operationType() == OperationType.PROJECTION,
+                !dml && isReadOperation(metainfo.operationType())
+        );
+    }
+
+    /**
+     * Operacoes sem escrita: fora de um {@code @Transactional} sao executadas em transacao somente leitura.
+     */
+    private static boolean isReadOperation(OperationType operationType) {
+        return switch (operationType) {
+            case FIND_BY_ID, FIND_ALL, FIND_ALL_BY_ID, COUNT, EXISTS, PROJECTION, QUERY -> true;
+            default -> false;
+        };
+    }
+}
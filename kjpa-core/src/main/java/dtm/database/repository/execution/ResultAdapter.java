@@ -0,0 +1,81 @@
+package dtm.database.repository.execution;
+
+import dtm.database.repository.prototype.ReturnStrategy;
+import jakarta.persistence.Query;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Converte a execucao de uma query no formato de retorno declarado pelo metodo do repositorio.
+ */
+@FunctionalInterface
+public interface ResultAdapter {
+
+    Object adapt(Query query);
+
+    /**
+     * Verificacao de existencia: busca no maximo uma linha ({@code LIMIT 1} conforme o dialeto)
+     * em vez de contar todas as ocorrencias.
+     */
+    ResultAdapter EXISTS = query -> !query.setMaxResults(1).getResultList().isEmpty();
+
+    static ResultAdapter of(ReturnStrategy returnStrategy, boolean dml) {
+        return of(returnStrategy, dml, null);
+    }
+
+    /**
+     * Em DML ({@code UPDATE}/{@code DELETE}) com retorno numerico, devolve a quantidade de linhas afetadas
+     * convertida para o tipo declarado ({@code int} ou {@code long}).
+     */
+    static ResultAdapter of(ReturnStrategy returnStrategy, boolean dml, Class<?> resultType) {
+        if (dml && returnStrategy != ReturnStrategy.VOID) {
+            return (Long.class.equals(resultType) || long.class.equals(resultType))
+                    ? query -> (long) query.executeUpdate()
+                    : Query::executeUpdate;
+        }
+
+        return switch (returnStrategy) {
+            case SINGLE_ENTITY -> Query::getSingleResultOrNull;
+            case COLLECTION -> Query::getResultList;
+            case OPTIONAL -> query -> Optional.ofNullable(query.getSingleResultOrNull());
+            case PRIMITIVE -> Query::getSingleResult;
+            // o cursor depende da sessao e do fetch size: e aberto pelo RepositoryExecutor via ScrollableResultStream
+            case STREAM -> query -> {
+                throw new IllegalStateException("Resultados Stream devem ser abertos por ScrollableResultStream.");
+            };
+            case PAGE, SLICE -> Query::getResultList;
+            case MAP -> ResultAdapter::toMap;
+            case VOID -> dml
+                    ? query -> {
+                        query.executeUpdate();
+                        return null;
+                    }
+                    : query -> {
+                        query.setMaxResults(1).getResultList();
+                        return null;
+                    };
+        };
+    }
+
+    /**
+     * Cada linha {@code [chave, valor]} da query vira uma entrada do mapa, preservando a ordem do resultado.
+     */
+    private static Map<Object, Object> toMap(Query query) {
+        Map<Object, Object> result = new LinkedHashMap<>();
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            result.put(columns[0], columns[1]);
+        }
+        return result;
+    }
+
+    static boolean isDml(String query) {
+        if (query == null) return false;
+        String trimmedQuery = query.trim().toUpperCase();
+        return trimmedQuery.startsWith("UPDATE") ||
+                trimmedQuery.startsWith("DELETE") ||
+                trimmedQuery.startsWith("INSERT");
+    }
+}
@@ -0,0 +1,108 @@
+package dtm.database.repository.execution;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Expoe o resultado de uma query como {@link Stream} sobre um cursor JDBC ({@link ScrollMode#FORWARD_ONLY}).
+ * As entidades ja consumidas sao destacadas do contexto de persistencia a cada {@code fetchSize} linhas,
+ * mantendo o consumo de memoria constante. O cursor e liberado no {@link Stream#close()}.
+ * <p>
+ * Em uma transacao de escrita ({@code flushBeforeDetach}), o contexto e sincronizado com {@code flush()} antes de
+ * cada lote ser destacado, para que as alteracoes feitas nas entidades durante a iteracao sejam gravadas.
+ * <p>
+ * Quando o stream e dono da sessao ({@code clearPerBatch}), o contexto inteiro e limpo com {@code clear()} a cada
+ * lote, o que tambem descarta as associacoes carregadas junto com as entidades. Dentro de um {@code @Transactional}
+ * o contexto e compartilhado com o chamador, entao apenas as entidades raiz do resultado sao destacadas: associacoes
+ * {@code EAGER} ou incluidas por {@code @FetchGraph} continuam gerenciadas ate o fim da transacao.
+ */
+public final class ScrollableResultStream {
+
+    private ScrollableResultStream() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static Stream<Object> open(Query query, EntityManager em, Class<?> resultType, int fetchSize, boolean flushBeforeDetach, boolean clearPerBatch) {
+        int batchSize = Math.max(1, fetchSize);
+
+        org.hibernate.query.Query<?> hibernateQuery = query.unwrap(org.hibernate.query.Query.class);
+        hibernateQuery.setFetchSize(batchSize);
+
+        ScrollableResults<?> results = hibernateQuery.scroll(ScrollMode.FORWARD_ONLY);
+        boolean detachable = isEntity(em, resultType);
+
+        Spliterator<Object> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private final Object[] processed = new Object[batchSize];
+            private int pending = 0;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Object> action) {
+                if (!results.next()) {
+                    if (clearPerBatch) {
+                        clearProcessed();
+                    } else {
+                        detachProcessed();
+                    }
+                    return false;
+                }
+
+                Object row = results.get();
+                action.accept(row);
+
+                if (clearPerBatch) {
+                    if (++pending == processed.length) {
+                        clearProcessed();
+                    }
+                } else if (detachable) {
+                    processed[pending++] = row;
+                    if (pending == processed.length) {
+                        detachProcessed();
+                    }
+                }
+                return true;
+            }
+
+            private void detachProcessed() {
+                if (pending > 0 && flushBeforeDetach) {
+                    em.flush();
+                }
+                for (int i = 0; i < pending; i++) {
+                    if (em.contains(processed[i])) {
+                        em.detach(processed[i]);
+                    }
+                    processed[i] = null;
+                }
+                pending = 0;
+            }
+
+            private void clearProcessed() {
+                if (pending > 0) {
+                    if (flushBeforeDetach) {
+                        em.flush();
+                    }
+                    em.clear();
+                }
+                pending = 0;
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false).onClose(results::close);
+    }
+
+    private static boolean isEntity(EntityManager em, Class<?> resultType) {
+        try {
+            em.getMetamodel().entity(resultType);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package dtm.database.repository.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Evento JFR da espera por uma conexao do pool; {@code failed} indica timeout ou erro de conexao.
+ */
+@Name("kjpa.ConnectionAcquire")
+@Label("Connection Acquire")
+@Category({"KJPA", "Database"})
+@Description("Obtencao de uma conexao do pool")
+@Threshold("1 ms")
+public final class ConnectionAcquireEvent extends Event {
+
+    @Label("Pool")
+    private String pool;
+
+    @Label("Failed")
+    private boolean failed;
+
+    public void complete(String pool, boolean failed) {
+        this.pool = pool;
+        this.failed = failed;
+        commit();
+    }
+}
@@ -0,0 +1,86 @@
+package dtm.database.repository.metrics;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+
+/**
+ * {@link DataSource} entregue ao Hibernate que emite um {@link ConnectionAcquireEvent} a cada conexao obtida do pool.
+ * Sem uma gravacao JFR ativa, o custo e apenas a verificacao de {@code isEnabled()}.
+ */
+public final class FlightRecorderDataSource implements DataSource {
+
+    private final DataSource delegate;
+    private final String poolName;
+
+    public FlightRecorderDataSource(DataSource delegate, String poolName) {
+        this.delegate = delegate;
+        this.poolName = poolName;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        ConnectionAcquireEvent event = new ConnectionAcquireEvent();
+        if (!event.isEnabled()) {
+            return delegate.getConnection();
+        }
+
+        event.begin();
+        boolean failed = true;
+        try {
+            Connection connection = delegate.getConnection();
+            failed = false;
+            return connection;
+        } finally {
+            if (event.shouldCommit()) {
+                event.complete(poolName, failed);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return delegate.getConnection(username, password);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) throws SQLException {
+        if (type.isInstance(this)) {
+            return type.cast(this);
+        }
+        return delegate.unwrap(type);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> type) throws SQLException {
+        return type.isInstance(this) || delegate.isWrapperFor(type);
+    }
+}
@@ -0,0 +1,92 @@
+package dtm.database.repository.metrics;
+
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import org.hibernate.stat.Statistics;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro das metricas de repositorios, transacoes, pool de conexoes e Hibernate. As metricas de cada operacao
+ * sao criadas na primeira chamada; as seguintes fazem apenas leituras em {@link ConcurrentHashMap} e incrementos
+ * em {@code LongAdder}, sem alocar memoria.
+ */
+public final class KjpaMetrics {
+
+    private final Map<Class<?>, Map<String, OperationMetrics>> repositoryMethods;
+    private final Map<Method, OperationMetrics> transactions;
+    private volatile PoolMetrics poolMetrics;
+    private volatile Statistics hibernateStatistics;
+
+    public KjpaMetrics() {
+        this.repositoryMethods = new ConcurrentHashMap<>();
+        this.transactions = new ConcurrentHashMap<>();
+    }
+
+    public void recordRepositoryCall(Class<?> repository, String methodName, long durationNanos, boolean failed) {
+        Map<String, OperationMetrics> methods = repositoryMethods.get(repository);
+        if (methods == null) {
+            methods = repositoryMethods.computeIfAbsent(repository, key -> new ConcurrentHashMap<>());
+        }
+
+        OperationMetrics metrics = methods.get(methodName);
+        if (metrics == null) {
+            metrics = methods.computeIfAbsent(methodName, name -> new OperationMetrics(repository.getSimpleName(), name));
+        }
+        metrics.record(durationNanos, failed);
+    }
+
+    /**
+     * Duracao de uma transacao, da abertura da sessao na fronteira {@code @Transactional} mais externa ao commit ou rollback.
+     */
+    public void recordTransaction(Method method, long durationNanos, boolean rolledBack) {
+        OperationMetrics metrics = transactions.get(method);
+        if (metrics == null) {
+            metrics = transactions.computeIfAbsent(method, key -> new OperationMetrics(key.getDeclaringClass().getSimpleName(), key.getName()));
+        }
+        metrics.record(durationNanos, rolledBack);
+    }
+
+    /**
+     * Fabrica registrada no {@code HikariConfig}; o pool cria o seu rastreador ao iniciar.
+     */
+    public MetricsTrackerFactory poolMetricsTrackerFactory() {
+        return (poolName, poolStats) -> {
+            PoolMetrics metrics = new PoolMetrics(poolName, poolStats);
+            this.poolMetrics = metrics;
+            return metrics;
+        };
+    }
+
+    public void bindHibernateStatistics(Statistics statistics) {
+        this.hibernateStatistics = statistics;
+    }
+
+    public Collection<OperationMetrics> getRepositoryMethods() {
+        List<OperationMetrics> metrics = new ArrayList<>();
+        repositoryMethods.values().forEach(methods -> metrics.addAll(methods.values()));
+        return metrics;
+    }
+
+    public Collection<OperationMetrics> getTransactions() {
+        return List.copyOf(transactions.values());
+    }
+
+    /**
+     * @return as metricas do pool, ou {@code null} antes da inicializacao do Hikari
+     */
+    public PoolMetrics getPoolMetrics() {
+        return poolMetrics;
+    }
+
+    /**
+     * @return as estatisticas da {@code SessionFactory}, ou {@code null} antes da sua criacao
+     */
+    public Statistics getHibernateStatistics() {
+        return hibernateStatistics;
+    }
+}
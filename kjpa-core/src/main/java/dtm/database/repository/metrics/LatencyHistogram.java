@@ -0,0 +1,65 @@
+package dtm.database.repository.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencia com limites fixos, de 0,5 ms a 10 s. Cada faixa e um {@link LongAdder}: o registro nao
+ * aloca memoria nem usa lock, e threads concorrentes incrementam celulas diferentes.
+ */
+public final class LatencyHistogram {
+
+    private static final double[] BOUNDS_SECONDS = {
+            0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+    private static final long[] BOUNDS_NANOS = new long[BOUNDS_SECONDS.length];
+
+    static {
+        for (int i = 0; i < BOUNDS_SECONDS.length; i++) {
+            BOUNDS_NANOS[i] = (long) (BOUNDS_SECONDS[i] * TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    // uma faixa a mais para os valores acima do ultimo limite (+Inf)
+    private final LongAdder[] buckets;
+    private final LongAdder sumNanos;
+
+    public LatencyHistogram() {
+        this.buckets = new LongAdder[BOUNDS_NANOS.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+        this.sumNanos = new LongAdder();
+    }
+
+    public void record(long nanos) {
+        int index = 0;
+        while (index < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[index]) {
+            index++;
+        }
+        buckets[index].increment();
+        sumNanos.add(Math.max(0, nanos));
+    }
+
+    public static double[] boundsSeconds() {
+        return BOUNDS_SECONDS.clone();
+    }
+
+    /**
+     * Contagens acumuladas por limite, na ordem de {@link #boundsSeconds()}, seguidas do total ({@code +Inf}).
+     * A leitura nao e atomica entre as faixas; registros concorrentes podem aparecer apenas em parte delas.
+     */
+    public long[] cumulativeCounts() {
+        long[] counts = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            total += buckets[i].sum();
+            counts[i] = total;
+        }
+        return counts;
+    }
+
+    public double sumSeconds() {
+        return sumNanos.sum() / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,13 @@
+package dtm.database.repository.metrics;
+
+/**
+ * Publica as metricas do KJPA. {@link #start(KjpaMetrics)} e chamado uma vez, apos a criacao da
+ * {@code SessionFactory}, e {@link #close()} no encerramento da aplicacao.
+ */
+public interface MetricsExporter extends AutoCloseable {
+
+    void start(KjpaMetrics metrics);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,52 @@
+package dtm.database.repository.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Chamadas, falhas e latencia de uma operacao: um metodo de repositorio ({@code owner} e o repositorio)
+ * ou uma fronteira {@code @Transactional} ({@code owner} e a classe do metodo).
+ */
+public final class OperationMetrics {
+
+    private final String owner;
+    private final String name;
+    private final LongAdder calls;
+    private final LongAdder errors;
+    private final LatencyHistogram latency;
+
+    OperationMetrics(String owner, String name) {
+        this.owner = owner;
+        this.name = name;
+        this.calls = new LongAdder();
+        this.errors = new LongAdder();
+        this.latency = new LatencyHistogram();
+    }
+
+    public void record(long durationNanos, boolean failed) {
+        calls.increment();
+        if (failed) {
+            errors.increment();
+        }
+        latency.record(durationNanos);
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
@@ -0,0 +1,75 @@
+package dtm.database.repository.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metricas do pool Hikari: o tempo de espera para obter uma conexao, o tempo de uso de cada conexao e os
+ * timeouts sao registrados pelo proprio pool; as contagens de conexoes sao lidas do {@link PoolStats} na exportacao.
+ */
+public final class PoolMetrics implements IMetricsTracker {
+
+    private final String poolName;
+    private final PoolStats poolStats;
+    private final LatencyHistogram acquisition;
+    private final LatencyHistogram usage;
+    private final LongAdder timeouts;
+
+    PoolMetrics(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+        this.acquisition = new LatencyHistogram();
+        this.usage = new LatencyHistogram();
+        this.timeouts = new LongAdder();
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquisition.record(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usage.record(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public int getActiveConnections() {
+        return poolStats.getActiveConnections();
+    }
+
+    public int getIdleConnections() {
+        return poolStats.getIdleConnections();
+    }
+
+    public int getTotalConnections() {
+        return poolStats.getTotalConnections();
+    }
+
+    public int getPendingThreads() {
+        return poolStats.getPendingThreads();
+    }
+
+    public LatencyHistogram getAcquisition() {
+        return acquisition;
+    }
+
+    public LatencyHistogram getUsage() {
+        return usage;
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+}
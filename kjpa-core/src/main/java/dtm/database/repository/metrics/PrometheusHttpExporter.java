@@ -0,0 +1,73 @@
+package dtm.database.repository.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Exportador embutido: expoe as metricas no formato texto do Prometheus pelo {@link HttpServer} do JDK,
+ * por padrao em {@code http://<host>:<porta>/metrics}. As requisicoes sao atendidas pela thread do proprio servidor.
+ */
+@Slf4j
+public class PrometheusHttpExporter implements MetricsExporter {
+
+    private final InetSocketAddress address;
+    private final String path;
+    private HttpServer server;
+
+    public PrometheusHttpExporter(int port) {
+        this(new InetSocketAddress(port), "/metrics");
+    }
+
+    public PrometheusHttpExporter(InetSocketAddress address, String path) {
+        this.address = address;
+        this.path = path;
+    }
+
+    @Override
+    public synchronized void start(KjpaMetrics metrics) {
+        if (server != null) {
+            return;
+        }
+
+        try {
+            server = HttpServer.create(address, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Nao foi possivel abrir o exportador de metricas em " + address, e);
+        }
+
+        server.createContext(path, exchange -> respond(exchange, metrics));
+        server.start();
+        log.info("Metricas do KJPA expostas em http://{}:{}{}", address.getHostString(), server.getAddress().getPort(), path);
+    }
+
+    private void respond(HttpExchange exchange, KjpaMetrics metrics) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = PrometheusTextFormat.write(metrics).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", PrometheusTextFormat.CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+}
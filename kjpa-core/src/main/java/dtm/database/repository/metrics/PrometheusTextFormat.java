@@ -0,0 +1,126 @@
+package dtm.database.repository.metrics;
+
+import org.hibernate.stat.Statistics;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Serializa o {@link KjpaMetrics} no formato texto do Prometheus (versao 0.0.4).
+ */
+public final class PrometheusTextFormat {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    // limites ja formatados sem notacao cientifica (0.0005 e nao 5.0E-4)
+    private static final String[] BUCKET_LABELS = Arrays.stream(LatencyHistogram.boundsSeconds())
+            .mapToObj(bound -> "le=\"" + BigDecimal.valueOf(bound).toPlainString() + "\"")
+            .toArray(String[]::new);
+
+    private PrometheusTextFormat() {
+        throw new UnsupportedOperationException("utility class");
+    }
+
+    public static String write(KjpaMetrics metrics) {
+        StringBuilder out = new StringBuilder(4096);
+
+        Collection<OperationMetrics> repositoryMethods = metrics.getRepositoryMethods();
+        header(out, "kjpa_repository_calls_total", "counter", "Chamadas de metodos de repositorio.");
+        for (OperationMetrics method : repositoryMethods) {
+            sample(out, "kjpa_repository_calls_total", repositoryLabels(method), method.getCalls());
+        }
+        header(out, "kjpa_repository_errors_total", "counter", "Chamadas de metodos de repositorio que lancaram excecao.");
+        for (OperationMetrics method : repositoryMethods) {
+            sample(out, "kjpa_repository_errors_total", repositoryLabels(method), method.getErrors());
+        }
+        header(out, "kjpa_repository_duration_seconds", "histogram", "Latencia dos metodos de repositorio.");
+        for (OperationMetrics method : repositoryMethods) {
+            histogram(out, "kjpa_repository_duration_seconds", repositoryLabels(method), method.getLatency());
+        }
+
+        Collection<OperationMetrics> transactions = metrics.getTransactions();
+        header(out, "kjpa_transaction_rollbacks_total", "counter", "Transacoes revertidas por fronteira @Transactional.");
+        for (OperationMetrics transaction : transactions) {
+            sample(out, "kjpa_transaction_rollbacks_total", transactionLabels(transaction), transaction.getErrors());
+        }
+        header(out, "kjpa_transaction_duration_seconds", "histogram", "Duracao das transacoes por fronteira @Transactional.");
+        for (OperationMetrics transaction : transactions) {
+            histogram(out, "kjpa_transaction_duration_seconds", transactionLabels(transaction), transaction.getLatency());
+        }
+
+        PoolMetrics pool = metrics.getPoolMetrics();
+        if (pool != null) {
+            String labels = "pool=\"" + escape(pool.getPoolName()) + "\"";
+            gauge(out, "kjpa_pool_connections_active", "Conexoes em uso.", labels, pool.getActiveConnections());
+            gauge(out, "kjpa_pool_connections_idle", "Conexoes ociosas.", labels, pool.getIdleConnections());
+            gauge(out, "kjpa_pool_connections_total", "Conexoes abertas.", labels, pool.getTotalConnections());
+            gauge(out, "kjpa_pool_pending_threads", "Threads aguardando uma conexao.", labels, pool.getPendingThreads());
+            header(out, "kjpa_pool_timeouts_total", "counter", "Esperas por conexao que excederam o connectionTimeout.");
+            sample(out, "kjpa_pool_timeouts_total", labels, pool.getTimeouts());
+            header(out, "kjpa_pool_acquire_seconds", "histogram", "Espera para obter uma conexao do pool.");
+            histogram(out, "kjpa_pool_acquire_seconds", labels, pool.getAcquisition());
+            header(out, "kjpa_pool_usage_seconds", "histogram", "Tempo entre obter e devolver uma conexao.");
+            histogram(out, "kjpa_pool_usage_seconds", labels, pool.getUsage());
+        }
+
+        Statistics statistics = metrics.getHibernateStatistics();
+        if (statistics != null && statistics.isStatisticsEnabled()) {
+            counter(out, "kjpa_hibernate_query_plan_cache_hits_total", "Consultas com plano reaproveitado do cache.", statistics.getQueryPlanCacheHitCount());
+            counter(out, "kjpa_hibernate_query_plan_cache_misses_total", "Consultas que precisaram compilar o plano.", statistics.getQueryPlanCacheMissCount());
+            counter(out, "kjpa_hibernate_queries_executed_total", "Consultas executadas no banco.", statistics.getQueryExecutionCount());
+            counter(out, "kjpa_hibernate_second_level_cache_hits_total", "Acertos no cache de segundo nivel.", statistics.getSecondLevelCacheHitCount());
+            counter(out, "kjpa_hibernate_second_level_cache_misses_total", "Falhas no cache de segundo nivel.", statistics.getSecondLevelCacheMissCount());
+            counter(out, "kjpa_hibernate_statements_prepared_total", "Instrucoes JDBC preparadas.", statistics.getPrepareStatementCount());
+        }
+
+        return out.toString();
+    }
+
+    private static String repositoryLabels(OperationMetrics metrics) {
+        return "repository=\"" + escape(metrics.getOwner()) + "\",method=\"" + escape(metrics.getName()) + "\"";
+    }
+
+    private static String transactionLabels(OperationMetrics metrics) {
+        return "class=\"" + escape(metrics.getOwner()) + "\",method=\"" + escape(metrics.getName()) + "\"";
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, String labels, long value) {
+        header(out, name, "gauge", help);
+        sample(out, name, labels, value);
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        header(out, name, "counter", help);
+        sample(out, name, null, value);
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, Object value) {
+        out.append(name);
+        if (labels != null && !labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static void histogram(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        long[] counts = histogram.cumulativeCounts();
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+
+        for (int i = 0; i < BUCKET_LABELS.length; i++) {
+            sample(out, name + "_bucket", prefix + BUCKET_LABELS[i], counts[i]);
+        }
+        sample(out, name + "_bucket", prefix + "le=\"+Inf\"", counts[counts.length - 1]);
+        sample(out, name + "_sum", labels, histogram.sumSeconds());
+        sample(out, name + "_count", labels, counts[counts.length - 1]);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
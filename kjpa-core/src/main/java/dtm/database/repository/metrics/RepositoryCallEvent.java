@@ -0,0 +1,44 @@
+package dtm.database.repository.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Evento JFR de uma chamada de metodo de repositorio, do proxy ou da implementacao gerada ate o retorno.
+ * {@code rows} e {@code -1} quando o resultado nao tem tamanho conhecido, como um {@code Stream}.
+ */
+@Name("kjpa.RepositoryCall")
+@Label("Repository Call")
+@Category({"KJPA", "Database"})
+@Description("Chamada de metodo de repositorio")
+@Threshold("1 ms")
+public final class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    private String repository;
+
+    @Label("Method")
+    private String method;
+
+    @Label("Operation Type")
+    private String operationType;
+
+    @Label("Rows")
+    private long rows;
+
+    @Label("Failed")
+    private boolean failed;
+
+    public void complete(Class<?> repository, String method, String operationType, long rows, boolean failed) {
+        this.repository = repository.getName();
+        this.method = method;
+        this.operationType = operationType;
+        this.rows = rows;
+        this.failed = failed;
+        commit();
+    }
+}
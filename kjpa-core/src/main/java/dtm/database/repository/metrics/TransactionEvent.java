@@ -0,0 +1,31 @@
+package dtm.database.repository.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Evento JFR de uma transacao de uma {@code DatabaseSession}, do {@code begin} ao commit ou rollback.
+ */
+@Name("kjpa.Transaction")
+@Label("Transaction")
+@Category({"KJPA", "Database"})
+@Description("Transacao de banco de dados")
+@Threshold("1 ms")
+public final class TransactionEvent extends Event {
+
+    @Label("Read Only")
+    private boolean readOnly;
+
+    @Label("Committed")
+    private boolean committed;
+
+    public void complete(boolean readOnly, boolean committed) {
+        this.readOnly = readOnly;
+        this.committed = committed;
+        commit();
+    }
+}
@@ -0,0 +1,14 @@
+package dtm.database.repository.pagination;
+
+/**
+ * {@link Slice} acompanhado do total de registros. O {@code COUNT} so e executado quando
+ * o total nao pode ser deduzido da propria pagina.
+ */
+public interface Page<T> extends Slice<T> {
+
+    long getTotalElements();
+
+    default int getTotalPages() {
+        return (int) Math.ceilDiv(getTotalElements(), (long) getSize());
+    }
+}
@@ -0,0 +1,64 @@
+package dtm.database.repository.pagination;
+
+import java.util.Objects;
+
+/**
+ * Requisicao de pagina. Pode operar em dois modos:
+ * <ul>
+ *     <li><b>offset</b> ({@link #of(int, int)}): pula {@code page * size} linhas;</li>
+ *     <li><b>keyset</b> ({@link #keyset(Object, int)}): busca as linhas com identificador maior que
+ *     {@code lastSeen}, ordenadas pelo identificador, com custo constante independente da profundidade.</li>
+ * </ul>
+ */
+public record Pageable(int page, int size, Sort sort, boolean keyset, Object lastSeen) {
+
+    public Pageable {
+        if (page < 0) {
+            throw new IllegalArgumentException("O indice da pagina nao pode ser negativo: " + page);
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("O tamanho da pagina deve ser maior que zero: " + size);
+        }
+        sort = Objects.requireNonNullElse(sort, Sort.unsorted());
+        if (keyset && sort.isSorted()) {
+            throw new IllegalArgumentException("Paginacao keyset e sempre ordenada pelo identificador e nao aceita Sort");
+        }
+    }
+
+    public static Pageable of(int page, int size) {
+        return new Pageable(page, size, Sort.unsorted(), false, null);
+    }
+
+    public static Pageable of(int page, int size, Sort sort) {
+        return new Pageable(page, size, sort, false, null);
+    }
+
+    /**
+     * Primeira pagina em modo keyset.
+     */
+    public static Pageable keyset(int size) {
+        return new Pageable(0, size, Sort.unsorted(), true, null);
+    }
+
+    /**
+     * Pagina em modo keyset posterior ao identificador {@code lastSeen}.
+     */
+    public static Pageable keyset(Object lastSeen, int size) {
+        return new Pageable(0, size, Sort.unsorted(), true, lastSeen);
+    }
+
+    public long offset() {
+        return keyset ? 0 : (long) page * size;
+    }
+
+    public Pageable next() {
+        if (keyset) {
+            throw new IllegalStateException("A proxima pagina keyset depende do ultimo identificador lido; use Slice.nextPageable()");
+        }
+        return new Pageable(page + 1, size, sort, false, null);
+    }
+
+    public Pageable first() {
+        return new Pageable(0, size, sort, keyset, null);
+    }
+}
@@ -0,0 +1,43 @@
+package dtm.database.repository.pagination;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Fatia de resultados sem contagem total: a existencia da proxima fatia e detectada
+ * buscando uma linha a mais que o tamanho solicitado, sem {@code COUNT}.
+ */
+public interface Slice<T> {
+
+    List<T> getContent();
+
+    Pageable getPageable();
+
+    boolean hasNext();
+
+    /**
+     * Requisicao da proxima fatia, ou {@code null} quando {@link #hasNext()} e falso.
+     * No modo keyset carrega o identificador do ultimo elemento desta fatia.
+     */
+    Pageable nextPageable();
+
+    default int getNumber() {
+        return getPageable().page();
+    }
+
+    default int getSize() {
+        return getPageable().size();
+    }
+
+    default int getNumberOfElements() {
+        return getContent().size();
+    }
+
+    default boolean hasContent() {
+        return !getContent().isEmpty();
+    }
+
+    default Stream<T> stream() {
+        return getContent().stream();
+    }
+}
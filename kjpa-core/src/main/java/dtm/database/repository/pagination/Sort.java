@@ -0,0 +1,81 @@
+package dtm.database.repository.pagination;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Ordenacao aplicada a uma query de repositorio. As propriedades sao caminhos da entidade
+ * (ex: {@code nome}, {@code endereco.cidade}) e sao anexadas ao {@code ORDER BY} da query.
+ */
+public record Sort(List<Order> orders) {
+
+    private static final Sort UNSORTED = new Sort(List.of());
+
+    public Sort {
+        orders = List.copyOf(Objects.requireNonNull(orders, "orders"));
+    }
+
+    public static Sort unsorted() {
+        return UNSORTED;
+    }
+
+    public static Sort by(String... properties) {
+        return by(Direction.ASC, properties);
+    }
+
+    public static Sort by(Direction direction, String... properties) {
+        return new Sort(Arrays.stream(properties)
+                .map(property -> new Order(property, direction))
+                .toList());
+    }
+
+    public static Sort by(Order... orders) {
+        return new Sort(List.of(orders));
+    }
+
+    public Sort and(Sort other) {
+        if (other == null || other.isUnsorted()) return this;
+        if (isUnsorted()) return other;
+
+        List<Order> merged = new ArrayList<>(orders);
+        merged.addAll(other.orders);
+        return new Sort(merged);
+    }
+
+    public boolean isSorted() {
+        return !orders.isEmpty();
+    }
+
+    public boolean isUnsorted() {
+        return orders.isEmpty();
+    }
+
+    public enum Direction {
+        ASC,
+        DESC
+    }
+
+    public record Order(String property, Direction direction) {
+
+        private static final Pattern PROPERTY_PATH = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)*");
+
+        public Order {
+            Objects.requireNonNull(property, "property");
+            Objects.requireNonNull(direction, "direction");
+            if (!PROPERTY_PATH.matcher(property).matches()) {
+                throw new IllegalArgumentException("Propriedade de ordenacao invalida: " + property);
+            }
+        }
+
+        public static Order asc(String property) {
+            return new Order(property, Direction.ASC);
+        }
+
+        public static Order desc(String property) {
+            return new Order(property, Direction.DESC);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package dtm.database.repository.pagination.imple;
+
+import dtm.database.repository.pagination.Page;
+import dtm.database.repository.pagination.Pageable;
+
+import java.util.List;
+
+public class PageImple<T> extends SliceImple<T> implements Page<T> {
+
+    private final long totalElements;
+
+    public PageImple(List<T> content, Pageable pageable, Pageable nextPageable, long totalElements) {
+        super(content, pageable, nextPageable);
+        this.totalElements = totalElements;
+    }
+
+    @Override
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    @Override
+    public String toString() {
+        return "Page[" + getNumber() + " of " + getTotalPages() + ", total=" + totalElements + "]";
+    }
+}
@@ -0,0 +1,44 @@
+package dtm.database.repository.pagination.imple;
+
+import dtm.database.repository.pagination.Pageable;
+import dtm.database.repository.pagination.Slice;
+
+import java.util.List;
+
+public class SliceImple<T> implements Slice<T> {
+
+    private final List<T> content;
+    private final Pageable pageable;
+    private final Pageable nextPageable;
+
+    public SliceImple(List<T> content, Pageable pageable, Pageable nextPageable) {
+        this.content = List.copyOf(content);
+        this.pageable = pageable;
+        this.nextPageable = nextPageable;
+    }
+
+    @Override
+    public List<T> getContent() {
+        return content;
+    }
+
+    @Override
+    public Pageable getPageable() {
+        return pageable;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextPageable != null;
+    }
+
+    @Override
+    public Pageable nextPageable() {
+        return nextPageable;
+    }
+
+    @Override
+    public String toString() {
+        return "Slice[" + pageable.page() + ", size=" + content.size() + ", hasNext=" + hasNext() + "]";
+    }
+}
@@ -2,12 +2,18 @@ package dtm.database.repository.prototype;
 
 public enum OperationType {
     SAVE,
+    INSERT,
+    UPDATE,
     SAVE_ALL,
     DELETE,
     DELETE_BY_ID,
     DELETE_ALL,
+    DELETE_ALL_BY_ID,
     FIND_BY_ID,
     FIND_ALL,
+    FIND_ALL_BY_ID,
     COUNT,
+    EXISTS,
+    PROJECTION,
     QUERY
 }
@@ -4,4 +4,32 @@ public interface RepositoryMetaInfoManager {
     RepositoryMetainfo getByMethod(String methodName);
     Class<?> getEntityClass();
     Class<?> getIdClass();
+
+    /**
+     * Nome do atributo anotado com {@code @Id}, resolvido pelo processor.
+     */
+    default String getIdAttribute() {
+        return "id";
+    }
+
+    /**
+     * {@code true} quando o {@code @Id} e declarado com tipo primitivo, em que {@code 0} indica entidade nova.
+     */
+    default boolean hasPrimitiveId() {
+        return false;
+    }
+
+    /**
+     * Nome do atributo anotado com {@code @Version}, ou {@code null} quando a entidade nao e versionada.
+     */
+    default String getVersionAttribute() {
+        return null;
+    }
+
+    /**
+     * {@code true} quando o {@code @Version} e declarado com tipo primitivo e nunca e nulo.
+     */
+    default boolean hasPrimitiveVersion() {
+        return false;
+    }
 }
@@ -1,5 +1,6 @@
 package dtm.database.repository.prototype;
 
+import java.util.List;
 import java.util.Map;
 
 
@@ -11,9 +12,25 @@ public record RepositoryMetainfo (
         ReturnStrategy returnStrategy,
         Class<?> resultType,
         Map<Integer, String> paramMap,
-        boolean autoFlush
+        boolean autoFlush,
+        boolean readOnly,
+        long cacheTtlMillis,
+        boolean async,
+        int maxResults,
+        List<String> fetchGraph
 ) {
 
+    public boolean isCacheable() {
+        return cacheTtlMillis > 0;
+    }
+
+    /**
+     * Metodos {@code findTop<N>By}/{@code findFirst<N>By}: o limite e aplicado com {@code setMaxResults}.
+     */
+    public boolean isLimited() {
+        return maxResults > 0;
+    }
+
     @Override
     public String toString() {
         return "RepositoryMetainfo{" +
@@ -24,6 +41,11 @@ public record RepositoryMetainfo (
                 ", returnStrategy=" + returnStrategy +
                 ", resultType=" + resultType +
                 ", paramMap=" + paramMap +
+                ", readOnly=" + readOnly +
+                ", cacheTtlMillis=" + cacheTtlMillis +
+                ", async=" + async +
+                ", maxResults=" + maxResults +
+                ", fetchGraph=" + fetchGraph +
                 '}';
     }
 }
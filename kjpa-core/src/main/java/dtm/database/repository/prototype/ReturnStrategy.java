@@ -5,5 +5,9 @@ public enum ReturnStrategy {
     COLLECTION,
     OPTIONAL,
     PRIMITIVE,
+    STREAM,
+    PAGE,
+    SLICE,
+    MAP,
     VOID
 }
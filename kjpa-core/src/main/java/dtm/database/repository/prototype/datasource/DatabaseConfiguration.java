@@ -1,5 +1,9 @@
 package dtm.database.repository.prototype.datasource;
 
+import dtm.database.repository.metrics.MetricsExporter;
+import dtm.database.repository.sessions.SessionContextMode;
+import dtm.database.repository.sessions.StatementInspectionMode;
+
 public interface DatabaseConfiguration {
 
     String getDriverClassName();
@@ -20,4 +24,93 @@ public interface DatabaseConfiguration {
     default boolean formatSql() {
         return false;
     }
+
+    /**
+     * Quantidade de instrucoes agrupadas por lote JDBC ({@code hibernate.jdbc.batch_size}),
+     * usada tambem como intervalo de flush/clear no {@code saveAll}.
+     */
+    default int getJdbcBatchSize() {
+        return 50;
+    }
+
+    /**
+     * Quantidade de linhas buscadas por ida ao banco nos metodos que retornam {@code Stream},
+     * usada tambem como intervalo para destacar as entidades ja processadas.
+     */
+    default int getJdbcFetchSize() {
+        return 500;
+    }
+
+    /**
+     * Quantidade maxima de resultados mantidos pelo cache dos metodos {@code @Cacheable}; {@code 0} desativa o cache.
+     */
+    default int getQueryCacheMaxEntries() {
+        return 10_000;
+    }
+
+    /**
+     * Capacidade de cada regiao do cache de segundo nivel embutido ({@code KjpaRegionFactory}), usado pelas
+     * entidades anotadas com {@code jakarta.persistence.Cacheable}; {@code 0} desativa o cache de segundo nivel.
+     */
+    default int getEntityCacheMaxEntries() {
+        return 10_000;
+    }
+
+    /**
+     * Tamanho maximo do pool de conexoes (HikariCP).
+     */
+    default int getMaximumPoolSize() {
+        return 20;
+    }
+
+    /**
+     * Quantidade maxima de metodos {@code CompletableFuture} executando ao mesmo tempo.
+     * Deve ser ao menos 1 e menor que {@link #getMaximumPoolSize()}, para nao esgotar as conexoes das chamadas
+     * sincronas; valores fora desse intervalo impedem a inicializacao.
+     */
+    default int getAsyncMaxConcurrency() {
+        return 10;
+    }
+
+    default SessionContextMode getSessionContextMode() {
+        return SessionContextMode.THREAD_LOCAL;
+    }
+
+    /**
+     * Deteccao de N+1: conta as instrucoes SQL de cada {@code DatabaseSession} e reporta a mesma instrucao
+     * repetida {@link #getRepeatedStatementThreshold()} vezes na transacao.
+     */
+    default StatementInspectionMode getStatementInspectionMode() {
+        return StatementInspectionMode.OFF;
+    }
+
+    /**
+     * Quantidade de execucoes da mesma instrucao SQL, na mesma sessao, a partir da qual ela e reportada como N+1.
+     */
+    default int getRepeatedStatementThreshold() {
+        return 10;
+    }
+
+    /**
+     * Registra chamadas, falhas e latencia dos metodos de repositorio e das transacoes, alem das metricas do pool
+     * e das estatisticas do Hibernate. Habilitado por padrao quando ha um {@link #getMetricsExporter()}.
+     */
+    default boolean isMetricsEnabled() {
+        return getMetricsExporter() != null;
+    }
+
+    /**
+     * Exportador das metricas, por exemplo {@code new PrometheusHttpExporter(9464)}; {@code null} nao exporta.
+     */
+    default MetricsExporter getMetricsExporter() {
+        return null;
+    }
+
+    /**
+     * Tempo, em milissegundos, que uma sessao ou conexao pode permanecer aberta antes de ser
+     * reportada como possivel vazamento. {@code 0} desabilita a deteccao.
+     */
+    default long getLeakDetectionThreshold() {
+        return 0;
+    }
 }
@@ -1,5 +1,9 @@
 package dtm.database.repository.prototype.datasource;
 
+import dtm.database.repository.metrics.MetricsExporter;
+import dtm.database.repository.sessions.SessionContextMode;
+import dtm.database.repository.sessions.StatementInspectionMode;
+
 public class DiscoveryDatabaseConfiguration implements DatabaseConfiguration {
 
     private final String driverClassName;
@@ -10,6 +14,18 @@ public class DiscoveryDatabaseConfiguration implements DatabaseConfiguration {
     private Boolean showSql;
     private Boolean formatSql;
     private String hbm2ddlAuto;
+    private Integer jdbcBatchSize;
+    private Integer jdbcFetchSize;
+    private Integer queryCacheMaxEntries;
+    private Integer entityCacheMaxEntries;
+    private Integer maximumPoolSize;
+    private Integer asyncMaxConcurrency;
+    private SessionContextMode sessionContextMode;
+    private StatementInspectionMode statementInspectionMode;
+    private Integer repeatedStatementThreshold;
+    private Boolean metricsEnabled;
+    private MetricsExporter metricsExporter;
+    private Long leakDetectionThreshold;
 
     public DiscoveryDatabaseConfiguration(String driverClassName, String url, String username, String password) {
         this.driverClassName = driverClassName;
@@ -33,6 +49,66 @@ public class DiscoveryDatabaseConfiguration implements DatabaseConfiguration {
         return this;
     }
 
+    public DiscoveryDatabaseConfiguration withJdbcBatchSize(int jdbcBatchSize) {
+        this.jdbcBatchSize = jdbcBatchSize;
+        return this;
+    }
+
+    public DiscoveryDatabaseConfiguration withJdbcFetchSize(int jdbcFetchSize) {
+        this.jdbcFetchSize = jdbcFetchSize;
+        return this;
+    }
+
+    public DiscoveryDatabaseConfiguration withQueryCacheMaxEntries(int queryCacheMaxEntries) {
+        this.queryCacheMaxEntries = queryCacheMaxEntries;
+        return this;
+    }
+
+    public DiscoveryDatabaseConfiguration withEntityCacheMaxEntries(int entityCacheMaxEntries) {
+        this.entityCacheMaxEntries = entityCacheMaxEntries;
+        return this;
+    }
+
+    public DiscoveryDatabaseConfiguration withMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+        return this;
+    }
+
+    public DiscoveryDatabaseConfiguration withAsyncMaxConcurrency(int asyncMaxConcurrency) {
+        this.asyncMaxConcurrency = asyncMaxConcurrency;
+        return this;
+    }
+
+    public DiscoveryDatabaseConfiguration withSessionContextMode(SessionContextMode sessionContextMode) {
+        this.sessionContextMode = sessionContextMode;
+        return this;
+    }
+
+    public DiscoveryDatabaseConfiguration withStatementInspectionMode(StatementInspectionMode statementInspectionMode) {
+        this.statementInspectionMode = statementInspectionMode;
+        return this;
+    }
+
+    public DiscoveryDatabaseConfiguration withRepeatedStatementThreshold(int repeatedStatementThreshold) {
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+        return this;
+    }
+
+    public DiscoveryDatabaseConfiguration withMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+        return this;
+    }
+
+    public DiscoveryDatabaseConfiguration withMetricsExporter(MetricsExporter metricsExporter) {
+        this.metricsExporter = metricsExporter;
+        return this;
+    }
+
+    public DiscoveryDatabaseConfiguration withLeakDetectionThreshold(long leakDetectionThreshold) {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+        return this;
+    }
+
 
     @Override
     public String getDriverClassName() { return driverClassName; }
@@ -86,4 +162,64 @@ public class DiscoveryDatabaseConfiguration implements DatabaseConfiguration {
         return hbm2ddlAuto != null ? hbm2ddlAuto : DatabaseConfiguration.super.getHbm2ddlAuto();
     }
 
+    @Override
+    public int getJdbcBatchSize() {
+        return jdbcBatchSize != null ? jdbcBatchSize : DatabaseConfiguration.super.getJdbcBatchSize();
+    }
+
+    @Override
+    public int getJdbcFetchSize() {
+        return jdbcFetchSize != null ? jdbcFetchSize : DatabaseConfiguration.super.getJdbcFetchSize();
+    }
+
+    @Override
+    public int getQueryCacheMaxEntries() {
+        return queryCacheMaxEntries != null ? queryCacheMaxEntries : DatabaseConfiguration.super.getQueryCacheMaxEntries();
+    }
+
+    @Override
+    public int getEntityCacheMaxEntries() {
+        return entityCacheMaxEntries != null ? entityCacheMaxEntries : DatabaseConfiguration.super.getEntityCacheMaxEntries();
+    }
+
+    @Override
+    public int getMaximumPoolSize() {
+        return maximumPoolSize != null ? maximumPoolSize : DatabaseConfiguration.super.getMaximumPoolSize();
+    }
+
+    @Override
+    public int getAsyncMaxConcurrency() {
+        return asyncMaxConcurrency != null ? asyncMaxConcurrency : DatabaseConfiguration.super.getAsyncMaxConcurrency();
+    }
+
+    @Override
+    public SessionContextMode getSessionContextMode() {
+        return sessionContextMode != null ? sessionContextMode : DatabaseConfiguration.super.getSessionContextMode();
+    }
+
+    @Override
+    public StatementInspectionMode getStatementInspectionMode() {
+        return statementInspectionMode != null ? statementInspectionMode : DatabaseConfiguration.super.getStatementInspectionMode();
+    }
+
+    @Override
+    public int getRepeatedStatementThreshold() {
+        return repeatedStatementThreshold != null ? repeatedStatementThreshold : DatabaseConfiguration.super.getRepeatedStatementThreshold();
+    }
+
+    @Override
+    public boolean isMetricsEnabled() {
+        return metricsEnabled != null ? metricsEnabled : DatabaseConfiguration.super.isMetricsEnabled();
+    }
+
+    @Override
+    public MetricsExporter getMetricsExporter() {
+        return metricsExporter;
+    }
+
+    @Override
+    public long getLeakDetectionThreshold() {
+        return leakDetectionThreshold != null ? leakDetectionThreshold : DatabaseConfiguration.super.getLeakDetectionThreshold();
+    }
+
 }
@@ -1,7 +1,13 @@
 package dtm.database.repository.prototype.datasource;
 
+import dtm.database.repository.cache.RepositoryQueryCache;
+import dtm.database.repository.execution.RepositoryAsyncExecutor;
+import dtm.database.repository.metrics.KjpaMetrics;
 import dtm.database.repository.sessions.DatabaseSession;
-import jakarta.persistence.EntityManager;
+import dtm.database.repository.sessions.DatabaseSessionLeakDetector;
+import dtm.database.repository.sessions.DatabaseSessionStatementInspector;
+import dtm.database.repository.sessions.StatementInspectionMode;
+import dtm.database.repository.sessions.imple.DatabaseSessionImple;
 import jakarta.persistence.EntityManagerFactory;
 
 public interface EntityManagerFactoryContext {
@@ -9,16 +15,35 @@ public interface EntityManagerFactoryContext {
     DatabaseConfiguration getDatabaseConfiguration();
     EntityManagerFactory getEntityManagerFactory();
 
+    default DatabaseSessionLeakDetector getSessionLeakDetector(){
+        return null;
+    }
+
+    default RepositoryQueryCache getQueryCache(){
+        return null;
+    }
+
+    default RepositoryAsyncExecutor getAsyncExecutor(){
+        return null;
+    }
+
+    /**
+     * @return o registro de metricas, ou {@code null} quando {@link DatabaseConfiguration#isMetricsEnabled()} e falso
+     */
+    default KjpaMetrics getMetrics(){
+        return null;
+    }
 
     default DatabaseSession createDatabaseSession(){
-        return new DatabaseSession() {
-            private final EntityManagerFactory emf = getEntityManagerFactory();
-            private final EntityManager em = (emf != null) ? emf.createEntityManager() : null;
-
-            @Override
-            public EntityManager getEntityManager() {
-                return em;
-            }
-        };
+        DatabaseConfiguration databaseConfiguration = getDatabaseConfiguration();
+        StatementInspectionMode inspectionMode = (databaseConfiguration != null)
+                ? databaseConfiguration.getStatementInspectionMode()
+                : StatementInspectionMode.OFF;
+
+        DatabaseSessionStatementInspector statementInspector = (inspectionMode == null || inspectionMode == StatementInspectionMode.OFF)
+                ? null
+                : new DatabaseSessionStatementInspector(inspectionMode, databaseConfiguration.getRepeatedStatementThreshold());
+
+        return new DatabaseSessionImple(getEntityManagerFactory(), getSessionLeakDetector(), statementInspector);
     }
 }
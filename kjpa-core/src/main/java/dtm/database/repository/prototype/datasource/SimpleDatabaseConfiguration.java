@@ -1,5 +1,9 @@
 package dtm.database.repository.prototype.datasource;
 
+import dtm.database.repository.metrics.MetricsExporter;
+import dtm.database.repository.sessions.SessionContextMode;
+import dtm.database.repository.sessions.StatementInspectionMode;
+
 public class SimpleDatabaseConfiguration implements DatabaseConfiguration{
     private final String driverClassName;
     private final String url;
@@ -10,6 +14,18 @@ public class SimpleDatabaseConfiguration implements DatabaseConfiguration{
     private Boolean showSql;
     private Boolean formatSql;
     private String hbm2ddlAuto;
+    private Integer jdbcBatchSize;
+    private Integer jdbcFetchSize;
+    private Integer queryCacheMaxEntries;
+    private Integer entityCacheMaxEntries;
+    private Integer maximumPoolSize;
+    private Integer asyncMaxConcurrency;
+    private SessionContextMode sessionContextMode;
+    private StatementInspectionMode statementInspectionMode;
+    private Integer repeatedStatementThreshold;
+    private Boolean metricsEnabled;
+    private MetricsExporter metricsExporter;
+    private Long leakDetectionThreshold;
 
     public SimpleDatabaseConfiguration(String driverClassName, String url, String username, String password, String dialect) {
         this.driverClassName = driverClassName;
@@ -34,6 +50,66 @@ public class SimpleDatabaseConfiguration implements DatabaseConfiguration{
         return this;
     }
 
+    public SimpleDatabaseConfiguration withJdbcBatchSize(int jdbcBatchSize) {
+        this.jdbcBatchSize = jdbcBatchSize;
+        return this;
+    }
+
+    public SimpleDatabaseConfiguration withJdbcFetchSize(int jdbcFetchSize) {
+        this.jdbcFetchSize = jdbcFetchSize;
+        return this;
+    }
+
+    public SimpleDatabaseConfiguration withQueryCacheMaxEntries(int queryCacheMaxEntries) {
+        this.queryCacheMaxEntries = queryCacheMaxEntries;
+        return this;
+    }
+
+    public SimpleDatabaseConfiguration withEntityCacheMaxEntries(int entityCacheMaxEntries) {
+        this.entityCacheMaxEntries = entityCacheMaxEntries;
+        return this;
+    }
+
+    public SimpleDatabaseConfiguration withMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+        return this;
+    }
+
+    public SimpleDatabaseConfiguration withAsyncMaxConcurrency(int asyncMaxConcurrency) {
+        this.asyncMaxConcurrency = asyncMaxConcurrency;
+        return this;
+    }
+
+    public SimpleDatabaseConfiguration withSessionContextMode(SessionContextMode sessionContextMode) {
+        this.sessionContextMode = sessionContextMode;
+        return this;
+    }
+
+    public SimpleDatabaseConfiguration withStatementInspectionMode(StatementInspectionMode statementInspectionMode) {
+        this.statementInspectionMode = statementInspectionMode;
+        return this;
+    }
+
+    public SimpleDatabaseConfiguration withRepeatedStatementThreshold(int repeatedStatementThreshold) {
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+        return this;
+    }
+
+    public SimpleDatabaseConfiguration withMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+        return this;
+    }
+
+    public SimpleDatabaseConfiguration withMetricsExporter(MetricsExporter metricsExporter) {
+        this.metricsExporter = metricsExporter;
+        return this;
+    }
+
+    public SimpleDatabaseConfiguration withLeakDetectionThreshold(long leakDetectionThreshold) {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+        return this;
+    }
+
     @Override
     public String getDriverClassName() { return driverClassName; }
 
@@ -64,4 +140,64 @@ public class SimpleDatabaseConfiguration implements DatabaseConfiguration{
         return hbm2ddlAuto != null ? hbm2ddlAuto : DatabaseConfiguration.super.getHbm2ddlAuto();
     }
 
+    @Override
+    public int getJdbcBatchSize() {
+        return jdbcBatchSize != null ? jdbcBatchSize : DatabaseConfiguration.super.getJdbcBatchSize();
+    }
+
+    @Override
+    public int getJdbcFetchSize() {
+        return jdbcFetchSize != null ? jdbcFetchSize : DatabaseConfiguration.super.getJdbcFetchSize();
+    }
+
+    @Override
+    public int getQueryCacheMaxEntries() {
+        return queryCacheMaxEntries != null ? queryCacheMaxEntries : DatabaseConfiguration.super.getQueryCacheMaxEntries();
+    }
+
+    @Override
+    public int getEntityCacheMaxEntries() {
+        return entityCacheMaxEntries != null ? entityCacheMaxEntries : DatabaseConfiguration.super.getEntityCacheMaxEntries();
+    }
+
+    @Override
+    public int getMaximumPoolSize() {
+        return maximumPoolSize != null ? maximumPoolSize : DatabaseConfiguration.super.getMaximumPoolSize();
+    }
+
+    @Override
+    public int getAsyncMaxConcurrency() {
+        return asyncMaxConcurrency != null ? asyncMaxConcurrency : DatabaseConfiguration.super.getAsyncMaxConcurrency();
+    }
+
+    @Override
+    public SessionContextMode getSessionContextMode() {
+        return sessionContextMode != null ? sessionContextMode : DatabaseConfiguration.super.getSessionContextMode();
+    }
+
+    @Override
+    public StatementInspectionMode getStatementInspectionMode() {
+        return statementInspectionMode != null ? statementInspectionMode : DatabaseConfiguration.super.getStatementInspectionMode();
+    }
+
+    @Override
+    public int getRepeatedStatementThreshold() {
+        return repeatedStatementThreshold != null ? repeatedStatementThreshold : DatabaseConfiguration.super.getRepeatedStatementThreshold();
+    }
+
+    @Override
+    public boolean isMetricsEnabled() {
+        return metricsEnabled != null ? metricsEnabled : DatabaseConfiguration.super.isMetricsEnabled();
+    }
+
+    @Override
+    public MetricsExporter getMetricsExporter() {
+        return metricsExporter;
+    }
+
+    @Override
+    public long getLeakDetectionThreshold() {
+        return leakDetectionThreshold != null ? leakDetectionThreshold : DatabaseConfiguration.super.getLeakDetectionThreshold();
+    }
+
 }
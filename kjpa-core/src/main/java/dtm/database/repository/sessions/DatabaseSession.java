@@ -2,12 +2,57 @@ package dtm.database.repository.sessions;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityTransaction;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
 
 import java.util.function.Supplier;
 
 public interface DatabaseSession {
     EntityManager getEntityManager();
 
+    /**
+     * Registra a entrada em um novo nivel de {@code @Transactional} que compartilha esta sessao.
+     * Sessoes usadas apenas fora do {@code TransactionalAspect} nao precisam implementar o controle de profundidade.
+     * @return a profundidade apos a entrada
+     */
+    default int incrementDepth() {
+        throw new UnsupportedOperationException(getClass().getName() + " nao controla a profundidade exigida por @Transactional.");
+    }
+
+    /**
+     * Registra a saida de um nivel de {@code @Transactional}.
+     * @return a profundidade restante; {@code 0} indica a fronteira mais externa
+     */
+    default int decrementDepth() {
+        throw new UnsupportedOperationException(getClass().getName() + " nao controla a profundidade exigida por @Transactional.");
+    }
+
+    default int getDepth() {
+        throw new UnsupportedOperationException(getClass().getName() + " nao controla a profundidade exigida por @Transactional.");
+    }
+
+    /**
+     * Instante de abertura da sessao, em {@link System#nanoTime()}, ou {@link Long#MIN_VALUE} quando desconhecido.
+     */
+    default long getOpenedAtNanos() {
+        return Long.MIN_VALUE;
+    }
+
+    /**
+     * Inspetor de instrucoes da sessao, ou {@code null} quando a deteccao de N+1 esta desligada.
+     */
+    default DatabaseSessionStatementInspector getStatementInspector() {
+        return null;
+    }
+
+    /**
+     * Executa {@code action} depois que a transacao fisica ativa for confirmada ou revertida, ou imediatamente quando
+     * nao ha transacao ativa. Registros com a mesma {@code key} na mesma transacao sao executados uma unica vez.
+     */
+    default void afterCompletion(Object key, Runnable action) {
+        action.run();
+    }
+
     default boolean isValidSession(){
         EntityManager em = getEntityManager();
         return (em != null) && em.isOpen();
@@ -23,6 +68,25 @@ public interface DatabaseSession {
         }
     }
 
+    default void markRollbackOnly() {
+        EntityManager em = getEntityManager();
+        if (em != null) {
+            EntityTransaction tx = em.getTransaction();
+            if (tx.isActive()) {
+                tx.setRollbackOnly();
+            }
+        }
+    }
+
+    default boolean isRollbackOnly() {
+        EntityManager em = getEntityManager();
+        if (em != null) {
+            EntityTransaction tx = em.getTransaction();
+            return tx.isActive() && tx.getRollbackOnly();
+        }
+        return false;
+    }
+
     default void commitIfActive() {
         EntityManager em = getEntityManager();
         if (em != null) {
@@ -43,6 +107,27 @@ public interface DatabaseSession {
         }
     }
 
+    /**
+     * Inicia uma transacao somente leitura: a conexao JDBC e marcada como {@code readOnly},
+     * o flush passa a ser {@link FlushMode#MANUAL} e as entidades carregadas nao mantem snapshot.
+     * O estado da conexao e restaurado pelo pool quando ela e devolvida.
+     */
+    default void beginReadOnlyTransaction() {
+        EntityManager em = getEntityManager();
+        if (em != null) {
+            Session session = em.unwrap(Session.class);
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+            beginTransaction();
+            session.doWork(connection -> connection.setReadOnly(true));
+        }
+    }
+
+    default boolean isReadOnly() {
+        EntityManager em = getEntityManager();
+        return em != null && em.isOpen() && em.unwrap(Session.class).isDefaultReadOnly();
+    }
+
     default void close(){
         EntityManager em = getEntityManager();
         if (em != null && em.isOpen()) {
@@ -64,8 +149,17 @@ public interface DatabaseSession {
     }
 
     default <T> T runInTransaction(Supplier<T> action) {
-        beginTransaction();
+        return runInTransaction(false, action);
+    }
+
+    default <T> T runInTransaction(boolean readOnly, Supplier<T> action) {
         try {
+            if (readOnly) {
+                beginReadOnlyTransaction();
+            } else {
+                beginTransaction();
+            }
+
             T result = action.get();
             commitIfActive();
             return result;
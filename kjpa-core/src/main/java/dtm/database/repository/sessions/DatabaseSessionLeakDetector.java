@@ -0,0 +1,115 @@
+package dtm.database.repository.sessions;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monitora as sessoes abertas e reporta aquelas mantidas por mais tempo que o limite configurado,
+ * indicando a thread dona e a pilha de aquisicao.
+ */
+@Slf4j
+public class DatabaseSessionLeakDetector implements AutoCloseable {
+
+    private static final long MIN_SCAN_INTERVAL_MILLIS = 1000;
+
+    private final long thresholdNanos;
+    private final Map<DatabaseSession, Acquisition> openSessions;
+    private final ScheduledExecutorService scheduler;
+
+    public DatabaseSessionLeakDetector(long thresholdMillis) {
+        if (thresholdMillis <= 0) {
+            throw new IllegalArgumentException("O limite de deteccao de vazamento deve ser maior que zero.");
+        }
+
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.openSessions = new ConcurrentHashMap<>();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Database-Session-Leak-Detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long interval = Math.max(MIN_SCAN_INTERVAL_MILLIS, thresholdMillis / 2);
+        this.scheduler.scheduleWithFixedDelay(this::scan, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void register(DatabaseSession databaseSession) {
+        Thread owner = Thread.currentThread();
+        openSessions.put(databaseSession, new Acquisition(
+                System.nanoTime(),
+                owner.getName(),
+                new Throwable("Sessao adquirida pela thread " + owner.getName())
+        ));
+    }
+
+    public void unregister(DatabaseSession databaseSession) {
+        Acquisition acquisition = openSessions.remove(databaseSession);
+        if (acquisition != null && acquisition.reported) {
+            log.info("Sessao previamente reportada como vazamento foi liberada apos {} ms (thread: {}).",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - acquisition.acquiredAtNanos),
+                    acquisition.threadName);
+        }
+    }
+
+    public int getOpenSessionCount() {
+        return openSessions.size();
+    }
+
+    private void scan() {
+        long now = System.nanoTime();
+        for (Acquisition acquisition : openSessions.values()) {
+            if (acquisition.reported) continue;
+
+            long heldNanos = now - acquisition.acquiredAtNanos;
+            if (heldNanos < thresholdNanos) continue;
+
+            acquisition.reported = true;
+            log.warn("""
+
+            [ POSSÍVEL VAZAMENTO DE SESSÃO ]
+            Uma DatabaseSession está aberta há mais tempo que o limite configurado.
+            > Thread dona : {}
+            > Tempo aberta: {} ms
+            > Limite      : {} ms
+            > Pilha de aquisição:
+            {}
+            """,
+                    acquisition.threadName,
+                    TimeUnit.NANOSECONDS.toMillis(heldNanos),
+                    TimeUnit.NANOSECONDS.toMillis(thresholdNanos),
+                    stackTraceOf(acquisition.stack));
+        }
+    }
+
+    private String stackTraceOf(Throwable throwable) {
+        StringWriter writer = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(writer));
+        return writer.toString();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        openSessions.clear();
+    }
+
+    private static final class Acquisition {
+        private final long acquiredAtNanos;
+        private final String threadName;
+        private final Throwable stack;
+        private volatile boolean reported;
+
+        private Acquisition(long acquiredAtNanos, String threadName, Throwable stack) {
+            this.acquiredAtNanos = acquiredAtNanos;
+            this.threadName = threadName;
+            this.stack = stack;
+        }
+    }
+}
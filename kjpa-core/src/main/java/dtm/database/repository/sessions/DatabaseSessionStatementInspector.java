@@ -0,0 +1,106 @@
+package dtm.database.repository.sessions;
+
+import dtm.database.repository.exceptions.RepeatedStatementException;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link StatementInspector} de uma unica {@link DatabaseSession}: conta as instrucoes executadas e quantas vezes
+ * cada consulta se repete. O SQL gerado pelo Hibernate ja usa {@code ?} no lugar dos valores, entao o proprio texto
+ * identifica o formato da instrucao; carregar uma associacao {@code LAZY} linha a linha repete o mesmo texto.
+ * A sessao e usada por uma thread de cada vez, por isso o estado nao e sincronizado.
+ */
+@Slf4j
+public class DatabaseSessionStatementInspector implements StatementInspector {
+
+    // limita a memoria de transacoes longas com muitas instrucoes distintas
+    private static final int MAX_TRACKED_STATEMENTS = 1024;
+
+    private final StatementInspectionMode mode;
+    private final int threshold;
+    private final Map<String, Integer> executions;
+    private int statementCount;
+    private String transactionalMethod;
+    private String repositoryMethod;
+
+    public DatabaseSessionStatementInspector(StatementInspectionMode mode, int threshold) {
+        if (threshold <= 1) {
+            throw new IllegalArgumentException("O limite de instrucoes repetidas deve ser maior que um.");
+        }
+
+        this.mode = mode;
+        this.threshold = threshold;
+        this.executions = new HashMap<>();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        statementCount++;
+        // escritas em lote reaproveitam o mesmo INSERT/UPDATE a cada lote e nao caracterizam N+1
+        if (!isQuery(sql)) {
+            return sql;
+        }
+
+        Integer previous = executions.get(sql);
+        if (previous == null) {
+            if (executions.size() < MAX_TRACKED_STATEMENTS) {
+                executions.put(sql, 1);
+            }
+            return sql;
+        }
+
+        int count = previous + 1;
+        executions.put(sql, count);
+        if (count == threshold) {
+            report(sql, count);
+        }
+        return sql;
+    }
+
+    /**
+     * Metodo {@code @Transactional} que abriu a sessao.
+     */
+    public void setTransactionalMethod(String transactionalMethod) {
+        this.transactionalMethod = transactionalMethod;
+    }
+
+    /**
+     * Ultimo metodo de repositorio chamado na sessao. Os carregamentos {@code LAZY} que causam o N+1 acontecem
+     * depois que a chamada retorna, ao percorrer o resultado, e sao atribuidos a ela.
+     */
+    public void setRepositoryMethod(String repositoryMethod) {
+        this.repositoryMethod = repositoryMethod;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    private static boolean isQuery(String sql) {
+        int start = 0;
+        while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+            start++;
+        }
+        return sql.regionMatches(true, start, "select", 0, 6) || sql.regionMatches(true, start, "with", 0, 4);
+    }
+
+    private void report(String sql, int count) {
+        String message = String.format(
+                "Possivel N+1: a mesma instrucao foi executada %d vezes na sessao (%d instrucoes no total). " +
+                        "Metodo transacional: %s. Ultimo metodo de repositorio: %s. SQL: %s",
+                count,
+                statementCount,
+                (transactionalMethod != null) ? transactionalMethod : "nenhum",
+                (repositoryMethod != null) ? repositoryMethod : "nenhum",
+                sql
+        );
+
+        if (mode == StatementInspectionMode.FAIL) {
+            throw new RepeatedStatementException(message);
+        }
+        log.warn(message);
+    }
+}
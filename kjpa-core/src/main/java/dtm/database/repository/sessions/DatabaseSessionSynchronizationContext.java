@@ -1,8 +1,8 @@
 package dtm.database.repository.sessions;
 
 public interface DatabaseSessionSynchronizationContext {
-    boolean hasSession();
-    DatabaseSession getSession();
-    void removeSession();
-    void addSession(DatabaseSession databaseSession, Class<?> owners);
+    boolean hasSession(SessionKey key);
+    DatabaseSession getSession(SessionKey key);
+    void removeSession(SessionKey key);
+    void addSession(SessionKey key, DatabaseSession databaseSession);
 }
@@ -0,0 +1,15 @@
+package dtm.database.repository.sessions;
+
+public enum SessionContextMode {
+    /**
+     * Mapa de sessoes por thread em um {@link ThreadLocal} estatico.
+     */
+    THREAD_LOCAL,
+
+    /**
+     * Escopo imutavel em um {@link ThreadLocal}, vinculado apenas durante a transacao e nunca herdado por outras
+     * threads. A propagacao para subtarefas so ocorre explicitamente, pelo {@code SessionCarrier} obtido com
+     * {@code ScopedDatabaseSessionSynchronizationContext.capture()}.
+     */
+    SCOPED
+}
@@ -0,0 +1,29 @@
+package dtm.database.repository.sessions;
+
+/**
+ * Identificador explicito de uma sessao vinculada ao {@link DatabaseSessionSynchronizationContext}.
+ * A comparacao e feita por identidade, portanto a busca nao depende de inspecao de pilha.
+ */
+public final class SessionKey {
+
+    public static final SessionKey TRANSACTIONAL = new SessionKey("transactional");
+
+    private final String name;
+
+    private SessionKey(String name) {
+        this.name = name;
+    }
+
+    public static SessionKey of(String name) {
+        return new SessionKey(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionKey<" + name + ">";
+    }
+}
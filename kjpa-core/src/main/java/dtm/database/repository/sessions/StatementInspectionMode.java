@@ -0,0 +1,19 @@
+package dtm.database.repository.sessions;
+
+public enum StatementInspectionMode {
+    /**
+     * Nenhum {@code StatementInspector} e registrado; as sessoes nao tem custo adicional.
+     */
+    OFF,
+
+    /**
+     * Instrucoes repetidas acima do limite sao registradas como aviso, uma vez por instrucao e sessao.
+     */
+    LOG,
+
+    /**
+     * Instrucoes repetidas acima do limite lancam {@code RepeatedStatementException}, revertendo a transacao.
+     * Indicado para testes de integracao.
+     */
+    FAIL
+}
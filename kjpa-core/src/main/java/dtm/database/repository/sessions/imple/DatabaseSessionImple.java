@@ -0,0 +1,169 @@
+package dtm.database.repository.sessions.imple;
+
+import dtm.database.repository.metrics.TransactionEvent;
+import dtm.database.repository.sessions.DatabaseSession;
+import dtm.database.repository.sessions.DatabaseSessionLeakDetector;
+import dtm.database.repository.sessions.DatabaseSessionStatementInspector;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DatabaseSessionImple implements DatabaseSession {
+
+    private final EntityManager em;
+    private final DatabaseSessionLeakDetector leakDetector;
+    private final DatabaseSessionStatementInspector statementInspector;
+    private final AtomicInteger depth;
+    private final long openedAtNanos;
+    private final Map<Object, Runnable> completionActions;
+    private TransactionEvent transactionEvent;
+
+    public DatabaseSessionImple(EntityManagerFactory emf, DatabaseSessionLeakDetector leakDetector) {
+        this(emf, leakDetector, null);
+    }
+
+    public DatabaseSessionImple(EntityManagerFactory emf, DatabaseSessionLeakDetector leakDetector, DatabaseSessionStatementInspector statementInspector) {
+        this.openedAtNanos = System.nanoTime();
+        this.em = openEntityManager(emf, statementInspector);
+        this.leakDetector = leakDetector;
+        this.statementInspector = statementInspector;
+        this.depth = new AtomicInteger();
+        this.completionActions = new LinkedHashMap<>();
+
+        if (leakDetector != null && em != null) {
+            leakDetector.register(this);
+        }
+    }
+
+    /**
+     * Com a deteccao de N+1 ligada, a sessao e aberta com o seu proprio {@code StatementInspector}.
+     */
+    private static EntityManager openEntityManager(EntityManagerFactory emf, DatabaseSessionStatementInspector statementInspector) {
+        if (emf == null) {
+            return null;
+        }
+        if (statementInspector == null) {
+            return emf.createEntityManager();
+        }
+        return emf.unwrap(SessionFactory.class)
+                .withOptions()
+                .statementInspector(statementInspector)
+                .openSession();
+    }
+
+    @Override
+    public EntityManager getEntityManager() {
+        return em;
+    }
+
+    @Override
+    public long getOpenedAtNanos() {
+        return openedAtNanos;
+    }
+
+    @Override
+    public DatabaseSessionStatementInspector getStatementInspector() {
+        return statementInspector;
+    }
+
+    /**
+     * Com uma gravacao JFR ativa, cada transacao fisica emite um {@link TransactionEvent} ao ser confirmada ou revertida.
+     */
+    @Override
+    public void beginTransaction() {
+        if (em != null && !em.getTransaction().isActive()) {
+            TransactionEvent event = new TransactionEvent();
+            if (event.isEnabled()) {
+                event.begin();
+                transactionEvent = event;
+            }
+        }
+        DatabaseSession.super.beginTransaction();
+    }
+
+    @Override
+    public void commitIfActive() {
+        boolean committed = false;
+        try {
+            DatabaseSession.super.commitIfActive();
+            committed = true;
+        } finally {
+            completeTransactionEvent(committed);
+            runCompletionActions();
+        }
+    }
+
+    @Override
+    public void rollbackIfActive() {
+        try {
+            DatabaseSession.super.rollbackIfActive();
+        } finally {
+            completeTransactionEvent(false);
+            runCompletionActions();
+        }
+    }
+
+    @Override
+    public void afterCompletion(Object key, Runnable action) {
+        if (em != null && em.isOpen() && em.getTransaction().isActive()) {
+            completionActions.putIfAbsent(key, action);
+        } else {
+            action.run();
+        }
+    }
+
+    private void runCompletionActions() {
+        if (completionActions.isEmpty()) {
+            return;
+        }
+
+        Runnable[] actions = completionActions.values().toArray(Runnable[]::new);
+        completionActions.clear();
+        for (Runnable action : actions) {
+            action.run();
+        }
+    }
+
+    private void completeTransactionEvent(boolean committed) {
+        TransactionEvent event = transactionEvent;
+        if (event == null) {
+            return;
+        }
+
+        transactionEvent = null;
+        if (event.shouldCommit()) {
+            event.complete(isReadOnly(), committed);
+        }
+    }
+
+    @Override
+    public int incrementDepth() {
+        return depth.incrementAndGet();
+    }
+
+    @Override
+    public int decrementDepth() {
+        return depth.updateAndGet(current -> Math.max(0, current - 1));
+    }
+
+    @Override
+    public int getDepth() {
+        return depth.get();
+    }
+
+    @Override
+    public void close() {
+        try {
+            DatabaseSession.super.close();
+        } finally {
+            runCompletionActions();
+            if (leakDetector != null) {
+                leakDetector.unregister(this);
+            }
+        }
+    }
+}
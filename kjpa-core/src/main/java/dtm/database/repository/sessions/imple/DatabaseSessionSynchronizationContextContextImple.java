@@ -2,63 +2,48 @@ package dtm.database.repository.sessions.imple;
 
 import dtm.database.repository.sessions.DatabaseSession;
 import dtm.database.repository.sessions.DatabaseSessionSynchronizationContext;
+import dtm.database.repository.sessions.SessionKey;
 
 import java.util.HashMap;
 import java.util.Map;
 
 public class DatabaseSessionSynchronizationContextContextImple implements DatabaseSessionSynchronizationContext {
 
-    private static final ThreadLocal<Map<Class<?>, DatabaseSession>> SESSION_STORAGE = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<SessionKey, DatabaseSession>> SESSION_STORAGE = ThreadLocal.withInitial(HashMap::new);
 
     @Override
-    public boolean hasSession() {
-        DatabaseSession databaseSession = getSession();
+    public boolean hasSession(SessionKey key) {
+        DatabaseSession databaseSession = getSession(key);
         if(databaseSession == null) return false;
         return databaseSession.isValidSession();
     }
 
     @Override
-    public DatabaseSession getSession() {
-        Class<?> caller = getCaller();
-        return SESSION_STORAGE.get().get(caller);
+    public DatabaseSession getSession(SessionKey key) {
+        return SESSION_STORAGE.get().get(key);
     }
 
     @Override
-    public void removeSession() {
-        Class<?> caller = getCaller();
-        Map<Class<?>, DatabaseSession> storage = SESSION_STORAGE.get();
+    public void removeSession(SessionKey key) {
+        Map<SessionKey, DatabaseSession> storage = SESSION_STORAGE.get();
 
-        DatabaseSession session = storage.remove(caller);
+        DatabaseSession session = storage.remove(key);
 
         if (session != null) {
             session.rollbackIfActive();
             session.close();
         }
 
-        if (session != null && storage.isEmpty()) {
+        if (storage.isEmpty()) {
             SESSION_STORAGE.remove();
         }
     }
 
     @Override
-    public void addSession(DatabaseSession databaseSession, Class<?> owners) {
-        Map<Class<?>, DatabaseSession> storage = SESSION_STORAGE.get();
-        storage.put(getCaller(), databaseSession);
-        if (owners != null) {
-            storage.put(owners, databaseSession);
+    public void addSession(SessionKey key, DatabaseSession databaseSession) {
+        if (key == null) {
+            throw new IllegalArgumentException("A chave da sessao deve ser informada.");
         }
-    }
-
-    private Class<?> getCaller(){
-        Class<?> currentClass = this.getClass();
-        return StackWalker
-                .getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE)
-                .walk(frames -> {
-                    return frames.map(StackWalker.StackFrame::getDeclaringClass)
-                            .filter(clazz -> !clazz.equals(currentClass))
-                            .findFirst()
-                            .orElseThrow(() -> new IllegalStateException("Falha na sincronizacao: Nao foi possivel identificar a origem da chamada (Caller Class).")
-                    );
-                });
+        SESSION_STORAGE.get().put(key, databaseSession);
     }
 }
@@ -0,0 +1,143 @@
+package dtm.database.repository.sessions.imple;
+
+import dtm.database.repository.sessions.DatabaseSession;
+import dtm.database.repository.sessions.DatabaseSessionSynchronizationContext;
+import dtm.database.repository.sessions.SessionKey;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Contexto de sessoes baseado em escopos imutaveis encadeados, guardados em um {@link ThreadLocal} estatico.
+ * <p>
+ * A primeira consulta feita por uma thread cria a entrada do {@code ThreadLocal} com valor {@code null}, como em
+ * qualquer {@code ThreadLocal}; o escopo em si so existe entre o vinculo e o desvinculo da sessao, e a entrada e
+ * removida quando a ultima sessao e desvinculada. Nada e propagado automaticamente: o escopo nunca e herdado por
+ * threads criadas durante a transacao, pois o {@code EntityManager} nao e thread-safe. O {@link SessionCarrier},
+ * obtido com {@link #capture()}, e a unica forma de uma subtarefa participar da transacao.
+ */
+public class ScopedDatabaseSessionSynchronizationContext implements DatabaseSessionSynchronizationContext {
+
+    private static final ThreadLocal<SessionScope> CURRENT_SCOPE = new ThreadLocal<>();
+
+    @Override
+    public boolean hasSession(SessionKey key) {
+        DatabaseSession databaseSession = getSession(key);
+        if(databaseSession == null) return false;
+        return databaseSession.isValidSession();
+    }
+
+    @Override
+    public DatabaseSession getSession(SessionKey key) {
+        SessionScope scope = CURRENT_SCOPE.get();
+        return (scope != null) ? scope.find(key) : null;
+    }
+
+    @Override
+    public void removeSession(SessionKey key) {
+        SessionScope scope = CURRENT_SCOPE.get();
+        if (scope == null) return;
+
+        DatabaseSession session = scope.find(key);
+        bind(scope.without(key));
+
+        if (session != null) {
+            session.rollbackIfActive();
+            session.close();
+        }
+    }
+
+    @Override
+    public void addSession(SessionKey key, DatabaseSession databaseSession) {
+        if (key == null) {
+            throw new IllegalArgumentException("A chave da sessao deve ser informada.");
+        }
+        SessionScope scope = CURRENT_SCOPE.get();
+        SessionScope parent = (scope != null) ? scope.without(key) : null;
+        CURRENT_SCOPE.set(new SessionScope(key, databaseSession, parent, new ReentrantLock()));
+    }
+
+    /**
+     * Captura o escopo vigente para repassa-lo a subtarefas estruturadas, por exemplo
+     * {@code scope.fork(carrier.wrap(() -> repository.findByStatus(status)))}. A subtarefa deve terminar antes da
+     * fronteira {@code @Transactional} que abriu a sessao, o que o {@code join()} do escopo estruturado garante.
+     */
+    public static SessionCarrier capture() {
+        return new SessionCarrier(CURRENT_SCOPE.get());
+    }
+
+    private static void bind(SessionScope scope) {
+        if (scope == null) {
+            CURRENT_SCOPE.remove();
+        } else {
+            CURRENT_SCOPE.set(scope);
+        }
+    }
+
+    /**
+     * Escopo capturado de uma transacao. Cada execucao vincula o escopo a thread da subtarefa apenas durante a
+     * chamada e restaura o vinculo anterior ao final. As subtarefas que compartilham o mesmo escopo sao executadas
+     * uma por vez, ja que usam o mesmo {@code EntityManager}.
+     */
+    public static final class SessionCarrier {
+
+        private final SessionScope scope;
+
+        private SessionCarrier(SessionScope scope) {
+            this.scope = scope;
+        }
+
+        public <T> T call(Callable<T> task) throws Exception {
+            if (scope == null) {
+                return task.call();
+            }
+
+            scope.lock().lock();
+            SessionScope previous = CURRENT_SCOPE.get();
+            try {
+                CURRENT_SCOPE.set(scope);
+                return task.call();
+            } finally {
+                bind(previous);
+                scope.lock().unlock();
+            }
+        }
+
+        public void run(Runnable task) {
+            if (scope == null) {
+                task.run();
+                return;
+            }
+
+            scope.lock().lock();
+            SessionScope previous = CURRENT_SCOPE.get();
+            try {
+                CURRENT_SCOPE.set(scope);
+                task.run();
+            } finally {
+                bind(previous);
+                scope.lock().unlock();
+            }
+        }
+
+        public <T> Callable<T> wrap(Callable<T> task) {
+            return () -> call(task);
+        }
+    }
+
+    private record SessionScope(SessionKey key, DatabaseSession session, SessionScope parent, ReentrantLock lock) {
+
+        DatabaseSession find(SessionKey target) {
+            for (SessionScope current = this; current != null; current = current.parent) {
+                if (current.key == target) return current.session;
+            }
+            return null;
+        }
+
+        SessionScope without(SessionKey target) {
+            if (key == target) return parent;
+            SessionScope newParent = (parent != null) ? parent.without(target) : null;
+            return (newParent == parent) ? this : new SessionScope(key, session, newParent, lock);
+        }
+    }
+}
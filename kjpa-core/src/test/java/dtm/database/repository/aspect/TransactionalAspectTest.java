@@ -0,0 +1,109 @@
+package dtm.database.repository.aspect;
+
+import dtm.database.repository.exceptions.UnexpectedRollbackException;
+import dtm.database.repository.prototype.datasource.EntityManagerFactoryContext;
+import dtm.database.repository.sessions.SessionKey;
+import dtm.database.repository.sessions.imple.DatabaseSessionSynchronizationContextContextImple;
+import dtm.database.repository.support.Cliente;
+import dtm.database.repository.support.TestDatabase;
+import dtm.database.repository.support.TestRepositoryContext;
+import dtm.di.prototypes.LazyDependency;
+import dtm.di.prototypes.async.AsyncComponent;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionalAspectTest {
+
+    private EntityManagerFactory emf;
+    private DatabaseSessionSynchronizationContextContextImple sessionContext;
+    private TransactionalAspect aspect;
+    private Method outer;
+    private Method inner;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws NoSuchMethodException {
+        emf = TestDatabase.create(1);
+        sessionContext = new DatabaseSessionSynchronizationContextContextImple();
+
+        AsyncComponent<EntityManagerFactoryContext> contextAsync = new TestRepositoryContext(emf, 1).asAsyncComponent();
+        LazyDependency<AsyncComponent<EntityManagerFactoryContext>> lazy = mock(LazyDependency.class);
+        when(lazy.isPresent()).thenReturn(true);
+        when(lazy.get()).thenReturn(contextAsync);
+
+        aspect = new TransactionalAspect(sessionContext, lazy);
+        outer = Servico.class.getDeclaredMethod("registrar");
+        inner = Servico.class.getDeclaredMethod("auditar");
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionContext.removeSession(SessionKey.TRANSACTIONAL);
+        emf.close();
+    }
+
+    @Test
+    void nestedBoundaryCommitsOnlyAtOutermost() {
+        aspect.aspectBefore(outer);
+        persist(new Cliente("ana", 30));
+
+        aspect.aspectBefore(inner);
+        persist(new Cliente("bruno", 40));
+        aspect.aspectAfter(inner);
+        assertEquals(0, TestDatabase.count(emf));
+
+        aspect.aspectAfter(outer);
+        assertEquals(2, TestDatabase.count(emf));
+        assertFalse(sessionContext.hasSession(SessionKey.TRANSACTIONAL));
+    }
+
+    @Test
+    void nestedFailureRollsBackOuterBoundary() {
+        aspect.aspectBefore(outer);
+        persist(new Cliente("ana", 30));
+
+        aspect.aspectBefore(inner);
+        aspect.aspectException(inner);
+
+        assertThrows(UnexpectedRollbackException.class, () -> aspect.aspectAfter(outer));
+        assertEquals(0, TestDatabase.count(emf));
+        assertFalse(sessionContext.hasSession(SessionKey.TRANSACTIONAL));
+    }
+
+    @Test
+    void failureAtOutermostRollsBack() {
+        aspect.aspectBefore(outer);
+        persist(new Cliente("ana", 30));
+
+        aspect.aspectException(outer);
+
+        assertEquals(0, TestDatabase.count(emf));
+        assertFalse(sessionContext.hasSession(SessionKey.TRANSACTIONAL));
+    }
+
+    private void persist(Cliente cliente) {
+        sessionContext.getSession(SessionKey.TRANSACTIONAL).getEntityManager().persist(cliente);
+    }
+
+    static class Servico {
+
+        @Transactional
+        void registrar() {
+        }
+
+        @Transactional
+        void auditar() {
+        }
+    }
+}
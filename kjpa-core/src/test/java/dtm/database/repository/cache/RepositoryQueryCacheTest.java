@@ -0,0 +1,117 @@
+package dtm.database.repository.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RepositoryQueryCacheTest {
+
+    private static final Object[] ARGS = {"ativo"};
+
+    private final RepositoryQueryCache cache = new RepositoryQueryCache(100);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void secondCallIsServedFromCache() {
+        assertEquals("resultado-1", load(ARGS, 60_000));
+        assertEquals("resultado-1", load(ARGS, 60_000));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStatistics().hits());
+        assertEquals(1, cache.getStatistics().misses());
+    }
+
+    @Test
+    void differentArgumentsAreCachedSeparately() {
+        load(new Object[]{"ativo"}, 60_000);
+        load(new Object[]{"inativo"}, 60_000);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void nullResultsAreCached() {
+        Supplier<Object> loader = () -> {
+            loads.incrementAndGet();
+            return null;
+        };
+
+        assertNull(cache.getOrLoad(String.class, List.class, "findNada", ARGS, 60_000, loader, Function.identity(), Function.identity()));
+        assertNull(cache.getOrLoad(String.class, List.class, "findNada", ARGS, 60_000, loader, Function.identity(), Function.identity()));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidateDiscardsEntriesOfTheEntity() {
+        load(ARGS, 60_000);
+        cache.invalidate(String.class);
+
+        assertEquals("resultado-2", load(ARGS, 60_000));
+    }
+
+    @Test
+    void invalidateOfAnotherEntityKeepsEntries() {
+        load(ARGS, 60_000);
+        cache.invalidate(Integer.class);
+
+        assertEquals("resultado-1", load(ARGS, 60_000));
+    }
+
+    @Test
+    void invalidationDuringLoadIsNotServed() {
+        Supplier<String> loader = () -> {
+            cache.invalidate(String.class);
+            return "resultado-" + loads.incrementAndGet();
+        };
+
+        cache.getOrLoad(String.class, List.class, "findAtivos", ARGS, 60_000, loader, Function.identity(), Function.identity());
+
+        assertEquals("resultado-2", load(ARGS, 60_000));
+    }
+
+    @Test
+    void expiredEntriesAreReloaded() throws InterruptedException {
+        load(ARGS, 1);
+        Thread.sleep(5);
+
+        assertEquals("resultado-2", load(ARGS, 1));
+    }
+
+    @Test
+    void storedFormIsConvertedOnEveryHit() {
+        Function<String, Integer> toCached = String::length;
+        Function<Integer, String> fromCached = length -> "tamanho-" + length;
+
+        String loaded = cache.getOrLoad(String.class, List.class, "findAtivos", ARGS, 60_000, () -> "abc", toCached, fromCached);
+        String cached = cache.getOrLoad(String.class, List.class, "findAtivos", ARGS, 60_000, () -> "nao usado", toCached, fromCached);
+
+        assertEquals("abc", loaded);
+        assertEquals("tamanho-3", cached);
+    }
+
+    @Test
+    void ttlBelowOneMillisecondIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> load(ARGS, 0));
+    }
+
+    private String load(Object[] args, long ttlMillis) {
+        return cache.getOrLoad(
+                String.class,
+                List.class,
+                "findAtivos",
+                args,
+                ttlMillis,
+                () -> "resultado-" + loads.incrementAndGet(),
+                Function.identity(),
+                Function.identity()
+        );
+    }
+}
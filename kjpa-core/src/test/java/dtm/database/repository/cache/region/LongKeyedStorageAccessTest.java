@@ -0,0 +1,73 @@
+package dtm.database.repository.cache.region;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongKeyedStorageAccessTest {
+
+    @Test
+    void integralKeysOfAnyTypeShareTheSameEntry() {
+        LongKeyedStorageAccess storage = new LongKeyedStorageAccess(100);
+
+        storage.putIntoCache(7L, "cliente-7", null);
+
+        assertEquals("cliente-7", storage.getFromCache(7L, null));
+        assertEquals("cliente-7", storage.getFromCache(7, null));
+        assertTrue(storage.contains((short) 7));
+    }
+
+    @Test
+    void nonIntegralKeysAreDelegatedToFallback() {
+        LongKeyedStorageAccess storage = new LongKeyedStorageAccess(100);
+
+        storage.putIntoCache("BR", "Brasil", null);
+
+        assertEquals("Brasil", storage.getFromCache("BR", null));
+        storage.evictData("BR");
+        assertNull(storage.getFromCache("BR", null));
+    }
+
+    @Test
+    void regionNeverGrowsBeyondItsCapacity() {
+        LongKeyedStorageAccess storage = new LongKeyedStorageAccess(32);
+
+        LongStream.rangeClosed(1, 1_000).forEach(id -> storage.putIntoCache(id, "cliente-" + id, null));
+
+        long cached = LongStream.rangeClosed(1, 1_000).filter(storage::contains).count();
+        assertTrue(cached > 0);
+        assertTrue(cached <= 32, "entradas em cache: " + cached);
+        assertTrue(storage.contains(1_000L));
+    }
+
+    @Test
+    void remainingKeysAreFoundAfterRemoval() {
+        LongKeyedStorageAccess storage = new LongKeyedStorageAccess(1_024);
+        LongStream.rangeClosed(1, 500).forEach(id -> storage.putIntoCache(id, "cliente-" + id, null));
+
+        LongStream.rangeClosed(1, 500).filter(id -> id % 3 == 0).forEach(storage::evictData);
+
+        LongStream.rangeClosed(1, 500).forEach(id -> {
+            if (id % 3 == 0) {
+                assertFalse(storage.contains(id), "removido: " + id);
+            } else {
+                assertEquals("cliente-" + id, storage.getFromCache(id, null));
+            }
+        });
+    }
+
+    @Test
+    void evictDataClearsEveryEntry() {
+        LongKeyedStorageAccess storage = new LongKeyedStorageAccess(100);
+        LongStream.rangeClosed(1, 50).forEach(id -> storage.putIntoCache(id, "cliente-" + id, null));
+
+        storage.evictData();
+
+        assertEquals(0, LongStream.rangeClosed(1, 50).filter(storage::contains).count());
+    }
+}
@@ -0,0 +1,39 @@
+package dtm.database.repository.config;
+
+import dtm.database.repository.exceptions.DatabaseInitializationException;
+import dtm.database.repository.prototype.datasource.SimpleDatabaseConfiguration;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HibernateConfigurationTest {
+
+    private final HibernateConfiguration hibernateConfiguration = new HibernateConfiguration();
+
+    @Test
+    void rejectsAsyncConcurrencyThatTakesTheWholePool() {
+        SimpleDatabaseConfiguration configuration = h2()
+                .withMaximumPoolSize(10)
+                .withAsyncMaxConcurrency(10);
+
+        assertThrows(DatabaseInitializationException.class, () -> hibernateConfiguration.createSessionFactory(null, configuration));
+    }
+
+    @Test
+    void rejectsAsyncConcurrencyBelowOne() {
+        SimpleDatabaseConfiguration configuration = h2().withAsyncMaxConcurrency(0);
+
+        assertThrows(DatabaseInitializationException.class, () -> hibernateConfiguration.createSessionFactory(null, configuration));
+    }
+
+    @Test
+    void rejectsDefaultAsyncConcurrencyWithSmallerPool() {
+        SimpleDatabaseConfiguration configuration = h2().withMaximumPoolSize(8);
+
+        assertThrows(DatabaseInitializationException.class, () -> hibernateConfiguration.createSessionFactory(null, configuration));
+    }
+
+    private static SimpleDatabaseConfiguration h2() {
+        return new SimpleDatabaseConfiguration("org.h2.Driver", "jdbc:h2:mem:kjpa", "sa", "", "org.hibernate.dialect.H2Dialect");
+    }
+}
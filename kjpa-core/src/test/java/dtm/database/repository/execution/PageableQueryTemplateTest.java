@@ -0,0 +1,104 @@
+package dtm.database.repository.execution;
+
+import dtm.database.repository.exceptions.InvalidQueryOperationException;
+import dtm.database.repository.pagination.Sort;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageableQueryTemplateTest {
+
+    @Test
+    void selectWithoutSortKeepsOriginalOrder() {
+        PageableQueryTemplate template = new PageableQueryTemplate("findAtivos", "SELECT c FROM Cliente c WHERE c.ativo = true ORDER BY c.nome", false);
+
+        assertEquals("SELECT c FROM Cliente c WHERE c.ativo = true ORDER BY c.nome", template.select(Sort.unsorted(), null, false));
+    }
+
+    @Test
+    void selectAppendsSortAfterOriginalOrder() {
+        PageableQueryTemplate template = new PageableQueryTemplate("findAtivos", "SELECT c FROM Cliente c ORDER BY c.nome", false);
+
+        assertEquals(
+                "SELECT c FROM Cliente c ORDER BY c.nome, c.idade DESC",
+                template.select(Sort.by(Sort.Direction.DESC, "idade"), null, false)
+        );
+    }
+
+    @Test
+    void keysetFirstPageOrdersByIdentifier() {
+        PageableQueryTemplate template = new PageableQueryTemplate("findAtivos", "SELECT c FROM Cliente c WHERE c.ativo = true", false);
+
+        assertEquals("SELECT c FROM Cliente c WHERE c.ativo = true ORDER BY c.id ASC", template.select(Sort.unsorted(), "id", false));
+    }
+
+    @Test
+    void keysetCursorIsCombinedWithExistingCriteria() {
+        PageableQueryTemplate template = new PageableQueryTemplate("findAtivos", "SELECT c FROM Cliente c WHERE c.ativo = true OR c.idade > 18", false);
+
+        assertEquals(
+                "SELECT c FROM Cliente c WHERE (c.ativo = true OR c.idade > 18) AND c.id > :" + PageableQueryTemplate.KEYSET_PARAMETER + " ORDER BY c.id ASC",
+                template.select(Sort.unsorted(), "id", true)
+        );
+    }
+
+    @Test
+    void keysetCursorWithoutCriteriaAddsWhere() {
+        PageableQueryTemplate template = new PageableQueryTemplate("findAll", "SELECT c FROM Cliente c", false);
+
+        assertEquals(
+                "SELECT c FROM Cliente c WHERE c.id > :" + PageableQueryTemplate.KEYSET_PARAMETER + " ORDER BY c.id ASC",
+                template.select(Sort.unsorted(), "id", true)
+        );
+    }
+
+    @Test
+    void keysetRejectsSort() {
+        PageableQueryTemplate template = new PageableQueryTemplate("findAll", "SELECT c FROM Cliente c", false);
+
+        assertThrows(InvalidQueryOperationException.class, () -> template.select(Sort.by("nome"), "id", false));
+    }
+
+    @Test
+    void keysetRejectsQueryWithOrderBy() {
+        PageableQueryTemplate template = new PageableQueryTemplate("findAll", "SELECT c FROM Cliente c ORDER BY c.nome", false);
+
+        assertThrows(InvalidQueryOperationException.class, () -> template.select(Sort.unsorted(), "id", false));
+    }
+
+    @Test
+    void sortOnNativeQueryIsRejected() {
+        PageableQueryTemplate template = new PageableQueryTemplate("findAll", "SELECT * FROM cliente", true);
+
+        assertThrows(InvalidQueryOperationException.class, () -> template.select(Sort.by("nome"), null, false));
+    }
+
+    @Test
+    void countDropsOrderBy() {
+        PageableQueryTemplate template = new PageableQueryTemplate("findAtivos", "SELECT c FROM Cliente c WHERE c.ativo = true ORDER BY c.nome", false);
+
+        assertEquals("SELECT COUNT(c) FROM Cliente c WHERE c.ativo = true", template.count());
+    }
+
+    @Test
+    void countStripsFetchAndCountsDistinctRoots() {
+        PageableQueryTemplate template = new PageableQueryTemplate("findComPedidos", "SELECT c FROM Cliente c JOIN FETCH c.pedidos p WHERE p.valor > 10", false);
+
+        assertEquals("SELECT COUNT(DISTINCT c) FROM Cliente c JOIN c.pedidos p WHERE p.valor > 10", template.count());
+    }
+
+    @Test
+    void countKeepsDistinct() {
+        PageableQueryTemplate template = new PageableQueryTemplate("findDistintos", "SELECT DISTINCT c FROM Cliente c JOIN c.pedidos p", false);
+
+        assertEquals("SELECT COUNT(DISTINCT c) FROM Cliente c JOIN c.pedidos p", template.count());
+    }
+
+    @Test
+    void nativeCountWrapsQuery() {
+        PageableQueryTemplate template = new PageableQueryTemplate("findAll", "SELECT * FROM cliente ORDER BY nome", true);
+
+        assertEquals("SELECT COUNT(*) FROM (SELECT * FROM cliente) kjpa_count", template.count());
+    }
+}
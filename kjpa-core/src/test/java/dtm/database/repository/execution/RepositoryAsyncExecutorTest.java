@@ -0,0 +1,54 @@
+package dtm.database.repository.execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RepositoryAsyncExecutorTest {
+
+    @Test
+    void runningCallsNeverExceedMaxConcurrency() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (RepositoryAsyncExecutor executor = new RepositoryAsyncExecutor(2)) {
+            List<CompletableFuture<Integer>> calls = IntStream.range(0, 6)
+                    .mapToObj(i -> executor.submit(() -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        started.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        running.decrementAndGet();
+                        return i;
+                    }))
+                    .toList();
+
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertEquals(0, executor.availablePermits());
+
+            release.countDown();
+            assertEquals(List.of(0, 1, 2, 3, 4, 5), calls.stream().map(CompletableFuture::join).toList());
+            assertEquals(2, maxRunning.get());
+            assertEquals(2, executor.availablePermits());
+        }
+    }
+
+    @Test
+    void rejectsConcurrencyBelowOne() {
+        assertThrows(IllegalArgumentException.class, () -> new RepositoryAsyncExecutor(0));
+    }
+}
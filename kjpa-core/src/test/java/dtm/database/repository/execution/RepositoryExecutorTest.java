@@ -0,0 +1,521 @@
+package dtm.database.repository.execution;
+
+import dtm.database.repository.cache.RepositoryQueryCache;
+import dtm.database.repository.exceptions.InvalidQueryOperationException;
+import dtm.database.repository.metrics.KjpaMetrics;
+import dtm.database.repository.metrics.OperationMetrics;
+import dtm.database.repository.pagination.Page;
+import dtm.database.repository.pagination.Pageable;
+import dtm.database.repository.pagination.Slice;
+import dtm.database.repository.pagination.Sort;
+import dtm.database.repository.prototype.OperationType;
+import dtm.database.repository.prototype.RepositoryMetainfo;
+import dtm.database.repository.prototype.ReturnStrategy;
+import dtm.database.repository.sessions.DatabaseSession;
+import dtm.database.repository.sessions.SessionKey;
+import dtm.database.repository.sessions.imple.DatabaseSessionSynchronizationContextContextImple;
+import dtm.database.repository.support.Cliente;
+import dtm.database.repository.support.ClienteRepository;
+import dtm.database.repository.support.Pedido;
+import dtm.database.repository.support.RecordingStatementInspector;
+import dtm.database.repository.support.TestDatabase;
+import dtm.database.repository.support.TestRepositoryContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceUnitUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RepositoryExecutorTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final String SELECT_ALL = "SELECT c FROM Cliente c ORDER BY c.id";
+
+    private final RecordingStatementInspector statements = new RecordingStatementInspector();
+    private EntityManagerFactory emf;
+    private TestRepositoryContext context;
+    private RepositoryQueryCache queryCache;
+    private DatabaseSessionSynchronizationContextContextImple sessionContext;
+    private RepositoryExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        emf = TestDatabase.create(BATCH_SIZE, statements);
+        queryCache = new RepositoryQueryCache(100);
+        sessionContext = new DatabaseSessionSynchronizationContextContextImple();
+        context = new TestRepositoryContext(emf, BATCH_SIZE).withQueryCache(queryCache);
+        executor = new RepositoryExecutor(ClienteRepository.class, sessionContext, context.asAsyncComponent());
+    }
+
+    @AfterEach
+    void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    void saveAllFlushesAndClearsEveryBatch() {
+        List<Cliente> clientes = IntStream.range(0, 5)
+                .mapToObj(i -> new Cliente("cliente-" + i, 20 + i))
+                .toList();
+
+        inTransaction(session -> {
+            List<?> saved = (List<?>) executor.execute(invoker(OperationType.SAVE_ALL, "", ReturnStrategy.COLLECTION, 0), new Object[]{clientes});
+
+            EntityManager em = session.getEntityManager();
+            assertEquals(5, saved.size());
+            assertFalse(em.contains(clientes.get(0)));
+            assertFalse(em.contains(clientes.get(3)));
+            assertTrue(em.contains(clientes.get(4)));
+            return null;
+        });
+
+        assertEquals(5, TestDatabase.count(emf));
+        clientes.forEach(cliente -> assertNotNull(cliente.getId()));
+    }
+
+    @Test
+    void saveAllMergesDetachedEntities() {
+        Cliente existente = TestDatabase.insert(emf, new Cliente("antigo", 40)).getFirst();
+        existente.setNome("renomeado");
+
+        inTransaction(session -> executor.execute(
+                invoker(OperationType.SAVE_ALL, "", ReturnStrategy.COLLECTION, 0),
+                new Object[]{List.of(existente, new Cliente("novo", 18))}
+        ));
+
+        assertEquals(2, TestDatabase.count(emf));
+        assertEquals("renomeado", TestDatabase.find(emf, existente.getId()).getNome());
+    }
+
+    @Test
+    void saveNewEntityPersistsSameInstanceWithoutLoadingIt() {
+        Cliente cliente = new Cliente("novo", 30);
+        RepositoryMethodInvoker save = invoker(OperationType.SAVE, "", ReturnStrategy.SINGLE_ENTITY, 0);
+
+        inTransaction(session -> {
+            assertSame(cliente, executor.execute(save, new Object[]{cliente}));
+            assertTrue(session.getEntityManager().contains(cliente));
+            return null;
+        });
+
+        assertNotNull(cliente.getId());
+        assertTrue(statements.getStatements().stream().noneMatch(sql -> sql.startsWith("select") && sql.contains(" from cliente ")));
+        assertEquals(1, statements.startingWith("insert").size());
+    }
+
+    @Test
+    void saveDetachedEntityMergesIntoManagedCopy() {
+        Cliente existente = TestDatabase.insert(emf, new Cliente("antigo", 40)).getFirst();
+        existente.setNome("renomeado");
+        RepositoryMethodInvoker save = invoker(OperationType.SAVE, "", ReturnStrategy.SINGLE_ENTITY, 0);
+
+        inTransaction(session -> {
+            Object saved = executor.execute(save, new Object[]{existente});
+            EntityManager em = session.getEntityManager();
+            assertNotSame(existente, saved);
+            assertTrue(em.contains(saved));
+            assertFalse(em.contains(existente));
+            return null;
+        });
+
+        assertEquals("renomeado", TestDatabase.find(emf, existente.getId()).getNome());
+    }
+
+    @Test
+    void countReturnsNumberOfRows() {
+        insertClientes(3);
+
+        Object count = executor.execute(
+                invoker(OperationType.COUNT, "SELECT COUNT(e) FROM Cliente e", ReturnStrategy.PRIMITIVE, Long.class, Map.of(), 0),
+                RepositoryExecutor.NO_ARGS
+        );
+
+        assertEquals(3L, count);
+    }
+
+    @Test
+    void existsByReadsAtMostOneRowWithoutCounting() {
+        insertClientes(3);
+        RepositoryMethodInvoker existsByIdade = invoker(
+                OperationType.EXISTS, "SELECT 1 FROM Cliente e WHERE e.idade >= :idade", ReturnStrategy.PRIMITIVE, Integer.class, Map.of(0, "idade"), 0
+        );
+        statements.clear();
+
+        assertEquals(true, executor.execute(existsByIdade, new Object[]{21}));
+        assertEquals(false, executor.execute(existsByIdade, new Object[]{99}));
+
+        List<String> selects = statements.startingWith("select");
+        assertEquals(2, selects.size());
+        selects.forEach(sql -> {
+            assertFalse(sql.contains("count("), sql);
+            assertTrue(sql.contains(" fetch first ") || sql.contains(" limit "), sql);
+        });
+    }
+
+    @Test
+    void existsByIdChecksSingleIdentifier() {
+        Long id = insertClientes(1).getFirst().getId();
+        RepositoryMethodInvoker existsById = invoker(
+                OperationType.EXISTS, "SELECT 1 FROM Cliente e WHERE e.id = :id", ReturnStrategy.PRIMITIVE, Integer.class, Map.of(0, "id"), 0
+        );
+
+        assertEquals(true, executor.execute(existsById, new Object[]{id}));
+        assertEquals(false, executor.execute(existsById, new Object[]{id + 1}));
+    }
+
+    @Test
+    void streamOutsideTransactionClearsItsSessionEveryBatch() {
+        insertClientes(5);
+        RepositoryMethodInvoker findAll = invoker(OperationType.QUERY, SELECT_ALL, ReturnStrategy.STREAM, 0);
+
+        DatabaseSession streamSession;
+        try (Stream<?> rows = (Stream<?>) executor.execute(findAll, RepositoryExecutor.NO_ARGS)) {
+            Iterator<?> iterator = rows.iterator();
+            streamSession = context.getLastOpenedSession();
+            EntityManager em = streamSession.getEntityManager();
+
+            Cliente first = (Cliente) iterator.next();
+            assertTrue(em.contains(first));
+            iterator.next();
+            assertFalse(em.contains(first));
+
+            Cliente third = (Cliente) iterator.next();
+            assertTrue(em.contains(third));
+            assertTrue(streamSession.isValidSession());
+        }
+
+        assertFalse(streamSession.isValidSession());
+    }
+
+    @Test
+    void streamInsideTransactionFlushesChangesBeforeDetaching() {
+        List<Long> ids = ids(insertClientes(5));
+        RepositoryMethodInvoker findAll = invoker(OperationType.QUERY, SELECT_ALL, ReturnStrategy.STREAM, 0);
+
+        inTransaction(session -> {
+            try (Stream<?> rows = (Stream<?>) executor.execute(findAll, RepositoryExecutor.NO_ARGS)) {
+                rows.forEach(row -> ((Cliente) row).setNome("fechado"));
+            }
+            assertTrue(session.isValidSession());
+            return null;
+        });
+
+        ids.forEach(id -> assertEquals("fechado", TestDatabase.find(emf, id).getNome()));
+    }
+
+    @Test
+    void keysetPaginationWalksAllRowsInIdentifierOrder() {
+        List<Long> expected = insertClientes(5).stream().map(Cliente::getId).sorted().toList();
+        RepositoryMethodInvoker findAll = invoker(OperationType.QUERY, "SELECT c FROM Cliente c", ReturnStrategy.SLICE, 0);
+
+        List<Long> visited = new ArrayList<>();
+        Pageable pageable = Pageable.keyset(2);
+        while (pageable != null) {
+            Slice<?> slice = (Slice<?>) executor.execute(findAll, new Object[]{pageable});
+            slice.getContent().forEach(cliente -> visited.add(((Cliente) cliente).getId()));
+            pageable = slice.nextPageable();
+        }
+
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void keysetPaginationRejectsSort() {
+        insertClientes(3);
+        RepositoryMethodInvoker findAll = invoker(OperationType.QUERY, "SELECT c FROM Cliente c", ReturnStrategy.SLICE, 0);
+
+        assertThrows(
+                InvalidQueryOperationException.class,
+                () -> executor.execute(findAll, new Object[]{Pageable.keyset(2), Sort.by("nome")})
+        );
+    }
+
+    @Test
+    void offsetPageCountsTotalWhenMoreRowsExist() {
+        insertClientes(5);
+        RepositoryMethodInvoker findAll = invoker(OperationType.QUERY, SELECT_ALL, ReturnStrategy.PAGE, 0);
+
+        Page<?> page = (Page<?>) executor.execute(findAll, new Object[]{Pageable.of(1, 2)});
+
+        assertEquals(2, page.getContent().size());
+        assertEquals(5, page.getTotalElements());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    void pageableIsPassedOutsideTheBinder() {
+        insertClientes(5);
+        RepositoryMethodInvoker findByIdade = invoker(
+                OperationType.QUERY, "SELECT c FROM Cliente c WHERE c.idade >= :idade ORDER BY c.id", ReturnStrategy.PAGE, Cliente.class, Map.of(0, "idade"), 0
+        );
+
+        Page<?> page = (Page<?>) executor.execute(findByIdade, Pageable.of(0, 2), null, query -> query.setParameter("idade", 22));
+
+        assertEquals(2, page.getContent().size());
+        assertEquals(3, page.getTotalElements());
+    }
+
+    @Test
+    void findAllByIdFollowsRequestedOrderAndSkipsMissingIds() {
+        List<Long> ids = ids(insertClientes(3));
+        RepositoryMethodInvoker findAllById = invoker(OperationType.FIND_ALL_BY_ID, "", ReturnStrategy.COLLECTION, Cliente.class, Map.of(0, "ids"), 0);
+
+        List<?> found = (List<?>) executor.execute(findAllById, new Object[]{List.of(ids.get(2), -1L, ids.get(0), ids.get(2))});
+
+        assertEquals(List.of(ids.get(2), ids.get(0)), ids(found));
+    }
+
+    @Test
+    void findAllByIdAsMapKeysEntitiesByRequestedId() {
+        List<Long> ids = ids(insertClientes(3));
+        RepositoryMethodInvoker findAllByIdAsMap = invoker(OperationType.FIND_ALL_BY_ID, "", ReturnStrategy.MAP, Cliente.class, Map.of(0, "ids"), 0);
+
+        Map<?, ?> found = (Map<?, ?>) executor.execute(findAllByIdAsMap, new Object[]{List.of(ids.get(1), -1L, ids.get(0))});
+
+        assertEquals(List.of(ids.get(1), ids.get(0)), List.copyOf(found.keySet()));
+        assertEquals(ids.get(1), ((Cliente) found.get(ids.get(1))).getId());
+    }
+
+    @Test
+    void deleteAllByIdSplitsLargeCollectionsIntoChunks() {
+        List<Long> existing = ids(insertClientes(3));
+        List<Long> ids = new ArrayList<>(existing);
+        LongStream.rangeClosed(1, 2_497).map(i -> -i).forEach(ids::add);
+        ids.add(existing.getFirst());
+        RepositoryMethodInvoker deleteAllById = invoker(
+                OperationType.DELETE_ALL_BY_ID, "DELETE FROM Cliente e WHERE e.id IN :ids", ReturnStrategy.VOID, Void.class, Map.of(0, "ids"), 0
+        );
+        assertTrue(emf.getCache().contains(Cliente.class, existing.getFirst()));
+        statements.clear();
+
+        executor.execute(deleteAllById, new Object[]{ids});
+
+        assertEquals(3, statements.startingWith("delete").size());
+        assertEquals(0, TestDatabase.count(emf));
+        existing.forEach(id -> assertFalse(emf.getCache().contains(Cliente.class, id)));
+    }
+
+    @Test
+    void findByIdIsServedBySecondLevelCache() {
+        Long id = insertClientes(1).getFirst().getId();
+        RepositoryMethodInvoker findById = invoker(OperationType.FIND_BY_ID, "", ReturnStrategy.OPTIONAL, Cliente.class, Map.of(0, "id"), 0);
+        emf.getCache().evictAll();
+        statements.clear();
+
+        Optional<?> first = (Optional<?>) executor.execute(findById, new Object[]{id});
+        assertEquals(1, statements.startingWith("select").size());
+
+        Optional<?> second = (Optional<?>) executor.execute(findById, new Object[]{id});
+        assertEquals(1, statements.startingWith("select").size());
+        assertTrue(emf.getCache().contains(Cliente.class, id));
+        assertNotSame(first.orElseThrow(), second.orElseThrow());
+    }
+
+    @Test
+    void lazyAssociationIsNotLoadedWithoutFetchGraph() {
+        insertPedido();
+        RepositoryMethodInvoker findPedidos = invoker(
+                OperationType.QUERY, "SELECT p FROM Pedido p", ReturnStrategy.COLLECTION, Pedido.class, Map.of(), 0
+        );
+
+        Pedido pedido = (Pedido) ((List<?>) executor.execute(findPedidos, RepositoryExecutor.NO_ARGS)).getFirst();
+
+        PersistenceUnitUtil persistenceUnitUtil = emf.getPersistenceUnitUtil();
+        assertFalse(persistenceUnitUtil.isLoaded(pedido, "cliente"));
+        assertTrue(persistenceUnitUtil.isLoaded(pedido, "vendedor"));
+    }
+
+    @Test
+    void fetchGraphLoadsPathsAndKeepsEagerAttributes() {
+        insertPedido();
+        RepositoryMethodInvoker findPedidos = invoker(
+                OperationType.QUERY, "SELECT p FROM Pedido p", ReturnStrategy.COLLECTION, Pedido.class, Map.of(), 0, List.of("cliente")
+        );
+
+        Pedido pedido = (Pedido) ((List<?>) executor.execute(findPedidos, RepositoryExecutor.NO_ARGS)).getFirst();
+
+        PersistenceUnitUtil persistenceUnitUtil = emf.getPersistenceUnitUtil();
+        assertTrue(persistenceUnitUtil.isLoaded(pedido, "cliente"));
+        assertTrue(persistenceUnitUtil.isLoaded(pedido.getCliente()));
+        assertTrue(persistenceUnitUtil.isLoaded(pedido, "vendedor"));
+    }
+
+    @Test
+    void cachedEntitiesAreReloadedInsteadOfShared() {
+        insertClientes(2);
+        RepositoryMethodInvoker findAll = invoker(OperationType.QUERY, SELECT_ALL, ReturnStrategy.COLLECTION, 60_000);
+
+        List<?> first = (List<?>) executor.execute(findAll, RepositoryExecutor.NO_ARGS);
+        List<?> second = (List<?>) executor.execute(findAll, RepositoryExecutor.NO_ARGS);
+
+        assertEquals(1, queryCache.getStatistics().hits());
+        assertEquals(ids(first), ids(second));
+        assertNotSame(first.getFirst(), second.getFirst());
+    }
+
+    @Test
+    void cachedEntitiesHitWithoutSql() {
+        insertClientes(3);
+        RepositoryMethodInvoker findAll = invoker(OperationType.QUERY, SELECT_ALL, ReturnStrategy.COLLECTION, 60_000);
+        List<?> loaded = (List<?>) executor.execute(findAll, RepositoryExecutor.NO_ARGS);
+        statements.clear();
+
+        List<?> cached = (List<?>) executor.execute(findAll, RepositoryExecutor.NO_ARGS);
+
+        assertEquals(1, queryCache.getStatistics().hits());
+        assertEquals(ids(loaded), ids(cached));
+        assertEquals(List.of(), statements.getStatements());
+    }
+
+    @Test
+    void writeInTransactionInvalidatesCacheAgainAfterCommit() {
+        insertClientes(1);
+        RepositoryMethodInvoker findAll = invoker(OperationType.QUERY, SELECT_ALL, ReturnStrategy.COLLECTION, 60_000);
+        RepositoryMethodInvoker save = invoker(OperationType.SAVE, "", ReturnStrategy.SINGLE_ENTITY, 0);
+
+        assertEquals(1, ((List<?>) executor.execute(findAll, RepositoryExecutor.NO_ARGS)).size());
+
+        inTransaction(session -> {
+            executor.execute(save, new Object[]{new Cliente("novo", 30)});
+
+            // leitura concorrente, fora da transacao, ainda enxerga o estado anterior ao commit e repopula o cache
+            List<?> concurrent = CompletableFuture
+                    .supplyAsync(() -> (List<?>) executor.execute(findAll, RepositoryExecutor.NO_ARGS))
+                    .join();
+            assertEquals(1, concurrent.size());
+            return null;
+        });
+
+        assertEquals(2, ((List<?>) executor.execute(findAll, RepositoryExecutor.NO_ARGS)).size());
+    }
+
+    @Test
+    void updateWritesDetachedEntityWithVersionCheck() {
+        Cliente cliente = TestDatabase.insert(emf, new Cliente("original", 25)).getFirst();
+        Long versaoInicial = cliente.getVersao();
+        RepositoryMethodInvoker update = invoker(OperationType.UPDATE, "", ReturnStrategy.SINGLE_ENTITY, 0);
+        emf.getCache().evictAll();
+        statements.clear();
+
+        cliente.setNome("atualizado");
+        inTransaction(session -> executor.execute(update, new Object[]{cliente}));
+
+        assertEquals(List.of(), statements.startingWith("select"));
+        Cliente persisted = TestDatabase.find(emf, cliente.getId());
+        assertEquals("atualizado", persisted.getNome());
+        assertEquals(versaoInicial + 1, persisted.getVersao());
+        assertEquals(persisted.getVersao(), cliente.getVersao());
+    }
+
+    @Test
+    void updateWithStaleVersionFails() {
+        Cliente cliente = TestDatabase.insert(emf, new Cliente("original", 25)).getFirst();
+        Cliente stale = TestDatabase.find(emf, cliente.getId());
+        RepositoryMethodInvoker update = invoker(OperationType.UPDATE, "", ReturnStrategy.SINGLE_ENTITY, 0);
+
+        cliente.setNome("primeira");
+        inTransaction(session -> executor.execute(update, new Object[]{cliente}));
+
+        stale.setNome("segunda");
+        assertThrows(OptimisticLockException.class, () -> inTransaction(session -> executor.execute(update, new Object[]{stale})));
+        assertEquals("primeira", TestDatabase.find(emf, cliente.getId()).getNome());
+    }
+
+    @Test
+    void overloadsAreRecordedSeparatelyInMetrics() {
+        KjpaMetrics metrics = new KjpaMetrics();
+        context.withMetrics(metrics);
+        insertClientes(3);
+        RepositoryMethodInvoker count = invoker(OperationType.COUNT, "SELECT COUNT(e) FROM Cliente e", ReturnStrategy.PRIMITIVE, Long.class, Map.of(), 0);
+        RepositoryMethodInvoker countAll = RepositoryMethodInvoker.of(count.metainfo(), "count[]");
+        RepositoryMethodInvoker countByIdade = RepositoryMethodInvoker.of(count.metainfo(), "count[int]");
+
+        executor.execute(countAll, RepositoryExecutor.NO_ARGS);
+        executor.execute(countByIdade, RepositoryExecutor.NO_ARGS);
+        executor.execute(countByIdade, RepositoryExecutor.NO_ARGS);
+
+        Map<String, Long> calls = metrics.getRepositoryMethods().stream()
+                .collect(Collectors.toMap(OperationMetrics::getName, OperationMetrics::getCalls));
+        assertEquals(Map.of("count[]", 1L, "count[int]", 2L), calls);
+    }
+
+    private List<Cliente> insertClientes(int quantity) {
+        return TestDatabase.insert(emf, IntStream.range(0, quantity)
+                .mapToObj(i -> new Cliente("cliente-" + i, 20 + i))
+                .toArray(Cliente[]::new));
+    }
+
+    private void insertPedido() {
+        List<Cliente> clientes = insertClientes(2);
+        TestDatabase.insert(emf, new Pedido(clientes.get(0), clientes.get(1)));
+        emf.getCache().evictAll();
+    }
+
+    private static List<Long> ids(List<?> clientes) {
+        return clientes.stream().map(cliente -> ((Cliente) cliente).getId()).toList();
+    }
+
+    private static RepositoryMethodInvoker invoker(OperationType operationType, String query, ReturnStrategy returnStrategy, long cacheTtlMillis) {
+        return invoker(operationType, query, returnStrategy, Cliente.class, Map.of(), cacheTtlMillis);
+    }
+
+    private static RepositoryMethodInvoker invoker(OperationType operationType, String query, ReturnStrategy returnStrategy, Class<?> resultType, Map<Integer, String> paramMap, long cacheTtlMillis) {
+        return invoker(operationType, query, returnStrategy, resultType, paramMap, cacheTtlMillis, List.of());
+    }
+
+    private static RepositoryMethodInvoker invoker(OperationType operationType, String query, ReturnStrategy returnStrategy, Class<?> resultType, Map<Integer, String> paramMap, long cacheTtlMillis, List<String> fetchGraph) {
+        return RepositoryMethodInvoker.of(new RepositoryMetainfo(
+                operationType.name().toLowerCase(),
+                operationType,
+                query,
+                false,
+                returnStrategy,
+                resultType,
+                paramMap,
+                false,
+                false,
+                cacheTtlMillis,
+                false,
+                0,
+                fetchGraph
+        ));
+    }
+
+    /**
+     * Reproduz a fronteira de um {@code @Transactional}: a sessao fica vinculada a thread durante a acao.
+     */
+    private <T> T inTransaction(Function<DatabaseSession, T> action) {
+        DatabaseSession session = context.createDatabaseSession();
+        session.beginTransaction();
+        sessionContext.addSession(SessionKey.TRANSACTIONAL, session);
+        try {
+            T result = action.apply(session);
+            session.commitIfActive();
+            return result;
+        } finally {
+            sessionContext.removeSession(SessionKey.TRANSACTIONAL);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package dtm.database.repository.generated;
+
+import dtm.database.repository.prototype.OperationType;
+import dtm.database.repository.prototype.RepositoryMetaInfoManager;
+import dtm.database.repository.prototype.RepositoryMetainfo;
+import dtm.database.repository.prototype.ReturnStrategy;
+import dtm.database.repository.support.Cliente;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Equivalente ao metadado gerado pelo processor para {@code ClienteConsultaRepository}: os metodos do
+ * {@code CrudRepository} sao indexados pelo nome e os derivados pela assinatura completa.
+ */
+public final class ClienteConsultaRepositoryMetaData implements RepositoryMetaInfoManager {
+
+    private static final ClienteConsultaRepositoryMetaData INSTANCE = new ClienteConsultaRepositoryMetaData();
+
+    private final Map<String, RepositoryMetainfo> methods = Map.of(
+            "findById", metainfo("findById", OperationType.FIND_BY_ID, "", ReturnStrategy.OPTIONAL, Map.of(0, "id")),
+            "findAll", metainfo("findAll", OperationType.FIND_ALL, "SELECT e FROM Cliente e ORDER BY e.id", ReturnStrategy.COLLECTION, Map.of()),
+            "findByNome[java.lang.String]", metainfo("findByNome[java.lang.String]", OperationType.QUERY, "SELECT e FROM Cliente e WHERE e.nome = :nome", ReturnStrategy.COLLECTION, Map.of(0, "nome"))
+    );
+
+    public static ClienteConsultaRepositoryMetaData getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public RepositoryMetainfo getByMethod(String methodName) {
+        return methods.get(methodName);
+    }
+
+    @Override
+    public Class<?> getEntityClass() {
+        return Cliente.class;
+    }
+
+    @Override
+    public Class<?> getIdClass() {
+        return Long.class;
+    }
+
+    @Override
+    public String getVersionAttribute() {
+        return "versao";
+    }
+
+    private static RepositoryMetainfo metainfo(String methodName, OperationType operationType, String query, ReturnStrategy returnStrategy, Map<Integer, String> paramMap) {
+        return new RepositoryMetainfo(methodName, operationType, query, false, returnStrategy, Cliente.class, paramMap, false, false, 0L, false, 0, List.of());
+    }
+}
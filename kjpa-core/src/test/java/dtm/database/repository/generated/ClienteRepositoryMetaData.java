@@ -0,0 +1,37 @@
+package dtm.database.repository.generated;
+
+import dtm.database.repository.prototype.RepositoryMetaInfoManager;
+import dtm.database.repository.prototype.RepositoryMetainfo;
+import dtm.database.repository.support.Cliente;
+
+/**
+ * Equivalente ao metadado gerado pelo processor para {@code ClienteRepository}; os testes montam os invokers diretamente.
+ */
+public final class ClienteRepositoryMetaData implements RepositoryMetaInfoManager {
+
+    private static final ClienteRepositoryMetaData INSTANCE = new ClienteRepositoryMetaData();
+
+    public static ClienteRepositoryMetaData getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public RepositoryMetainfo getByMethod(String methodName) {
+        return null;
+    }
+
+    @Override
+    public Class<?> getEntityClass() {
+        return Cliente.class;
+    }
+
+    @Override
+    public Class<?> getIdClass() {
+        return Long.class;
+    }
+
+    @Override
+    public String getVersionAttribute() {
+        return "versao";
+    }
+}
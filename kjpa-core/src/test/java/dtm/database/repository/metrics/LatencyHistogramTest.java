@@ -0,0 +1,55 @@
+package dtm.database.repository.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyHistogramTest {
+
+    @Test
+    void recordsEachDurationInTheFirstBucketThatContainsIt() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(300));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(30));
+        histogram.record(TimeUnit.SECONDS.toNanos(20));
+
+        long[] counts = histogram.cumulativeCounts();
+        assertEquals(LatencyHistogram.boundsSeconds().length + 1, counts.length);
+        assertArrayEquals(new long[]{1, 2, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 3, 3, 4}, counts);
+    }
+
+    @Test
+    void limitIsInclusive() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(500));
+
+        assertEquals(1, histogram.cumulativeCounts()[0]);
+    }
+
+    @Test
+    void sumsDurationsInSeconds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(250));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1750));
+
+        assertEquals(2.0, histogram.sumSeconds(), 1e-9);
+    }
+
+    @Test
+    void negativeDurationCountsInFirstBucketWithoutReducingTheSum() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        histogram.record(TimeUnit.SECONDS.toNanos(1));
+        histogram.record(-5);
+
+        assertEquals(1, histogram.cumulativeCounts()[0]);
+        assertEquals(1.0, histogram.sumSeconds(), 1e-9);
+    }
+}
@@ -0,0 +1,55 @@
+package dtm.database.repository.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrometheusTextFormatTest {
+
+    private static final String LABELS = "repository=\"ClienteRepository\",method=\"findByNome\"";
+
+    @Test
+    void writesCountersAndHistogramOfRepositoryMethods() {
+        KjpaMetrics metrics = new KjpaMetrics();
+        metrics.recordRepositoryCall(ClienteRepository.class, "findByNome", TimeUnit.MICROSECONDS.toNanos(300), false);
+        metrics.recordRepositoryCall(ClienteRepository.class, "findByNome", TimeUnit.MILLISECONDS.toNanos(2), true);
+
+        String text = PrometheusTextFormat.write(metrics);
+
+        assertTrue(text.contains("# TYPE kjpa_repository_calls_total counter\n"));
+        assertTrue(text.contains("kjpa_repository_calls_total{" + LABELS + "} 2\n"));
+        assertTrue(text.contains("kjpa_repository_errors_total{" + LABELS + "} 1\n"));
+        assertTrue(text.contains("# TYPE kjpa_repository_duration_seconds histogram\n"));
+        assertTrue(text.contains("kjpa_repository_duration_seconds_bucket{" + LABELS + ",le=\"0.0005\"} 1\n"));
+        assertTrue(text.contains("kjpa_repository_duration_seconds_bucket{" + LABELS + ",le=\"0.001\"} 1\n"));
+        assertTrue(text.contains("kjpa_repository_duration_seconds_bucket{" + LABELS + ",le=\"0.0025\"} 2\n"));
+        assertTrue(text.contains("kjpa_repository_duration_seconds_bucket{" + LABELS + ",le=\"+Inf\"} 2\n"));
+        assertTrue(text.contains("kjpa_repository_duration_seconds_sum{" + LABELS + "} 0.0023\n"));
+        assertTrue(text.contains("kjpa_repository_duration_seconds_count{" + LABELS + "} 2\n"));
+    }
+
+    @Test
+    void omitsPoolAndHibernateSectionsBeforeInitialization() {
+        String text = PrometheusTextFormat.write(new KjpaMetrics());
+
+        assertTrue(text.contains("# TYPE kjpa_repository_calls_total counter\n"));
+        assertFalse(text.contains("kjpa_pool_"));
+        assertFalse(text.contains("kjpa_hibernate_"));
+    }
+
+    @Test
+    void escapesLabelValues() {
+        KjpaMetrics metrics = new KjpaMetrics();
+        metrics.recordRepositoryCall(ClienteRepository.class, "find\"By\\Nome\n", 1, false);
+
+        String text = PrometheusTextFormat.write(metrics);
+
+        assertTrue(text.contains("method=\"find\\\"By\\\\Nome\\n\""));
+    }
+
+    private interface ClienteRepository {
+    }
+}
@@ -0,0 +1,61 @@
+package dtm.database.repository.proxy;
+
+import dtm.database.repository.sessions.imple.DatabaseSessionSynchronizationContextContextImple;
+import dtm.database.repository.support.Cliente;
+import dtm.database.repository.support.ClienteConsultaRepository;
+import dtm.database.repository.support.TestDatabase;
+import dtm.database.repository.support.TestRepositoryContext;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RepositoryInvocationHandlerTest {
+
+    private EntityManagerFactory emf;
+    private ClienteConsultaRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        emf = TestDatabase.create(1);
+        repository = ProxyDbUtils.createRepositoryProxy(
+                ClienteConsultaRepository.class,
+                null,
+                new DatabaseSessionSynchronizationContextContextImple(),
+                new TestRepositoryContext(emf, 1).asAsyncComponent()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        emf.close();
+    }
+
+    @Test
+    void redeclaredCrudMethodsResolveByName() {
+        List<Cliente> clientes = TestDatabase.insert(emf, new Cliente("ana", 30), new Cliente("bruno", 40));
+
+        Optional<Cliente> found = repository.findById(clientes.getFirst().getId());
+        List<Cliente> all = repository.findAll();
+
+        assertTrue(found.isPresent());
+        assertEquals("ana", found.get().getNome());
+        assertEquals(List.of("ana", "bruno"), all.stream().map(Cliente::getNome).toList());
+    }
+
+    @Test
+    void derivedMethodsResolveByFullSignature() {
+        TestDatabase.insert(emf, new Cliente("ana", 30), new Cliente("bruno", 40));
+
+        List<Cliente> found = repository.findByNome("bruno");
+
+        assertEquals(1, found.size());
+        assertEquals(40, found.getFirst().getIdade());
+    }
+}
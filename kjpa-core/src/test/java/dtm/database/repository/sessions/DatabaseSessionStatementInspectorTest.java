@@ -0,0 +1,63 @@
+package dtm.database.repository.sessions;
+
+import dtm.database.repository.exceptions.RepeatedStatementException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatabaseSessionStatementInspectorTest {
+
+    private static final String SELECT_BY_ID = "select c1_0.id,c1_0.nome from cliente c1_0 where c1_0.id=?";
+
+    @Test
+    void failModeThrowsWhenTheSameQueryReachesTheThreshold() {
+        DatabaseSessionStatementInspector inspector = new DatabaseSessionStatementInspector(StatementInspectionMode.FAIL, 3);
+        inspector.setTransactionalMethod("PedidoService.fechar");
+        inspector.setRepositoryMethod("PedidoRepository.findByStatus");
+
+        inspector.inspect(SELECT_BY_ID);
+        inspector.inspect(SELECT_BY_ID);
+        RepeatedStatementException error = assertThrows(RepeatedStatementException.class, () -> inspector.inspect(SELECT_BY_ID));
+
+        assertTrue(error.getMessage().contains("executada 3 vezes"), error.getMessage());
+        assertTrue(error.getMessage().contains("PedidoService.fechar"), error.getMessage());
+        assertTrue(error.getMessage().contains("PedidoRepository.findByStatus"), error.getMessage());
+    }
+
+    @Test
+    void logModeReportsWithoutFailing() {
+        DatabaseSessionStatementInspector inspector = new DatabaseSessionStatementInspector(StatementInspectionMode.LOG, 2);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(SELECT_BY_ID, assertDoesNotThrow(() -> inspector.inspect(SELECT_BY_ID)));
+        }
+        assertEquals(5, inspector.getStatementCount());
+    }
+
+    @Test
+    void distinctQueriesBelowThresholdAreNotReported() {
+        DatabaseSessionStatementInspector inspector = new DatabaseSessionStatementInspector(StatementInspectionMode.FAIL, 3);
+
+        inspector.inspect(SELECT_BY_ID);
+        inspector.inspect(SELECT_BY_ID);
+        assertDoesNotThrow(() -> inspector.inspect("select p1_0.id from pedido p1_0 where p1_0.cliente_id=?"));
+    }
+
+    @Test
+    void repeatedWritesAreCountedButNotReported() {
+        DatabaseSessionStatementInspector inspector = new DatabaseSessionStatementInspector(StatementInspectionMode.FAIL, 2);
+
+        for (int i = 0; i < 5; i++) {
+            assertDoesNotThrow(() -> inspector.inspect("insert into cliente (idade,nome,versao,id) values (?,?,?,?)"));
+        }
+        assertEquals(5, inspector.getStatementCount());
+    }
+
+    @Test
+    void thresholdMustBeGreaterThanOne() {
+        assertThrows(IllegalArgumentException.class, () -> new DatabaseSessionStatementInspector(StatementInspectionMode.LOG, 1));
+    }
+}
@@ -0,0 +1,23 @@
+package dtm.database.repository.sessions;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DatabaseSessionTest {
+
+    @Test
+    void sessionWithoutDepthTrackingRejectsTransactionalNesting() {
+        DatabaseSession session = new DatabaseSession() {
+            @Override
+            public EntityManager getEntityManager() {
+                return null;
+            }
+        };
+
+        assertThrows(UnsupportedOperationException.class, session::incrementDepth);
+        assertThrows(UnsupportedOperationException.class, session::decrementDepth);
+        assertThrows(UnsupportedOperationException.class, session::getDepth);
+    }
+}
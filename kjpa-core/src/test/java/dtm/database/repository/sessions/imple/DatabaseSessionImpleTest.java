@@ -0,0 +1,88 @@
+package dtm.database.repository.sessions.imple;
+
+import dtm.database.repository.support.TestDatabase;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DatabaseSessionImpleTest {
+
+    private EntityManagerFactory emf;
+    private DatabaseSessionImple session;
+    private final AtomicInteger completions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        emf = TestDatabase.create(1);
+        session = new DatabaseSessionImple(emf, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        session.close();
+        emf.close();
+    }
+
+    @Test
+    void afterCompletionRunsImmediatelyWithoutTransaction() {
+        session.afterCompletion("chave", completions::incrementAndGet);
+
+        assertEquals(1, completions.get());
+    }
+
+    @Test
+    void afterCompletionWaitsForCommit() {
+        session.beginTransaction();
+        session.afterCompletion("chave", completions::incrementAndGet);
+        assertEquals(0, completions.get());
+
+        session.commitIfActive();
+        assertEquals(1, completions.get());
+    }
+
+    @Test
+    void afterCompletionRunsOnRollback() {
+        session.beginTransaction();
+        session.afterCompletion("chave", completions::incrementAndGet);
+
+        session.rollbackIfActive();
+        assertEquals(1, completions.get());
+    }
+
+    @Test
+    void sameKeyRunsOncePerTransaction() {
+        session.beginTransaction();
+        session.afterCompletion("chave", completions::incrementAndGet);
+        session.afterCompletion("chave", completions::incrementAndGet);
+        session.afterCompletion("outra", completions::incrementAndGet);
+
+        session.commitIfActive();
+        assertEquals(2, completions.get());
+
+        session.beginTransaction();
+        session.afterCompletion("chave", completions::incrementAndGet);
+        session.commitIfActive();
+        assertEquals(3, completions.get());
+    }
+
+    @Test
+    void depthTracksNestedTransactionalBoundaries() {
+        assertEquals(0, session.getDepth());
+        assertEquals(1, session.incrementDepth());
+        assertEquals(2, session.incrementDepth());
+
+        assertEquals(1, session.decrementDepth());
+        assertEquals(0, session.decrementDepth());
+    }
+
+    @Test
+    void depthNeverGoesBelowZero() {
+        assertEquals(0, session.decrementDepth());
+        assertEquals(0, session.getDepth());
+    }
+}
@@ -0,0 +1,84 @@
+package dtm.database.repository.sessions.imple;
+
+import dtm.database.repository.sessions.DatabaseSession;
+import dtm.database.repository.sessions.SessionKey;
+import dtm.database.repository.sessions.imple.ScopedDatabaseSessionSynchronizationContext.SessionCarrier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ScopedDatabaseSessionSynchronizationContextTest {
+
+    private final ScopedDatabaseSessionSynchronizationContext context = new ScopedDatabaseSessionSynchronizationContext();
+    private final DatabaseSession session = mock(DatabaseSession.class);
+    private final ExecutorService otherThread = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        context.removeSession(SessionKey.TRANSACTIONAL);
+        otherThread.shutdownNow();
+    }
+
+    @Test
+    void sessionIsNotInheritedByOtherThreads() throws Exception {
+        context.addSession(SessionKey.TRANSACTIONAL, session);
+
+        assertSame(session, context.getSession(SessionKey.TRANSACTIONAL));
+        assertNull(onOtherThread(() -> context.getSession(SessionKey.TRANSACTIONAL)));
+    }
+
+    @Test
+    void carrierBindsCapturedScopeOnlyDuringTheTask() throws Exception {
+        context.addSession(SessionKey.TRANSACTIONAL, session);
+        SessionCarrier carrier = ScopedDatabaseSessionSynchronizationContext.capture();
+
+        assertSame(session, onOtherThread(carrier.wrap(() -> context.getSession(SessionKey.TRANSACTIONAL))));
+        assertNull(onOtherThread(() -> context.getSession(SessionKey.TRANSACTIONAL)));
+    }
+
+    @Test
+    void carrierWithoutScopeRunsTaskUnbound() throws Exception {
+        SessionCarrier carrier = ScopedDatabaseSessionSynchronizationContext.capture();
+
+        assertNull(onOtherThread(carrier.wrap(() -> context.getSession(SessionKey.TRANSACTIONAL))));
+    }
+
+    @Test
+    void removingNestedKeyRestoresOuterSession() {
+        SessionKey nested = SessionKey.of("nested");
+        DatabaseSession nestedSession = mock(DatabaseSession.class);
+        context.addSession(SessionKey.TRANSACTIONAL, session);
+        context.addSession(nested, nestedSession);
+
+        context.removeSession(nested);
+
+        verify(nestedSession).close();
+        verify(session, never()).close();
+        assertNull(context.getSession(nested));
+        assertSame(session, context.getSession(SessionKey.TRANSACTIONAL));
+    }
+
+    @Test
+    void removeClosesTheSession() {
+        context.addSession(SessionKey.TRANSACTIONAL, session);
+
+        context.removeSession(SessionKey.TRANSACTIONAL);
+
+        verify(session).rollbackIfActive();
+        verify(session).close();
+        assertNull(context.getSession(SessionKey.TRANSACTIONAL));
+    }
+
+    private <T> T onOtherThread(Callable<T> task) throws Exception {
+        return otherThread.submit(task).get();
+    }
+}
@@ -0,0 +1,18 @@
+package dtm.database.repository.support;
+
+import dtm.database.repository.CrudRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Redeclara metodos do {@link CrudRepository} com os tipos concretos da entidade, ao lado de um metodo derivado.
+ */
+public interface ClienteConsultaRepository extends CrudRepository<Cliente, Long> {
+
+    Optional<Cliente> findById(Long id);
+
+    List<Cliente> findAll();
+
+    List<Cliente> findByNome(String nome);
+}
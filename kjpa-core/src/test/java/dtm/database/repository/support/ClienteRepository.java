@@ -0,0 +1,6 @@
+package dtm.database.repository.support;
+
+import dtm.database.repository.CrudRepository;
+
+public interface ClienteRepository extends CrudRepository<Cliente, Long> {
+}
@@ -0,0 +1,44 @@
+package dtm.database.repository.support;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "pedido")
+public class Pedido {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Cliente cliente;
+
+    @ManyToOne(fetch = FetchType.EAGER)
+    private Cliente vendedor;
+
+    protected Pedido() {
+    }
+
+    public Pedido(Cliente cliente, Cliente vendedor) {
+        this.cliente = cliente;
+        this.vendedor = vendedor;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Cliente getCliente() {
+        return cliente;
+    }
+
+    public Cliente getVendedor() {
+        return vendedor;
+    }
+}
@@ -0,0 +1,32 @@
+package dtm.database.repository.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registra o SQL preparado pelo Hibernate, em minusculas, para as verificacoes dos testes.
+ */
+public final class RecordingStatementInspector implements StatementInspector {
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql.toLowerCase());
+        return sql;
+    }
+
+    public List<String> getStatements() {
+        return List.copyOf(statements);
+    }
+
+    public List<String> startingWith(String prefix) {
+        return statements.stream().filter(sql -> sql.startsWith(prefix)).toList();
+    }
+
+    public void clear() {
+        statements.clear();
+    }
+}
@@ -0,0 +1,78 @@
+package dtm.database.repository.support;
+
+import dtm.database.repository.cache.region.KjpaRegionFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceConfiguration;
+import jakarta.persistence.SharedCacheMode;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Banco H2 em memoria, isolado por teste, com o schema de {@link Cliente} e {@link Pedido} e o cache de segundo nivel do KJPA
+ * habilitado como em {@code HibernateConfiguration}.
+ */
+public final class TestDatabase {
+
+    private TestDatabase() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static EntityManagerFactory create(int jdbcBatchSize) {
+        return configuration(jdbcBatchSize).createEntityManagerFactory();
+    }
+
+    /**
+     * Igual a {@link #create(int)}, registrando todo SQL executado no {@code statementInspector}.
+     */
+    public static EntityManagerFactory create(int jdbcBatchSize, StatementInspector statementInspector) {
+        return configuration(jdbcBatchSize)
+                .property("hibernate.session_factory.statement_inspector", statementInspector)
+                .createEntityManagerFactory();
+    }
+
+    private static PersistenceConfiguration configuration(int jdbcBatchSize) {
+        return new PersistenceConfiguration("kjpa-test")
+                .managedClass(Cliente.class)
+                .managedClass(Pedido.class)
+                .property(PersistenceConfiguration.JDBC_URL, "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1")
+                .property(PersistenceConfiguration.JDBC_USER, "sa")
+                .property(PersistenceConfiguration.JDBC_PASSWORD, "")
+                .property(PersistenceConfiguration.SCHEMAGEN_DATABASE_ACTION, "drop-and-create")
+                .property("hibernate.jdbc.batch_size", jdbcBatchSize)
+                .sharedCacheMode(SharedCacheMode.ENABLE_SELECTIVE)
+                .property(AvailableSettings.USE_SECOND_LEVEL_CACHE, true)
+                .property(AvailableSettings.CACHE_REGION_FACTORY, KjpaRegionFactory.class.getName());
+    }
+
+    @SafeVarargs
+    public static <T> List<T> insert(EntityManagerFactory emf, T... entities) {
+        return inTransaction(emf, em -> {
+            for (T entity : entities) {
+                em.persist(entity);
+            }
+            return List.of(entities);
+        });
+    }
+
+    public static long count(EntityManagerFactory emf) {
+        return inTransaction(emf, em -> em.createQuery("SELECT COUNT(c) FROM Cliente c", Long.class).getSingleResult());
+    }
+
+    public static Cliente find(EntityManagerFactory emf, Long id) {
+        return inTransaction(emf, em -> em.find(Cliente.class, id));
+    }
+
+    private static <T> T inTransaction(EntityManagerFactory emf, Function<EntityManager, T> action) {
+        try (EntityManager em = emf.createEntityManager()) {
+            em.getTransaction().begin();
+            T result = action.apply(em);
+            em.getTransaction().commit();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package dtm.database.repository.support;
+
+import dtm.database.repository.cache.RepositoryQueryCache;
+import dtm.database.repository.metrics.KjpaMetrics;
+import dtm.database.repository.prototype.datasource.DatabaseConfiguration;
+import dtm.database.repository.prototype.datasource.EntityManagerFactoryContext;
+import dtm.database.repository.sessions.DatabaseSession;
+import dtm.di.prototypes.async.AsyncComponent;
+import jakarta.persistence.EntityManagerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Contexto de persistencia sobre o banco H2 de {@link TestDatabase}, entregue ao {@code RepositoryExecutor}
+ * como um {@link AsyncComponent} ja resolvido. Os lotes de escrita e de leitura ({@code fetchSize}) usam o mesmo
+ * tamanho, e as sessoes abertas ficam registradas para inspecao.
+ */
+public class TestRepositoryContext implements EntityManagerFactoryContext {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final DatabaseConfiguration databaseConfiguration;
+    private final List<DatabaseSession> openedSessions = new CopyOnWriteArrayList<>();
+    private RepositoryQueryCache queryCache;
+    private KjpaMetrics metrics;
+
+    public TestRepositoryContext(EntityManagerFactory entityManagerFactory, int jdbcBatchSize) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.databaseConfiguration = new H2Configuration(jdbcBatchSize);
+    }
+
+    @Override
+    public DatabaseConfiguration getDatabaseConfiguration() {
+        return databaseConfiguration;
+    }
+
+    @Override
+    public EntityManagerFactory getEntityManagerFactory() {
+        return entityManagerFactory;
+    }
+
+    public TestRepositoryContext withQueryCache(RepositoryQueryCache queryCache) {
+        this.queryCache = queryCache;
+        return this;
+    }
+
+    @Override
+    public RepositoryQueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    public TestRepositoryContext withMetrics(KjpaMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    @Override
+    public KjpaMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public DatabaseSession createDatabaseSession() {
+        DatabaseSession databaseSession = EntityManagerFactoryContext.super.createDatabaseSession();
+        openedSessions.add(databaseSession);
+        return databaseSession;
+    }
+
+    public DatabaseSession getLastOpenedSession() {
+        return openedSessions.getLast();
+    }
+
+    @SuppressWarnings("unchecked")
+    public AsyncComponent<EntityManagerFactoryContext> asAsyncComponent() {
+        AsyncComponent<EntityManagerFactoryContext> asyncComponent = mock(AsyncComponent.class, RETURNS_DEEP_STUBS);
+        when(asyncComponent.getAsync().await()).thenReturn(this);
+        return asyncComponent;
+    }
+
+    private record H2Configuration(int jdbcBatchSize) implements DatabaseConfiguration {
+
+        @Override
+        public String getDriverClassName() {
+            return "org.h2.Driver";
+        }
+
+        @Override
+        public String getUrl() {
+            return "jdbc:h2:mem:kjpa";
+        }
+
+        @Override
+        public String getUsername() {
+            return "sa";
+        }
+
+        @Override
+        public String getPassword() {
+            return "";
+        }
+
+        @Override
+        public String getDialect() {
+            return "org.hibernate.dialect.H2Dialect";
+        }
+
+        @Override
+        public int getJdbcBatchSize() {
+            return jdbcBatchSize;
+        }
+
+        @Override
+        public int getJdbcFetchSize() {
+            return jdbcBatchSize;
+        }
+    }
+}
@@ -1,16 +1,32 @@
 package dtm.database;
 
+import dtm.database.annotations.Cacheable;
+import dtm.database.annotations.FetchGraph;
 import dtm.database.annotations.NonQueryable;
 import dtm.database.annotations.Query;
 import dtm.database.annotations.QueryParam;
+import dtm.database.annotations.ReadOnly;
 import dtm.database.annotations.Repository;
+import dtm.database.internal.Comparison;
 import dtm.database.internal.JavaCode;
+import dtm.database.internal.OrderProperty;
 import dtm.database.internal.ParsedQueryMethod;
+import dtm.database.internal.ProjectionProperty;
 import dtm.database.repository.CrudRepository;
+import dtm.database.repository.pagination.Page;
+import dtm.database.repository.pagination.Pageable;
+import dtm.database.repository.pagination.Slice;
+import dtm.database.repository.pagination.Sort;
 import dtm.database.utils.DeclarationTypeProcessorUtils;
 import dtm.database.utils.RepositoryMetadataWriter;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Version;
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
@@ -20,12 +36,16 @@ import javax.lang.model.element.*;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
 import javax.tools.JavaFileObject;
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static dtm.database.utils.RepositoryMetadataExtractor.*;
@@ -106,6 +126,39 @@ public class RepositoryMetadataProcessor extends AbstractProcessor {
                 error(typeElement, "Falha fatal ao escrever o arquivo %s: %s", fullClassName, e.getMessage());
                 return true;
             }
+
+            for (JavaCode projectionCode : repositoryMetadataWriter.getProjectionJavaCodes()) {
+                String projectionClassName = projectionCode.classFullName();
+                try {
+                    JavaFileObject projectionFile = processingEnv.getFiler().createSourceFile(projectionClassName, typeElement);
+                    note("KJPA: Escrevendo arquivo fonte: " + projectionClassName);
+                    try (java.io.Writer writer = projectionFile.openWriter()) {
+                        writer.write(projectionCode.code());
+                    }
+                }catch (IOException e) {
+                    error(typeElement, "Falha fatal ao escrever o arquivo %s: %s", projectionClassName, e.getMessage());
+                    return true;
+                }
+            }
+
+            JavaCode implementationCode = repositoryMetadataWriter.getImplementationJavaCode(getMethods(typeElement, true));
+            if (implementationCode == null) {
+                note("KJPA: %s nao e publica ou declara metodos genericos. Sera utilizado JDK Proxy.", typeElement.getQualifiedName());
+                continue;
+            }
+
+            String implementationClassName = implementationCode.classFullName();
+            try {
+                JavaFileObject implementationFile = processingEnv.getFiler().createSourceFile(implementationClassName, typeElement);
+                note("KJPA: Escrevendo arquivo fonte: " + implementationClassName);
+                try (java.io.Writer writer = implementationFile.openWriter()) {
+                    writer.write(implementationCode.code());
+                }
+                note("KJPA: [Sucesso] Implementacao gerada para " + typeElement.getQualifiedName());
+            }catch (IOException e) {
+                error(typeElement, "Falha fatal ao escrever o arquivo %s: %s", implementationClassName, e.getMessage());
+                return true;
+            }
         }
 
         return true;
@@ -306,7 +359,14 @@ public class RepositoryMetadataProcessor extends AbstractProcessor {
                 return false;
             }
 
-            if(isAnnotationPresent(element, NonQueryable.class)) continue;
+            if(isAnnotationPresent(element, NonQueryable.class)){
+                if(!validNonQueryableMethod(repositoryElement, element)) return false;
+                continue;
+            }
+            if(!validReadOnlyMethod(repositoryElement, element, entityType)) return false;
+            if(!validCacheableMethod(repositoryElement, element, entityType)) return false;
+            if(!validAsyncMethod(repositoryElement, element)) return false;
+            if(!validFetchGraphMethod(repositoryElement, element, entityType)) return false;
             AnnotationMirror annotationMirror = getAnnotationPresent(element, Query.class);
             if(annotationMirror != null){
                 if(!validRepositoryMethodQueryAnnotate(repositoryElement, element, annotationMirror, entityType)) return false;
@@ -318,8 +378,29 @@ public class RepositoryMetadataProcessor extends AbstractProcessor {
     }
 
 
+    /**
+     * {@code @NonQueryable} nao gera metadados nem implementacao: o metodo precisa ter corpo proprio ({@code default}).
+     */
+    private boolean validNonQueryableMethod(TypeElement repositoryElement, ExecutableElement method){
+        if(method.getModifiers().contains(Modifier.ABSTRACT)){
+            error(method,
+                    "Declaracao invalida de metodo em %s. O metodo '%s' esta anotado com @NonQueryable, mas nao possui implementacao. " +
+                            "Declare-o como default ou remova a anotacao.",
+                    repositoryElement.getSimpleName(), method.getSimpleName());
+            return false;
+        }
+        return true;
+    }
+
     private boolean validRepositoryMethodNoQueryAnnotate(TypeElement repositoryElement, ExecutableElement method, TypeMirror entityType){
-        if(!validRepositoryMethodReturnType(repositoryElement, method, entityType)) return false;
+        ParsedQueryMethod parsed = parseQueryMethodName(method.getSimpleName().toString(), (TypeElement) ((DeclaredType) entityType).asElement());
+        TypeElement projectionElement = findProjectionElement(resolveReturnType(method, processingEnv), entityType, processingEnv);
+        if(parsed != null && parsed.isAggregate()){
+            if(!validAggregateMethod(repositoryElement, method, parsed, entityType)) return false;
+        }else if(projectionElement != null){
+            if(!validProjection(repositoryElement, method, projectionElement, entityType)) return false;
+        }else if(!validRepositoryMethodReturnType(repositoryElement, method, entityType)) return false;
+        if(!validPagingParameters(repositoryElement, method, entityType, false)) return false;
         if(!validRepositoryMethodSignatureQueryAnnotate(repositoryElement, method, entityType)) return false;
 
         return true;
@@ -338,6 +419,7 @@ public class RepositoryMetadataProcessor extends AbstractProcessor {
             );
             return false;
         }
+        if(!validPagingParameters(repositoryElement, method, entityType, Boolean.TRUE.equals(isNativeQuery))) return false;
         Set<String> queryParams = extractQueryParameters(query);
         if(!validJpqlParamsCountAndNames(queryParams, method)) return false;
 
@@ -357,7 +439,7 @@ public class RepositoryMetadataProcessor extends AbstractProcessor {
     }
 
     private boolean validRepositoryMethodReturnType(TypeElement repositoryElement, ExecutableElement method, TypeMirror entityType){
-        TypeMirror returnType = method.getReturnType();
+        TypeMirror returnType = resolveReturnType(method, processingEnv);
         Types types = processingEnv.getTypeUtils();
 
         if (returnType.getKind() == TypeKind.VOID) {
@@ -375,7 +457,7 @@ public class RepositoryMetadataProcessor extends AbstractProcessor {
             return true;
         }
 
-        if (isPrimitiveAggregate(returnType)) {
+        if (isBoxedPrimitiveAggregate(returnType)) {
             return true;
         }
 
@@ -406,11 +488,23 @@ public class RepositoryMetadataProcessor extends AbstractProcessor {
             );
         }
 
+        if (isSameRawType(returnElement, Page.class, processingEnv) || isSameRawType(returnElement, Slice.class, processingEnv)) {
+            return validateSingleGeneric(
+                    repositoryElement, method, typeArgs, entityType
+            );
+        }
+
+        if (isSameRawType(returnElement, java.util.stream.Stream.class, processingEnv)) {
+            return validateSingleGeneric(
+                    repositoryElement, method, typeArgs, entityType
+            );
+        }
+
         error(
                 repositoryElement,
                 "Declaracao invalida de @Repository em %s. " +
                         "O metodo %s possui um tipo de retorno nao suportado: %s. " +
-                        "Tipos permitidos: %s, Optional<%s>, Collection<%s>, List<%s>, Set<%s>, " +
+                        "Tipos permitidos: %s, Optional<%s>, Collection<%s>, List<%s>, Set<%s>, Stream<%s>, Page<%s>, Slice<%s>, " +
                         "ou tipos primitivos/Wrapper para agregacoes (ex: long, int, boolean).",
                 repositoryElement.getQualifiedName(),
                 method.getSimpleName(),
@@ -419,14 +513,155 @@ public class RepositoryMetadataProcessor extends AbstractProcessor {
                 entityType.toString(),
                 entityType.toString(),
                 entityType.toString(),
+                entityType.toString(),
+                entityType.toString(),
+                entityType.toString(),
                 entityType.toString()
         );
         return false;
     }
 
+    /**
+     * Agregacoes derivadas: o campo agregado deve ser numerico ({@code sum}, {@code avg}) ou {@link Comparable}
+     * ({@code min}, {@code max}), e o retorno deve coincidir com o tipo produzido pelo JPQL
+     * ({@code SUM} de inteiros e {@code COUNT} em {@code Long}, {@code AVG} em {@code Double}).
+     */
+    private boolean validAggregateMethod(TypeElement repositoryElement, ExecutableElement method, ParsedQueryMethod parsed, TypeMirror entityType){
+        Types types = processingEnv.getTypeUtils();
+        Elements elements = processingEnv.getElementUtils();
+        TypeElement entityElement = (TypeElement) ((DeclaredType) entityType).asElement();
+        String function = parsed.prefix();
+
+        TypeMirror valueType;
+        if (function.equals("count")) {
+            valueType = elements.getTypeElement(Long.class.getName()).asType();
+        } else {
+            VariableElement field = findEntityField(entityElement, parsed.aggregateProperty());
+            if (field == null) {
+                error(
+                        method,
+                        "Metodo de repositorio invalido em %s. " +
+                                "A propriedade '%s' nao existe na entidade %s.",
+                        repositoryElement.getQualifiedName(),
+                        parsed.aggregateProperty(),
+                        entityElement.getQualifiedName()
+                );
+                return false;
+            }
+
+            valueType = resolveAggregateValueType(function, normalizePrimitive(field.asType(), types));
+            if (valueType == null) {
+                error(
+                        method,
+                        "Metodo de repositorio invalido em %s. " +
+                                "O campo %s.%s (%s) nao pode ser usado em %s: %s.",
+                        repositoryElement.getQualifiedName(),
+                        entityElement.getQualifiedName(),
+                        field.getSimpleName(),
+                        field.asType(),
+                        function,
+                        (function.equals("min") || function.equals("max")) ? "o tipo deve ser Comparable" : "o tipo deve ser numerico"
+                );
+                return false;
+            }
+        }
+
+        TypeMirror returnType = resolveReturnType(method, processingEnv);
+
+        if (!parsed.isGrouped()) {
+            boolean nullable = !function.equals("sum");
+            if ((nullable && returnType.getKind().isPrimitive())
+                    || !types.isSameType(normalizePrimitive(returnType, types), valueType)) {
+                error(
+                        method,
+                        "Metodo de repositorio invalido em %s. " +
+                                "O metodo '%s' deve retornar %s%s, encontrado: %s.",
+                        repositoryElement.getQualifiedName(),
+                        method.getSimpleName(),
+                        valueType,
+                        nullable ? " (nulo quando nao ha linhas)" : "",
+                        returnType
+                );
+                return false;
+            }
+            return true;
+        }
+
+        VariableElement groupField = findEntityField(entityElement, parsed.groupByProperty());
+        if (groupField == null) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "A propriedade de agrupamento '%s' nao existe na entidade %s.",
+                    repositoryElement.getQualifiedName(),
+                    parsed.groupByProperty(),
+                    entityElement.getQualifiedName()
+            );
+            return false;
+        }
+
+        TypeMirror keyType = normalizePrimitive(groupField.asType(), types);
+        List<TypeMirror> mapTypes = isRawTypeOf(returnType, Map.class) ? getGenericTypes(returnType) : List.of();
+        if (mapTypes.size() != 2
+                || !types.isSameType(mapTypes.get(0), keyType)
+                || !types.isSameType(mapTypes.get(1), valueType)) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "O metodo '%s' deve retornar Map<%s, %s>, encontrado: %s.",
+                    repositoryElement.getQualifiedName(),
+                    method.getSimpleName(),
+                    keyType,
+                    valueType,
+                    returnType
+            );
+            return false;
+        }
+        return true;
+    }
+
+    private TypeMirror resolveAggregateValueType(String function, TypeMirror fieldType){
+        Types types = processingEnv.getTypeUtils();
+        Elements elements = processingEnv.getElementUtils();
+        String fieldTypeName = types.erasure(fieldType).toString();
+
+        if (function.equals("min") || function.equals("max")) {
+            TypeMirror comparable = types.erasure(elements.getTypeElement(Comparable.class.getName()).asType());
+            return types.isAssignable(types.erasure(fieldType), comparable) ? fieldType : null;
+        }
+
+        boolean integral = Set.of(Long.class.getName(), Integer.class.getName(), Short.class.getName(), Byte.class.getName()).contains(fieldTypeName);
+        boolean floating = Set.of(Double.class.getName(), Float.class.getName()).contains(fieldTypeName);
+        boolean big = fieldTypeName.equals(BigDecimal.class.getName()) || fieldTypeName.equals(BigInteger.class.getName());
+
+        if (!integral && !floating && !big) {
+            return null;
+        }
+        if (function.equals("avg")) {
+            return elements.getTypeElement(Double.class.getName()).asType();
+        }
+        if (integral) {
+            return elements.getTypeElement(Long.class.getName()).asType();
+        }
+        return floating ? elements.getTypeElement(Double.class.getName()).asType() : fieldType;
+    }
+
+    /**
+     * Wrappers ({@code Long}, {@code Integer}, ...) aparecem como retorno em {@code CompletableFuture<Long>}.
+     */
+    private boolean isBoxedPrimitiveAggregate(TypeMirror returnType){
+        if (returnType.getKind() != TypeKind.DECLARED) return false;
+
+        try {
+            return isPrimitiveAggregate(processingEnv.getTypeUtils().unboxedType(returnType));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
     private boolean validRepositoryMethodSignatureQueryAnnotate(TypeElement repositoryElement, ExecutableElement method, TypeMirror entityType){
         String methodName = method.getSimpleName().toString();
-        ParsedQueryMethod parsed = parseQueryMethodName(methodName);
+        ParsedQueryMethod parsed = parseQueryMethodName(methodName, (TypeElement) ((DeclaredType) entityType).asElement());
 
         if (parsed == null) {
             error(
@@ -445,11 +680,18 @@ public class RepositoryMetadataProcessor extends AbstractProcessor {
 
         TypeElement entityElement = (TypeElement) declaredEntity.asElement();
 
-        List<String> props = parsed.properties();
-        List<? extends VariableElement> params = method.getParameters();
+        if (!validDerivedQueryReturnType(repositoryElement, method, parsed)) return false;
+
+        List<String> updateProperties = parsed.updateProperties();
+        List<String> criteria = parsed.properties();
+        List<Comparison> comparisons = parsed.comparisons();
+        List<? extends VariableElement> params = method.getParameters().stream()
+                .filter(param -> !isPagingParameter(param))
+                .toList();
 
         // ---------- regra: ao menos uma propriedade ----------
-        if (props.isEmpty()) {
+        // findTop10ByOrderByCriadoEmDesc dispensa criterios: a ordenacao e o limite ja restringem o resultado
+        if (criteria.isEmpty() && !parsed.isAggregate() && parsed.orderBy().isEmpty() && !parsed.isLimited()) {
             error(
                     method,
                     "Metodo de repositorio invalido em %s. " +
@@ -461,52 +703,304 @@ public class RepositoryMetadataProcessor extends AbstractProcessor {
         }
 
         // ---------- regra: quantidade de parametros ----------
-        if (params.size() != props.size()) {
+        if (params.size() != parsed.parameterCount()) {
             error(
                     method,
                     "Metodo de repositorio invalido em %s. " +
-                            "O metodo '%s' declara %d criterio(s) mas possui %d parametro(s).",
+                            "O metodo '%s' espera %d parametro(s) pelos seus criterios mas possui %d parametro(s).",
                     repositoryElement.getQualifiedName(),
                     methodName,
-                    props.size(),
+                    parsed.parameterCount(),
                     params.size()
             );
             return false;
         }
 
+        for (int i = 0; i < updateProperties.size(); i++) {
+            String property = updateProperties.get(i);
+            VariableElement field = findDerivedField(repositoryElement, method, entityElement, property);
+            if (field == null) return false;
+
+            if (isAnnotationPresent(field, Id.class) || isAnnotationPresent(field, Version.class)) {
+                error(
+                        method,
+                        "Metodo de repositorio invalido em %s. " +
+                                "O campo '%s' e @Id ou @Version e nao pode ser alterado por '%s'.",
+                        repositoryElement.getQualifiedName(),
+                        property,
+                        methodName
+                );
+                return false;
+            }
+
+            if (!validDerivedParameterType(repositoryElement, method, entityElement, params.get(i), i, params.get(i).asType(), field)) return false;
+        }
+
+        int paramIndex = updateProperties.size();
+        for (int i = 0; i < criteria.size(); i++) {
+            Comparison comparison = comparisons.get(i);
+            VariableElement field = findDerivedField(repositoryElement, method, entityElement, criteria.get(i));
+            if (field == null) return false;
+            if (!validComparison(repositoryElement, method, entityElement, field, comparison)) return false;
+
+            for (int k = 0; k < comparison.arity(); k++, paramIndex++) {
+                VariableElement param = params.get(paramIndex);
+                TypeMirror valueType = param.asType();
+
+                if (comparison.isCollection()) {
+                    List<TypeMirror> elementTypes = getGenericTypes(valueType);
+                    if (!isCollection(valueType, processingEnv) || elementTypes.isEmpty()) {
+                        error(
+                                method,
+                                "Metodo de repositorio invalido em %s. " +
+                                        "O parametro %d ('%s') do operador %s deve ser uma Collection parametrizada com o tipo de %s.%s, encontrado: %s.",
+                                repositoryElement.getQualifiedName(),
+                                paramIndex + 1,
+                                param.getSimpleName(),
+                                comparison.keyword(),
+                                entityElement.getQualifiedName(),
+                                field.getSimpleName(),
+                                valueType
+                        );
+                        return false;
+                    }
+                    valueType = elementTypes.getFirst();
+                }
+
+                if (!validDerivedParameterType(repositoryElement, method, entityElement, param, paramIndex, valueType, field)) return false;
+            }
+        }
+
+        if (!validOrderByAndLimit(repositoryElement, method, entityElement, parsed)) return false;
+
+        // ---------- regra: operadores invalidos ----------
+        List<String> ops = parsed.operators();
+        for (int i = 0; i < ops.size() - 1; i++) {
+            if (ops.get(i).equals(ops.get(i + 1))) {
+                error(
+                        method,
+                        "Metodo de repositorio invalido em %s. " +
+                                "Uso invalido de operadores logicos no metodo '%s'.",
+                        repositoryElement.getQualifiedName(),
+                        methodName
+                );
+                return false;
+            }
+        }
+
+
+        return true;
+    }
+
+    private VariableElement findDerivedField(TypeElement repositoryElement, ExecutableElement method, TypeElement entityElement, String property){
+        VariableElement field = findEntityField(entityElement, property);
+        if (field == null) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "A propriedade '%s' nao existe na entidade %s.",
+                    repositoryElement.getQualifiedName(),
+                    property,
+                    entityElement.getQualifiedName()
+            );
+        }
+        return field;
+    }
+
+    private boolean validDerivedParameterType(TypeElement repositoryElement, ExecutableElement method, TypeElement entityElement, VariableElement param, int paramIndex, TypeMirror valueType, VariableElement field){
         Types types = processingEnv.getTypeUtils();
+        if (types.isAssignable(
+                types.erasure(normalizePrimitive(valueType, types)),
+                types.erasure(normalizePrimitive(field.asType(), types))
+        )) {
+            return true;
+        }
+
+        error(
+                method,
+                "Metodo de repositorio invalido em %s. " +
+                        "O parametro %d ('%s') possui tipo %s, " +
+                        "mas o campo correspondente (%s.%s) possui tipo %s.",
+                repositoryElement.getQualifiedName(),
+                paramIndex + 1,
+                param.getSimpleName(),
+                param.asType(),
+                entityElement.getQualifiedName(),
+                field.getSimpleName(),
+                field.asType()
+        );
+        return false;
+    }
+
+    /**
+     * Operadores de ordem exigem campo {@code Comparable}, os de padrao ({@code Like}, {@code StartingWith}...) exigem
+     * {@code String} e {@code IsNull}/{@code IsNotNull} nao se aplicam a campos primitivos.
+     */
+    private boolean validComparison(TypeElement repositoryElement, ExecutableElement method, TypeElement entityElement, VariableElement field, Comparison comparison){
+        Types types = processingEnv.getTypeUtils();
+        Elements elements = processingEnv.getElementUtils();
+        TypeMirror fieldType = normalizePrimitive(field.asType(), types);
+
+        String reason = null;
+        if (comparison.isOrdering()
+                && !types.isAssignable(types.erasure(fieldType), types.erasure(elements.getTypeElement(Comparable.class.getName()).asType()))) {
+            reason = "o tipo deve ser Comparable";
+        } else if (comparison.isPattern() && !fieldType.toString().equals(String.class.getName())) {
+            reason = "o tipo deve ser String";
+        } else if ((comparison == Comparison.IS_NULL || comparison == Comparison.IS_NOT_NULL) && field.asType().getKind().isPrimitive()) {
+            reason = "campos primitivos nunca sao nulos";
+        }
+
+        if (reason == null) {
+            return true;
+        }
+
+        error(
+                method,
+                "Metodo de repositorio invalido em %s. " +
+                        "O operador %s nao se aplica ao campo %s.%s (%s): %s.",
+                repositoryElement.getQualifiedName(),
+                comparison.keyword(),
+                entityElement.getQualifiedName(),
+                field.getSimpleName(),
+                field.asType(),
+                reason
+        );
+        return false;
+    }
+
+    /**
+     * {@code OrderBy} precisa referenciar campos da entidade; {@code Top}/{@code First} nao combinam com {@code Pageable},
+     * que ja define o tamanho da pagina, e acima de 1 exigem retorno de colecao ou {@code Stream}.
+     */
+    private boolean validOrderByAndLimit(TypeElement repositoryElement, ExecutableElement method, TypeElement entityElement, ParsedQueryMethod parsed){
+        for (OrderProperty order : parsed.orderBy()) {
+            if (findDerivedField(repositoryElement, method, entityElement, order.property()) == null) return false;
+        }
+
+        if (!parsed.isLimited()) {
+            return true;
+        }
+
+        if (method.getParameters().stream().anyMatch(param -> isRawTypeOf(param.asType(), Pageable.class))) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "O metodo '%s' limita o resultado com Top/First e nao pode receber Pageable.",
+                    repositoryElement.getQualifiedName(),
+                    method.getSimpleName()
+            );
+            return false;
+        }
+
+        TypeMirror returnType = resolveReturnType(method, processingEnv);
+        if (parsed.maxResults() > 1 && !isCollection(returnType, processingEnv) && !isStream(returnType, processingEnv)) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "O metodo '%s' limita o resultado a %d linhas e deve retornar uma colecao ou Stream, encontrado: %s.",
+                    repositoryElement.getQualifiedName(),
+                    method.getSimpleName(),
+                    parsed.maxResults(),
+                    returnType
+            );
+            return false;
+        }
+
+        return true;
+    }
+
+    private boolean validProjection(TypeElement repositoryElement, ExecutableElement method, TypeElement projectionElement, TypeMirror entityType){
+        ParsedQueryMethod parsed = parseQueryMethodName(method.getSimpleName().toString(), (TypeElement) ((DeclaredType) entityType).asElement());
+        if (parsed == null || !parsed.prefix().equals("findBy")) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "Projecoes (%s) so sao suportadas em metodos findBy (metodo '%s').",
+                    repositoryElement.getQualifiedName(),
+                    projectionElement.getQualifiedName(),
+                    method.getSimpleName()
+            );
+            return false;
+        }
+
+        boolean accessible = true;
+        for (Element current = projectionElement; current instanceof TypeElement; current = current.getEnclosingElement()) {
+            accessible &= current.getModifiers().contains(Modifier.PUBLIC);
+        }
+
+        if (!accessible || !projectionElement.getTypeParameters().isEmpty()) {
+            error(
+                    method,
+                    "Projecao invalida em %s. " +
+                            "O tipo %s deve ser publico e nao generico.",
+                    repositoryElement.getQualifiedName(),
+                    projectionElement.getQualifiedName()
+            );
+            return false;
+        }
+
+        if (projectionElement.getKind() == ElementKind.INTERFACE) {
+            for (Element enclosed : projectionElement.getEnclosedElements()) {
+                if (!(enclosed instanceof ExecutableElement accessor) || !accessor.getModifiers().contains(Modifier.ABSTRACT)) continue;
+
+                if (!accessor.getParameters().isEmpty() || accessor.getReturnType().getKind() == TypeKind.VOID) {
+                    error(
+                            accessor,
+                            "Projecao invalida em %s. " +
+                                    "O metodo %s.%s deve ser um acessor sem parametros com retorno.",
+                            repositoryElement.getQualifiedName(),
+                            projectionElement.getSimpleName(),
+                            accessor.getSimpleName()
+                    );
+                    return false;
+                }
+            }
+        }
 
-        for (int i = 0; i < props.size(); i++) {
-            String property = props.get(i);
-            VariableElement param = params.get(i);
+        List<ProjectionProperty> properties = getProjectionProperties(projectionElement);
+        if (properties.isEmpty()) {
+            error(
+                    method,
+                    "Projecao invalida em %s. O tipo %s nao declara nenhuma propriedade.",
+                    repositoryElement.getQualifiedName(),
+                    projectionElement.getQualifiedName()
+            );
+            return false;
+        }
+
+        TypeElement entityElement = (TypeElement) ((DeclaredType) entityType).asElement();
+        Types types = processingEnv.getTypeUtils();
 
-            VariableElement field = findEntityField(entityElement, property);
+        for (ProjectionProperty property : properties) {
+            VariableElement field = findEntityField(entityElement, property.name());
 
             if (field == null) {
                 error(
                         method,
-                        "Metodo de repositorio invalido em %s. " +
-                                "A propriedade '%s' nao existe na entidade %s.",
+                        "Projecao invalida em %s. " +
+                                "A propriedade '%s' de %s nao existe na entidade %s.",
                         repositoryElement.getQualifiedName(),
-                        property,
+                        property.name(),
+                        projectionElement.getSimpleName(),
                         entityElement.getQualifiedName()
                 );
                 return false;
             }
 
             if (!types.isAssignable(
-                    types.erasure(normalizePrimitive(param.asType(), types)),
-                    types.erasure(normalizePrimitive(field.asType(), types))
+                    types.erasure(normalizePrimitive(field.asType(), types)),
+                    types.erasure(normalizePrimitive(property.type(), types))
             )) {
                 error(
                         method,
-                        "Metodo de repositorio invalido em %s. " +
-                                "O parametro %d ('%s') possui tipo %s, " +
+                        "Projecao invalida em %s. " +
+                                "A propriedade '%s' de %s possui tipo %s, " +
                                 "mas o campo correspondente (%s.%s) possui tipo %s.",
                         repositoryElement.getQualifiedName(),
-                        i + 1,
-                        param.getSimpleName(),
-                        param.asType(),
+                        property.name(),
+                        projectionElement.getSimpleName(),
+                        property.type(),
                         entityElement.getQualifiedName(),
                         field.getSimpleName(),
                         field.asType()
@@ -515,27 +1009,383 @@ public class RepositoryMetadataProcessor extends AbstractProcessor {
             }
         }
 
-        // ---------- regra: operadores invalidos ----------
-        List<String> ops = parsed.operators();
-        for (int i = 0; i < ops.size() - 1; i++) {
-            if (ops.get(i).equals(ops.get(i + 1))) {
-                error(
-                        method,
-                        "Metodo de repositorio invalido em %s. " +
-                                "Uso invalido de operadores logicos no metodo '%s'.",
-                        repositoryElement.getQualifiedName(),
-                        methodName
-                );
-                return false;
+        return true;
+    }
+
+    private boolean validReadOnlyMethod(TypeElement repositoryElement, ExecutableElement method, TypeMirror entityType){
+        if (!isAnnotationPresent(method, ReadOnly.class)) return true;
+
+        AnnotationMirror queryAnnotation = getAnnotationPresent(method, Query.class);
+        ParsedQueryMethod parsed = parseQueryMethodName(method.getSimpleName().toString(), (TypeElement) ((DeclaredType) entityType).asElement());
+
+        boolean writes = (queryAnnotation != null)
+                ? isDmlQuery(getAnnotationsValue(queryAnnotation, "value"))
+                : (parsed != null && parsed.isWrite());
+
+        if (writes) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "O metodo '%s' altera dados e nao pode ser anotado com @ReadOnly.",
+                    repositoryElement.getQualifiedName(),
+                    method.getSimpleName()
+            );
+            return false;
+        }
+        return true;
+    }
+
+    private boolean validAsyncMethod(TypeElement repositoryElement, ExecutableElement method){
+        TypeMirror declaredReturn = method.getReturnType();
+        if (!isAsync(declaredReturn)) return true;
+
+        if (((DeclaredType) declaredReturn).getTypeArguments().isEmpty()) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "O metodo '%s' deve informar o tipo do CompletableFuture (ex: CompletableFuture<List<Entidade>>).",
+                    repositoryElement.getQualifiedName(),
+                    method.getSimpleName()
+            );
+            return false;
+        }
+
+        if (isStream(resolveReturnType(method, processingEnv), processingEnv)) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "O metodo '%s' nao pode retornar CompletableFuture<Stream>: a sessao da chamada assincrona e encerrada ao concluir o futuro.",
+                    repositoryElement.getQualifiedName(),
+                    method.getSimpleName()
+            );
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * {@code @FetchGraph} so se aplica a consultas JPQL que retornam a propria entidade. Cada segmento do caminho deve ser
+     * uma associacao ({@code @OneToMany}, {@code @ManyToOne}...) ou {@code @ElementCollection} do tipo alcancado pelo
+     * segmento anterior. Associacoes de colecao nao podem ser combinadas com paginacao ou {@code Top}/{@code First}, pois o
+     * Hibernate aplicaria o limite em memoria, depois de carregar todas as linhas.
+     */
+    private boolean validFetchGraphMethod(TypeElement repositoryElement, ExecutableElement method, TypeMirror entityType){
+        AnnotationMirror fetchGraph = getAnnotationPresent(method, FetchGraph.class);
+        if (fetchGraph == null) return true;
+
+        Types types = processingEnv.getTypeUtils();
+        AnnotationMirror queryAnnotation = getAnnotationPresent(method, Query.class);
+        ParsedQueryMethod parsed = parseQueryMethodName(method.getSimpleName().toString(), (TypeElement) ((DeclaredType) entityType).asElement());
+        TypeMirror payload = unwrapReturnPayload(resolveReturnType(method, processingEnv), processingEnv);
+
+        boolean selectsEntity = (queryAnnotation != null)
+                ? !Boolean.TRUE.equals(getAnnotationsValue(queryAnnotation, "nativeQuery")) && !isDmlQuery(getAnnotationsValue(queryAnnotation, "value"))
+                : (parsed != null && parsed.prefix().equals("findBy"));
+
+        if (!selectsEntity || !types.isSameType(types.erasure(payload), types.erasure(entityType))) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "@FetchGraph so pode ser usado em consultas JPQL que retornam a entidade %s (metodo '%s').",
+                    repositoryElement.getQualifiedName(),
+                    entityType,
+                    method.getSimpleName()
+            );
+            return false;
+        }
+
+        List<? extends AnnotationValue> paths = getAnnotationsValue(fetchGraph, "value");
+        if (paths == null || paths.isEmpty()) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "@FetchGraph do metodo '%s' deve informar ao menos um atributo.",
+                    repositoryElement.getQualifiedName(),
+                    method.getSimpleName()
+            );
+            return false;
+        }
+
+        boolean fetchesCollection = false;
+        for (AnnotationValue value : paths) {
+            String path = value.getValue().toString();
+            TypeElement current = (TypeElement) ((DeclaredType) entityType).asElement();
+
+            for (String segment : path.split("\\.", -1)) {
+                VariableElement field = segment.isEmpty() ? null : findEntityField(current, segment);
+                if (field == null) {
+                    error(
+                            method,
+                            "Metodo de repositorio invalido em %s. " +
+                                    "O caminho '%s' do @FetchGraph nao existe: %s nao possui o atributo '%s'.",
+                            repositoryElement.getQualifiedName(),
+                            path,
+                            current.getQualifiedName(),
+                            segment
+                    );
+                    return false;
+                }
+
+                boolean collection = isCollection(field.asType(), processingEnv) || isRawTypeOf(field.asType(), Map.class);
+                if (!isFetchableAttribute(field)) {
+                    error(
+                            method,
+                            "Metodo de repositorio invalido em %s. " +
+                                    "O atributo %s.%s do caminho '%s' nao e uma associacao nem @ElementCollection.",
+                            repositoryElement.getQualifiedName(),
+                            current.getQualifiedName(),
+                            field.getSimpleName(),
+                            path
+                    );
+                    return false;
+                }
+
+                fetchesCollection |= collection;
+
+                List<TypeMirror> typeArguments = getGenericTypes(field.asType());
+                TypeMirror target = collection ? (typeArguments.isEmpty() ? null : typeArguments.getLast()) : field.asType();
+                current = (target instanceof DeclaredType declaredTarget) ? (TypeElement) declaredTarget.asElement() : null;
+                if (current == null) break;
             }
         }
 
+        boolean limited = (parsed != null && parsed.isLimited())
+                || method.getParameters().stream().anyMatch(param -> isRawTypeOf(param.asType(), Pageable.class));
+        if (fetchesCollection && limited) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "O metodo '%s' limita o resultado (Pageable, Top ou First) e nao pode buscar colecoes via @FetchGraph.",
+                    repositoryElement.getQualifiedName(),
+                    method.getSimpleName()
+            );
+            return false;
+        }
+
+        return true;
+    }
+
+    private boolean isFetchableAttribute(VariableElement field){
+        return isAnnotationPresent(field, OneToMany.class)
+                || isAnnotationPresent(field, ManyToMany.class)
+                || isAnnotationPresent(field, ManyToOne.class)
+                || isAnnotationPresent(field, OneToOne.class)
+                || isAnnotationPresent(field, ElementCollection.class);
+    }
+
+    private boolean validCacheableMethod(TypeElement repositoryElement, ExecutableElement method, TypeMirror entityType){
+        AnnotationMirror cacheable = getAnnotationPresent(method, Cacheable.class);
+        if (cacheable == null) return true;
+
+        AnnotationMirror queryAnnotation = getAnnotationPresent(method, Query.class);
+        ParsedQueryMethod parsed = parseQueryMethodName(method.getSimpleName().toString(), (TypeElement) ((DeclaredType) entityType).asElement());
+        TypeMirror returnType = resolveReturnType(method, processingEnv);
+
+        boolean writes = (queryAnnotation != null)
+                ? isDmlQuery(getAnnotationsValue(queryAnnotation, "value"))
+                : (parsed != null && parsed.isWrite());
+
+        if (writes || returnType.getKind() == TypeKind.VOID || isStream(returnType, processingEnv)) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "@Cacheable so pode ser usado em consultas que retornam valores reutilizaveis (metodo '%s').",
+                    repositoryElement.getQualifiedName(),
+                    method.getSimpleName()
+            );
+            return false;
+        }
+
+        // o cache guarda apenas identificadores e recarrega as entidades a cada acerto: sem o cache de segundo nivel
+        // cada acerto voltaria ao banco
+        TypeElement cachedEntity = resolveCachedEntity(returnType);
+        if (cachedEntity != null && !isSecondLevelCacheable(cachedEntity)) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "@Cacheable no metodo '%s' retorna a entidade %s, que nao esta anotada com jakarta.persistence.Cacheable.",
+                    repositoryElement.getQualifiedName(),
+                    method.getSimpleName(),
+                    cachedEntity.getQualifiedName()
+            );
+            return false;
+        }
+
+        Long ttl = getAnnotationsValue(cacheable, "ttl");
+        VariableElement unit = getAnnotationsValue(cacheable, "unit");
+        long ttlMillis = TimeUnit.valueOf((unit != null) ? unit.getSimpleName().toString() : "SECONDS")
+                .toMillis((ttl != null) ? ttl : 60L);
+
+        // o ttl e resolvido em milissegundos: valores menores que 1 ms desligariam o cache silenciosamente
+        if (ttlMillis < 1) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "O ttl de @Cacheable no metodo '%s' deve ser de ao menos 1 ms.",
+                    repositoryElement.getQualifiedName(),
+                    method.getSimpleName()
+            );
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Entidade retornada pelo metodo, diretamente ou como elemento de {@code Optional}, colecao, {@code Page},
+     * {@code Slice} ou valor de {@code Map}; nulo quando o retorno nao e uma entidade.
+     */
+    private TypeElement resolveCachedEntity(TypeMirror returnType) {
+        TypeMirror elementType = returnType;
+        if (isRawTypeOf(returnType, Page.class) || isRawTypeOf(returnType, Slice.class)
+                || isCollection(returnType, processingEnv) || isOptional(returnType, processingEnv)) {
+            List<TypeMirror> genericTypes = getGenericTypes(returnType);
+            elementType = genericTypes.isEmpty() ? null : genericTypes.getFirst();
+        } else if (isRawTypeOf(returnType, Map.class)) {
+            List<TypeMirror> genericTypes = getGenericTypes(returnType);
+            elementType = genericTypes.isEmpty() ? null : genericTypes.getLast();
+        }
+
+        if (!(elementType instanceof DeclaredType declaredType)
+                || !(declaredType.asElement() instanceof TypeElement typeElement)
+                || !isAnnotationPresent(typeElement, Entity.class)) {
+            return null;
+        }
+        return typeElement;
+    }
+
+    private boolean isSecondLevelCacheable(TypeElement entityElement) {
+        AnnotationMirror cacheable = getAnnotationPresent(entityElement, jakarta.persistence.Cacheable.class);
+        if (cacheable == null) return false;
+
+        Boolean value = getAnnotationsValue(cacheable, "value");
+        return value == null || value;
+    }
+
+    private boolean isDmlQuery(String query) {
+        if (query == null) return false;
+
+        String trimmed = query.trim().toUpperCase();
+        return trimmed.startsWith("UPDATE")
+                || trimmed.startsWith("DELETE")
+                || trimmed.startsWith("INSERT");
+    }
+
+    private boolean validPagingParameters(TypeElement repositoryElement, ExecutableElement method, TypeMirror entityType, boolean nativeQuery){
+        long pageableCount = method.getParameters().stream()
+                .filter(param -> isRawTypeOf(param.asType(), Pageable.class))
+                .count();
+        long sortCount = method.getParameters().stream()
+                .filter(param -> isRawTypeOf(param.asType(), Sort.class))
+                .count();
+
+        TypeMirror returnType = resolveReturnType(method, processingEnv);
+        boolean pagedReturn = isRawTypeOf(returnType, Page.class) || isRawTypeOf(returnType, Slice.class);
+
+        if (pageableCount > 1 || sortCount > 1) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "O metodo '%s' deve declarar no maximo um Pageable e um Sort.",
+                    repositoryElement.getQualifiedName(),
+                    method.getSimpleName()
+            );
+            return false;
+        }
+
+        if (pagedReturn && pageableCount == 0) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "O metodo '%s' retorna %s e deve declarar um parametro Pageable.",
+                    repositoryElement.getQualifiedName(),
+                    method.getSimpleName(),
+                    returnType
+            );
+            return false;
+        }
+
+        if (pageableCount + sortCount == 0) {
+            return true;
+        }
+
+        ParsedQueryMethod parsed = parseQueryMethodName(method.getSimpleName().toString(), (TypeElement) ((DeclaredType) entityType).asElement());
+        boolean selectMethod = getAnnotationPresent(method, Query.class) != null || (parsed != null && parsed.prefix().equals("findBy"));
+
+        if (!selectMethod || returnType.getKind() == TypeKind.VOID || isPrimitiveAggregate(returnType)) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "Pageable e Sort so podem ser usados em consultas que retornam entidades (metodo '%s').",
+                    repositoryElement.getQualifiedName(),
+                    method.getSimpleName()
+            );
+            return false;
+        }
+
+        if (nativeQuery && sortCount > 0) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "Sort nao e suportado em query nativa (metodo '%s'); declare o ORDER BY na propria query.",
+                    repositoryElement.getQualifiedName(),
+                    method.getSimpleName()
+            );
+            return false;
+        }
+
+        return true;
+    }
+
+    private boolean validDerivedQueryReturnType(TypeElement repositoryElement, ExecutableElement method, ParsedQueryMethod parsed){
+        TypeMirror returnType = normalizePrimitive(resolveReturnType(method, processingEnv), processingEnv.getTypeUtils());
+        String returnTypeName = returnType.toString();
+
+        if (parsed.prefix().equals("existsBy") && !returnTypeName.equals(Boolean.class.getName())) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "O metodo '%s' deve retornar boolean, encontrado: %s.",
+                    repositoryElement.getQualifiedName(),
+                    method.getSimpleName(),
+                    method.getReturnType()
+            );
+            return false;
+        }
+
+        if (parsed.isUpdate()
+                && returnType.getKind() != TypeKind.VOID
+                && !returnTypeName.equals(Integer.class.getName())
+                && !returnTypeName.equals(Long.class.getName())) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "O metodo '%s' deve retornar int, long ou void (quantidade de linhas alteradas), encontrado: %s.",
+                    repositoryElement.getQualifiedName(),
+                    method.getSimpleName(),
+                    method.getReturnType()
+            );
+            return false;
+        }
+
+        if (parsed.prefix().equals("countBy") && !returnTypeName.equals(Long.class.getName())) {
+            error(
+                    method,
+                    "Metodo de repositorio invalido em %s. " +
+                            "O metodo '%s' deve retornar long, encontrado: %s.",
+                    repositoryElement.getQualifiedName(),
+                    method.getSimpleName(),
+                    method.getReturnType()
+            );
+            return false;
+        }
 
         return true;
     }
 
     private boolean validJpqlParamsCountAndNames(Set<String> queryParams, ExecutableElement method){
-        List<? extends VariableElement> methodParams = method.getParameters();
+        List<? extends VariableElement> methodParams = method.getParameters().stream()
+                .filter(param -> !isPagingParameter(param))
+                .toList();
         boolean valid = true;
 
         for (VariableElement param : methodParams) {
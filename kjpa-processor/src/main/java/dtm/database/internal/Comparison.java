@@ -0,0 +1,125 @@
+package dtm.database.internal;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Operador de comparacao de um criterio derivado, identificado pelo sufixo da propriedade
+ * ({@code findByCriadoEmAfter}, {@code findByStatusIn}). {@code arity} e a quantidade de parametros consumidos.
+ */
+public enum Comparison {
+
+    EQUALS("", 1),
+    NOT("Not", 1),
+    GREATER_THAN("GreaterThan", 1),
+    GREATER_THAN_EQUAL("GreaterThanEqual", 1),
+    LESS_THAN("LessThan", 1),
+    LESS_THAN_EQUAL("LessThanEqual", 1),
+    AFTER("After", 1),
+    BEFORE("Before", 1),
+    BETWEEN("Between", 2),
+    IN("In", 1),
+    NOT_IN("NotIn", 1),
+    LIKE("Like", 1),
+    NOT_LIKE("NotLike", 1),
+    STARTING_WITH("StartingWith", 1),
+    ENDING_WITH("EndingWith", 1),
+    CONTAINING("Containing", 1),
+    IS_NULL("IsNull", 0),
+    IS_NOT_NULL("IsNotNull", 0);
+
+    // sufixos mais longos primeiro: NotIn antes de In, GreaterThanEqual antes de GreaterThan
+    private static final List<Comparison> BY_KEYWORD_LENGTH = Arrays.stream(values())
+            .filter(comparison -> !comparison.keyword.isEmpty())
+            .sorted(Comparator.comparingInt((Comparison comparison) -> comparison.keyword.length()).reversed())
+            .toList();
+
+    private final String keyword;
+    private final int arity;
+
+    Comparison(String keyword, int arity) {
+        this.keyword = keyword;
+        this.arity = arity;
+    }
+
+    public String keyword() {
+        return keyword;
+    }
+
+    public int arity() {
+        return arity;
+    }
+
+    /**
+     * Comparacao cujo sufixo termina {@code token}, deixando ao menos um caractere de propriedade; {@link #EQUALS} quando nenhum casa.
+     */
+    public static Comparison fromToken(String token) {
+        for (Comparison comparison : BY_KEYWORD_LENGTH) {
+            if (token.length() > comparison.keyword.length() && token.endsWith(comparison.keyword)) {
+                return comparison;
+            }
+        }
+        return EQUALS;
+    }
+
+    /**
+     * Igual a {@link #fromToken(String)}, aceitando um sufixo apenas quando o restante do {@code token} e uma
+     * propriedade segundo {@code isProperty}; se o proprio {@code token} for uma propriedade ({@code LoggedIn},
+     * {@code OptIn}), o criterio e uma igualdade. Sem nenhuma propriedade reconhecida, vale o sufixo mais longo,
+     * para que o erro aponte a propriedade inexistente.
+     */
+    public static Comparison fromToken(String token, Predicate<String> isProperty) {
+        for (Comparison comparison : BY_KEYWORD_LENGTH) {
+            if (token.length() > comparison.keyword.length() && token.endsWith(comparison.keyword)
+                    && isProperty.test(token.substring(0, token.length() - comparison.keyword.length()))) {
+                return comparison;
+            }
+        }
+        return isProperty.test(token) ? EQUALS : fromToken(token);
+    }
+
+    public boolean isOrdering() {
+        return switch (this) {
+            case GREATER_THAN, GREATER_THAN_EQUAL, LESS_THAN, LESS_THAN_EQUAL, AFTER, BEFORE, BETWEEN -> true;
+            default -> false;
+        };
+    }
+
+    public boolean isCollection() {
+        return this == IN || this == NOT_IN;
+    }
+
+    public boolean isPattern() {
+        return switch (this) {
+            case LIKE, NOT_LIKE, STARTING_WITH, ENDING_WITH, CONTAINING -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Trecho JPQL do criterio sobre {@code path}, usando os {@link #arity()} placeholders informados.
+     */
+    public String toJpql(String path, List<String> placeholders) {
+        String first = placeholders.isEmpty() ? null : ":" + placeholders.getFirst();
+        return switch (this) {
+            case EQUALS -> path + " = " + first;
+            case NOT -> path + " <> " + first;
+            case GREATER_THAN, AFTER -> path + " > " + first;
+            case GREATER_THAN_EQUAL -> path + " >= " + first;
+            case LESS_THAN, BEFORE -> path + " < " + first;
+            case LESS_THAN_EQUAL -> path + " <= " + first;
+            case BETWEEN -> path + " BETWEEN " + first + " AND :" + placeholders.get(1);
+            case IN -> path + " IN " + first;
+            case NOT_IN -> path + " NOT IN " + first;
+            case LIKE -> path + " LIKE " + first;
+            case NOT_LIKE -> path + " NOT LIKE " + first;
+            case STARTING_WITH -> path + " LIKE CONCAT(" + first + ", '%')";
+            case ENDING_WITH -> path + " LIKE CONCAT('%', " + first + ")";
+            case CONTAINING -> path + " LIKE CONCAT('%', " + first + ", '%')";
+            case IS_NULL -> path + " IS NULL";
+            case IS_NOT_NULL -> path + " IS NOT NULL";
+        };
+    }
+}
@@ -0,0 +1,6 @@
+package dtm.database.internal;
+
+public record OrderProperty(
+        String property,
+        boolean descending
+) {}
@@ -1,10 +1,62 @@
 package dtm.database.internal;
 
 import java.util.List;
+import java.util.Set;
 
+/**
+ * Nome de metodo derivado decomposto. {@code properties} contem os campos dos criterios, ja sem o sufixo do operador,
+ * e {@code comparisons} o operador de cada um, na mesma posicao. {@code updateProperties} contem os campos do {@code SET}
+ * dos metodos {@code update...By...}; {@code aggregateProperty} e {@code groupByProperty} descrevem os
+ * metodos de agregacao ({@code sumValorByStatus}, {@code countGroupedByStatus}) e sao nulos nos demais prefixos.
+ * {@code orderBy}, {@code distinct} e {@code maxResults} ({@code 0} quando sem limite) so sao preenchidos no {@code findBy}.
+ */
 public record ParsedQueryMethod(
         String prefix,
         List<String> properties,
-        List<String> operators
-) {}
+        List<Comparison> comparisons,
+        List<String> operators,
+        List<String> updateProperties,
+        String aggregateProperty,
+        String groupByProperty,
+        List<OrderProperty> orderBy,
+        boolean distinct,
+        int maxResults
+) {
 
+    public static final Set<String> AGGREGATE_FUNCTIONS = Set.of("sum", "avg", "min", "max", "count");
+
+    public ParsedQueryMethod(String prefix, List<String> properties, List<Comparison> comparisons, List<String> operators) {
+        this(prefix, properties, comparisons, operators, List.of(), null, null, List.of(), false, 0);
+    }
+
+    public ParsedQueryMethod(String prefix, List<String> properties, List<Comparison> comparisons, List<String> operators, List<String> updateProperties) {
+        this(prefix, properties, comparisons, operators, updateProperties, null, null, List.of(), false, 0);
+    }
+
+    public boolean isUpdate() {
+        return !updateProperties.isEmpty();
+    }
+
+    public boolean isWrite() {
+        return isUpdate() || prefix.equals("deleteBy");
+    }
+
+    public boolean isAggregate() {
+        return AGGREGATE_FUNCTIONS.contains(prefix);
+    }
+
+    public boolean isGrouped() {
+        return groupByProperty != null;
+    }
+
+    public boolean isLimited() {
+        return maxResults > 0;
+    }
+
+    /**
+     * Parametros esperados no metodo, sem contar {@code Pageable} e {@code Sort}.
+     */
+    public int parameterCount() {
+        return updateProperties.size() + comparisons.stream().mapToInt(Comparison::arity).sum();
+    }
+}
@@ -0,0 +1,9 @@
+package dtm.database.internal;
+
+import javax.lang.model.type.TypeMirror;
+
+public record ProjectionProperty(
+        String name,
+        String accessor,
+        TypeMirror type
+) {}
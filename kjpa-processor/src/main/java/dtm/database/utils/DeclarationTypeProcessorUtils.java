@@ -1,10 +1,13 @@
 package dtm.database.utils;
 
+import dtm.database.internal.ProjectionProperty;
+
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.*;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import java.lang.annotation.Annotation;
@@ -176,6 +179,29 @@ public final class DeclarationTypeProcessorUtils {
         );
     }
 
+    public static boolean isStream(
+            TypeMirror typeMirror,
+            ProcessingEnvironment processingEnv
+    ) {
+        if (typeMirror.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+
+        Types types = processingEnv.getTypeUtils();
+        Elements elements = processingEnv.getElementUtils();
+
+        TypeElement streamElement = elements.getTypeElement(java.util.stream.Stream.class.getCanonicalName());
+
+        if (streamElement == null) {
+            return false;
+        }
+
+        return types.isSameType(
+                types.erasure(typeMirror),
+                types.erasure(streamElement.asType())
+        );
+    }
+
     public static String getSimpleName(TypeMirror type) {
         if (type.getKind() == TypeKind.DECLARED) {
             return ((DeclaredType) type).asElement().getSimpleName().toString();
@@ -205,6 +231,29 @@ public final class DeclarationTypeProcessorUtils {
         return null;
     }
 
+    /**
+     * Igual a {@link #findFristFieldWithAnnotation}, percorrendo tambem as superclasses ({@code @MappedSuperclass}).
+     */
+    public static VariableElement findFieldWithAnnotationInHierarchy(
+            TypeElement sourceElement,
+            Class<? extends Annotation> annotationClass
+    ){
+        TypeElement current = sourceElement;
+        while (current != null) {
+            VariableElement field = findFristFieldWithAnnotation(current, annotationClass);
+            if (field != null) {
+                return field;
+            }
+
+            TypeMirror superclass = current.getSuperclass();
+            current = (superclass instanceof DeclaredType declaredSuperclass)
+                    ? (TypeElement) declaredSuperclass.asElement()
+                    : null;
+        }
+
+        return null;
+    }
+
     public static TypeMirror normalizePrimitive(TypeMirror type, Types types) {
         if (type.getKind().isPrimitive()) {
             return types.boxedClass((javax.lang.model.type.PrimitiveType) type).asType();
@@ -267,6 +316,49 @@ public final class DeclarationTypeProcessorUtils {
                 || name.equals(BigDecimal.class.getName());
     }
 
+    public static boolean isRawTypeOf(TypeMirror typeMirror, Class<?> targetClass) {
+        if (!(typeMirror instanceof DeclaredType declaredType)) {
+            return false;
+        }
+
+        return ((TypeElement) declaredType.asElement())
+                .getQualifiedName()
+                .contentEquals(targetClass.getCanonicalName());
+    }
+
+    public static boolean isAsync(TypeMirror typeMirror) {
+        return isRawTypeOf(typeMirror, java.util.concurrent.CompletableFuture.class);
+    }
+
+    /**
+     * Tipo de retorno efetivo do metodo: em {@code CompletableFuture<T>} e o proprio {@code T}
+     * ({@code CompletableFuture<Void>} equivale a {@code void}).
+     */
+    public static TypeMirror resolveReturnType(ExecutableElement method, ProcessingEnvironment processingEnv) {
+        TypeMirror returnType = method.getReturnType();
+        if (!isAsync(returnType)) {
+            return returnType;
+        }
+
+        List<? extends TypeMirror> typeArguments = ((DeclaredType) returnType).getTypeArguments();
+        if (typeArguments.isEmpty() || isRawTypeOf(typeArguments.getFirst(), Void.class)) {
+            return processingEnv.getTypeUtils().getNoType(TypeKind.VOID);
+        }
+
+        TypeMirror payload = typeArguments.getFirst();
+        return (payload instanceof WildcardType wildcard && wildcard.getExtendsBound() != null)
+                ? wildcard.getExtendsBound()
+                : payload;
+    }
+
+    /**
+     * Parametros de paginacao/ordenacao sao consumidos pelo executor e nao fazem parte dos parametros da query.
+     */
+    public static boolean isPagingParameter(VariableElement parameter) {
+        return isRawTypeOf(parameter.asType(), dtm.database.repository.pagination.Pageable.class)
+                || isRawTypeOf(parameter.asType(), dtm.database.repository.pagination.Sort.class);
+    }
+
     public static boolean isSameRawType(
             TypeElement element,
             Class<?> targetClass,
@@ -324,6 +416,87 @@ public final class DeclarationTypeProcessorUtils {
         );
     }
 
+    /**
+     * Tipo efetivamente retornado por linha: o argumento generico de Optional, Collection, Stream,
+     * Page e Slice, ou o proprio tipo de retorno.
+     */
+    public static TypeMirror unwrapReturnPayload(TypeMirror returnType, ProcessingEnvironment processingEnv) {
+        if (!(returnType instanceof DeclaredType declaredType) || declaredType.getTypeArguments().size() != 1) {
+            return returnType;
+        }
+
+        boolean wrapper = isOptional(returnType, processingEnv)
+                || isCollection(returnType, processingEnv)
+                || isStream(returnType, processingEnv)
+                || isRawTypeOf(returnType, dtm.database.repository.pagination.Page.class)
+                || isRawTypeOf(returnType, dtm.database.repository.pagination.Slice.class);
+
+        return wrapper ? declaredType.getTypeArguments().getFirst() : returnType;
+    }
+
+    /**
+     * Retorna o record ou a interface de projecao retornado pelo metodo, ou {@code null}
+     * quando o metodo retorna a propria entidade ou um tipo que nao e projecao.
+     */
+    public static TypeElement findProjectionElement(TypeMirror returnType, TypeMirror entityType, ProcessingEnvironment processingEnv) {
+        TypeMirror payload = unwrapReturnPayload(returnType, processingEnv);
+        if (!(payload instanceof DeclaredType declaredPayload)) {
+            return null;
+        }
+
+        Types types = processingEnv.getTypeUtils();
+        if (types.isSameType(types.erasure(payload), types.erasure(entityType))) {
+            return null;
+        }
+
+        TypeElement payloadElement = (TypeElement) declaredPayload.asElement();
+        if (payloadElement.getQualifiedName().toString().startsWith("java.")) {
+            return null;
+        }
+
+        return switch (payloadElement.getKind()) {
+            case RECORD, INTERFACE -> payloadElement;
+            default -> null;
+        };
+    }
+
+    /**
+     * Propriedades de uma projecao na ordem de declaracao: componentes do record ou
+     * metodos abstratos sem parametros da interface ({@code getNome()}, {@code isAtivo()} ou {@code nome()}).
+     */
+    public static List<ProjectionProperty> getProjectionProperties(TypeElement projectionElement) {
+        List<ProjectionProperty> properties = new ArrayList<>();
+
+        if (projectionElement.getKind() == ElementKind.RECORD) {
+            for (RecordComponentElement component : projectionElement.getRecordComponents()) {
+                String name = component.getSimpleName().toString();
+                properties.add(new ProjectionProperty(name, name, component.asType()));
+            }
+            return properties;
+        }
+
+        for (Element enclosed : projectionElement.getEnclosedElements()) {
+            if (enclosed.getKind() != ElementKind.METHOD || !enclosed.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+
+            ExecutableElement accessor = (ExecutableElement) enclosed;
+            String accessorName = accessor.getSimpleName().toString();
+            properties.add(new ProjectionProperty(resolvePropertyName(accessorName), accessorName, accessor.getReturnType()));
+        }
+        return properties;
+    }
+
+    private static String resolvePropertyName(String accessorName) {
+        String property = accessorName;
+        if (accessorName.length() > 3 && accessorName.startsWith("get") && Character.isUpperCase(accessorName.charAt(3))) {
+            property = accessorName.substring(3);
+        } else if (accessorName.length() > 2 && accessorName.startsWith("is") && Character.isUpperCase(accessorName.charAt(2))) {
+            property = accessorName.substring(2);
+        }
+        return Character.toLowerCase(property.charAt(0)) + property.substring(1);
+    }
+
     public static VariableElement findEntityField(TypeElement entityElement, String property) {
         String fieldName =
                 Character.toLowerCase(property.charAt(0)) + property.substring(1);
@@ -1,16 +1,28 @@
 package dtm.database.utils;
 
+import dtm.database.internal.Comparison;
+import dtm.database.internal.OrderProperty;
 import dtm.database.internal.ParsedQueryMethod;
 
+import javax.lang.model.element.TypeElement;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public final class RepositoryMetadataExtractor {
 
+    public static final String UPDATE_PREFIX = "update";
+    public static final String FIND_BY_PREFIX = "findBy";
+    private static final String FIND_PREFIX = "find";
+    private static final String GROUPED_BY = "GroupedBy";
+    private static final String ORDER_BY = "OrderBy";
+    private static final Pattern FIND_SUBJECT = Pattern.compile("(Distinct)?((?:Top|First)(\\d*))?");
+    private static final Pattern ORDER_PROPERTY = Pattern.compile("([A-Z][A-Za-z0-9]*?)(Asc|Desc)(?=[A-Z]|$)|([A-Z][A-Za-z0-9]*)$");
+
     private RepositoryMetadataExtractor(){
         throw new UnsupportedOperationException("utility class");
     }
@@ -25,8 +37,36 @@ public final class RepositoryMetadataExtractor {
     }
 
     public static ParsedQueryMethod parseQueryMethodName(String methodName) {
+        return parseQueryMethodName(methodName, property -> true);
+    }
+
+    /**
+     * Decompoe o nome do metodo reconhecendo como propriedades os campos de {@code entityElement}.
+     */
+    public static ParsedQueryMethod parseQueryMethodName(String methodName, TypeElement entityElement) {
+        return parseQueryMethodName(methodName, property -> DeclarationTypeProcessorUtils.findEntityField(entityElement, property) != null);
+    }
+
+    /**
+     * Igual a {@link #parseQueryMethodName(String)}, aceitando o sufixo de um operador apenas quando o restante do
+     * criterio e uma propriedade segundo {@code isProperty}: {@code findByLoggedIn} compara o campo {@code loggedIn}
+     * por igualdade em vez de aplicar {@code IN} a um campo {@code logged}.
+     */
+    public static ParsedQueryMethod parseQueryMethodName(String methodName, Predicate<String> isProperty) {
+        if (methodName.startsWith(UPDATE_PREFIX)) {
+            return parseUpdateMethodName(methodName, isProperty);
+        }
+
+        ParsedQueryMethod aggregate = parseAggregateMethodName(methodName, isProperty);
+        if (aggregate != null) {
+            return aggregate;
+        }
+
+        if (methodName.startsWith(FIND_PREFIX)) {
+            return parseFindMethodName(methodName, isProperty);
+        }
+
         String[] supportedPrefixes = {
-                "findBy",
                 "countBy",
                 "existsBy",
                 "deleteBy"
@@ -50,25 +90,212 @@ public final class RepositoryMetadataExtractor {
         }
 
         List<String> properties = new ArrayList<>();
+        List<Comparison> comparisons = new ArrayList<>();
+        List<String> operators = new ArrayList<>();
+        if (!parseCriteria(criteria, properties, comparisons, operators, isProperty)) {
+            return null;
+        }
+
+        return new ParsedQueryMethod(prefix, properties, comparisons, operators);
+    }
+
+    /**
+     * {@code find[Distinct][Top|First[N]]By[Criterios][OrderBy<Campo>[Asc|Desc]...]}. Os criterios podem ser omitidos
+     * quando ha ordenacao ou limite ({@code findTop10ByOrderByCriadoEmDesc}); {@code Top} e {@code First} sem numero limitam a 1.
+     */
+    private static ParsedQueryMethod parseFindMethodName(String methodName, Predicate<String> isProperty) {
+        int byIndex = indexOfBy(methodName, FIND_PREFIX.length());
+        if (byIndex < 0) {
+            return null;
+        }
+
+        Matcher subject = FIND_SUBJECT.matcher(methodName.substring(FIND_PREFIX.length(), byIndex));
+        if (!subject.matches()) {
+            return null;
+        }
+
+        boolean distinct = subject.group(1) != null;
+        int maxResults = 0;
+        if (subject.group(2) != null) {
+            maxResults = subject.group(3).isEmpty() ? 1 : Integer.parseInt(subject.group(3));
+            if (maxResults <= 0) return null;
+        }
+
+        String body = methodName.substring(byIndex + 2);
+        String criteria = body;
+        List<OrderProperty> orderBy = List.of();
+
+        int orderIndex = indexOfOrderBy(body);
+        if (orderIndex >= 0) {
+            criteria = body.substring(0, orderIndex);
+            orderBy = parseOrderBy(body.substring(orderIndex + ORDER_BY.length()));
+            if (orderBy == null) return null;
+        }
+
+        if (criteria.isEmpty() && orderBy.isEmpty() && maxResults == 0) {
+            return null;
+        }
+
+        List<String> properties = new ArrayList<>();
+        List<Comparison> comparisons = new ArrayList<>();
+        List<String> operators = new ArrayList<>();
+        if (!criteria.isEmpty() && !parseCriteria(criteria, properties, comparisons, operators, isProperty)) {
+            return null;
+        }
+
+        return new ParsedQueryMethod(
+                FIND_BY_PREFIX,
+                properties,
+                comparisons,
+                operators,
+                List.of(),
+                null,
+                null,
+                orderBy,
+                distinct,
+                maxResults
+        );
+    }
+
+    private static int indexOfOrderBy(String value) {
+        for (int i = 0; i + ORDER_BY.length() < value.length(); i++) {
+            if (value.startsWith(ORDER_BY, i) && Character.isUpperCase(value.charAt(i + ORDER_BY.length()))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * {@code <Campo>[Asc|Desc]} repetido; a direcao separa os campos e so pode ser omitida no ultimo.
+     */
+    private static List<OrderProperty> parseOrderBy(String clause) {
+        List<OrderProperty> orders = new ArrayList<>();
+        Matcher matcher = ORDER_PROPERTY.matcher(clause);
+        int end = 0;
+        while (end < clause.length() && matcher.find(end) && matcher.start() == end) {
+            String property = (matcher.group(1) != null) ? matcher.group(1) : matcher.group(3);
+            orders.add(new OrderProperty(property, "Desc".equals(matcher.group(2))));
+            end = matcher.end();
+        }
+        return (end == clause.length() && !orders.isEmpty()) ? orders : null;
+    }
+
+    /**
+     * {@code update<Campo>[And<Campo>...]By<Criterios>}: os campos antes do primeiro {@code By} formam o {@code SET}
+     * e recebem os primeiros parametros do metodo; os criterios seguem as mesmas regras do {@code findBy}.
+     */
+    private static ParsedQueryMethod parseUpdateMethodName(String methodName, Predicate<String> isProperty) {
+        String body = methodName.substring(UPDATE_PREFIX.length());
+
+        int byIndex = indexOfBy(body, 1);
+
+        if (byIndex < 0 || !Character.isUpperCase(body.charAt(0))) {
+            return null;
+        }
+
+        List<String> updateProperties = new ArrayList<>();
+        for (String property : body.substring(0, byIndex).split("And(?=[A-Z])")) {
+            if (property.isEmpty()) return null;
+            updateProperties.add(property);
+        }
+
+        List<String> properties = new ArrayList<>();
+        List<Comparison> comparisons = new ArrayList<>();
         List<String> operators = new ArrayList<>();
+        if (!parseCriteria(body.substring(byIndex + 2), properties, comparisons, operators, isProperty)) {
+            return null;
+        }
+
+        return new ParsedQueryMethod(UPDATE_PREFIX, properties, comparisons, operators, updateProperties);
+    }
+
+    /**
+     * {@code <funcao><Campo>[By<Criterios>][GroupedBy<Campo>]}, com funcao {@code sum}, {@code avg}, {@code min},
+     * {@code max} ou {@code count}. O {@code count} nao recebe campo e so e tratado aqui quando agrupado;
+     * {@code countBy...} sem agrupamento continua sendo o prefixo comum.
+     */
+    private static ParsedQueryMethod parseAggregateMethodName(String methodName, Predicate<String> isProperty) {
+        for (String function : ParsedQueryMethod.AGGREGATE_FUNCTIONS) {
+            if (!methodName.startsWith(function) || methodName.length() == function.length()) continue;
+            if (!Character.isUpperCase(methodName.charAt(function.length()))) continue;
+
+            String body = methodName.substring(function.length());
+            String groupByProperty = null;
 
+            int groupedIndex = body.lastIndexOf(GROUPED_BY);
+            if (groupedIndex >= 0) {
+                groupByProperty = body.substring(groupedIndex + GROUPED_BY.length());
+                body = body.substring(0, groupedIndex);
+                if (groupByProperty.isEmpty()) return null;
+            }
+
+            boolean count = function.equals("count");
+            if (count && groupByProperty == null) return null;
+
+            int byIndex = indexOfBy(body, 0);
+            String aggregateProperty = (byIndex < 0) ? body : body.substring(0, byIndex);
+            String criteria = (byIndex < 0) ? "" : body.substring(byIndex + 2);
+
+            if (count != aggregateProperty.isEmpty()) return null;
+            if (byIndex >= 0 && criteria.isEmpty()) return null;
+
+            List<String> properties = new ArrayList<>();
+            List<Comparison> comparisons = new ArrayList<>();
+            List<String> operators = new ArrayList<>();
+            if (!criteria.isEmpty() && !parseCriteria(criteria, properties, comparisons, operators, isProperty)) {
+                return null;
+            }
+
+            return new ParsedQueryMethod(
+                    function,
+                    properties,
+                    comparisons,
+                    operators,
+                    List.of(),
+                    count ? null : aggregateProperty,
+                    groupByProperty,
+                    List.of(),
+                    false,
+                    0
+            );
+        }
+
+        return null;
+    }
+
+    /**
+     * Posicao do primeiro {@code By} seguido de letra maiuscula a partir de {@code start}, ou {@code -1}.
+     */
+    private static int indexOfBy(String value, int start) {
+        for (int i = start; i + 2 < value.length(); i++) {
+            if (value.startsWith("By", i) && Character.isUpperCase(value.charAt(i + 2))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Separa os criterios em {@code And}/{@code Or} (seguidos de letra maiuscula) e o sufixo de operador
+     * de cada propriedade. Retorna {@code false} quando algum criterio fica sem propriedade.
+     */
+    private static boolean parseCriteria(String criteria, List<String> properties, List<Comparison> comparisons, List<String> operators, Predicate<String> isProperty) {
         int index = 0;
         StringBuilder current = new StringBuilder();
 
         while (index < criteria.length()) {
 
-            if (criteria.startsWith("And", index)) {
-                properties.add(current.toString());
+            if (isOperatorAt(criteria, "And", index)) {
+                if (!addCriterion(current, properties, comparisons, isProperty)) return false;
                 operators.add("AND");
-                current.setLength(0);
                 index += 3;
                 continue;
             }
 
-            if (criteria.startsWith("Or", index)) {
-                properties.add(current.toString());
+            if (isOperatorAt(criteria, "Or", index)) {
+                if (!addCriterion(current, properties, comparisons, isProperty)) return false;
                 operators.add("OR");
-                current.setLength(0);
                 index += 2;
                 continue;
             }
@@ -77,11 +304,28 @@ public final class RepositoryMetadataExtractor {
             index++;
         }
 
-        if (!current.isEmpty()) {
-            properties.add(current.toString());
+        return addCriterion(current, properties, comparisons, isProperty);
+    }
+
+    private static boolean isOperatorAt(String criteria, String operator, int index) {
+        int next = index + operator.length();
+        return index > 0
+                && criteria.startsWith(operator, index)
+                && next < criteria.length()
+                && Character.isUpperCase(criteria.charAt(next));
+    }
+
+    private static boolean addCriterion(StringBuilder current, List<String> properties, List<Comparison> comparisons, Predicate<String> isProperty) {
+        String token = current.toString();
+        current.setLength(0);
+        if (token.isEmpty()) {
+            return false;
         }
 
-        return new ParsedQueryMethod(prefix, properties, operators);
+        Comparison comparison = Comparison.fromToken(token, isProperty);
+        properties.add(token.substring(0, token.length() - comparison.keyword().length()));
+        comparisons.add(comparison);
+        return true;
     }
 
 }
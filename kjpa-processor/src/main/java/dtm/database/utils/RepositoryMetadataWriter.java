@@ -2,18 +2,36 @@ package dtm.database.utils;
 
 
 import dtm.database.annotations.AutoFlush;
+import dtm.database.annotations.Cacheable;
+import dtm.database.annotations.FetchGraph;
 import dtm.database.annotations.Query;
 import dtm.database.annotations.QueryParam;
+import dtm.database.annotations.ReadOnly;
+import dtm.database.internal.Comparison;
 import dtm.database.internal.JavaCode;
+import dtm.database.internal.OrderProperty;
 import dtm.database.internal.ParsedQueryMethod;
+import dtm.database.internal.ProjectionProperty;
+import dtm.database.repository.execution.QueryBinder;
+import dtm.database.repository.execution.RepositoryExecutor;
+import dtm.database.repository.execution.RepositoryMethodInvoker;
+import dtm.database.repository.pagination.Page;
+import dtm.database.repository.pagination.Pageable;
+import dtm.database.repository.pagination.Slice;
+import dtm.database.repository.pagination.Sort;
 import dtm.database.repository.prototype.OperationType;
 import dtm.database.repository.prototype.RepositoryMetaInfoManager;
 import dtm.database.repository.prototype.RepositoryMetainfo;
 import dtm.database.repository.prototype.ReturnStrategy;
+import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.DeclaredType;
@@ -22,9 +40,11 @@ import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Types;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static dtm.database.utils.DeclarationTypeProcessorUtils.*;
@@ -38,6 +58,11 @@ public final class RepositoryMetadataWriter {
     private final String entitySimpleName;
     private final TypeMirror idEntityType;
     private final TypeMirror entityType;
+    private final TypeElement entityElement;
+    private final String idAttribute;
+    private final boolean primitiveId;
+    private final String versionAttribute;
+    private final boolean primitiveVersion;
     private final TypeElement repositoryElement;
     private final List<Object> templateArgs;
     private final Types types;
@@ -60,6 +85,14 @@ public final class RepositoryMetadataWriter {
         this.entityName = entityType.toString();
         this.entitySimpleName = ((DeclaredType) entityType).asElement().getSimpleName().toString();
         this.templateArgs = new ArrayList<>();
+
+        this.entityElement = (TypeElement) ((DeclaredType) entityType).asElement();
+        VariableElement idField = findFieldWithAnnotationInHierarchy(entityElement, Id.class);
+        VariableElement versionField = findFieldWithAnnotationInHierarchy(entityElement, Version.class);
+        this.idAttribute = (idField != null) ? idField.getSimpleName().toString() : "id";
+        this.primitiveId = idField != null && idField.asType().getKind().isPrimitive();
+        this.versionAttribute = (versionField != null) ? versionField.getSimpleName().toString() : null;
+        this.primitiveVersion = versionField != null && versionField.asType().getKind().isPrimitive();
     }
 
     public JavaCode getJavaCode(){
@@ -73,6 +106,10 @@ public final class RepositoryMetadataWriter {
         templateArgs.add(generateMetadataEntries());
         templateArgs.add(entityName+".class");
         templateArgs.add(idEntityType+".class");
+        templateArgs.add("\"" + idAttribute + "\"");
+        templateArgs.add((versionAttribute != null) ? "\"" + versionAttribute + "\"" : "null");
+        templateArgs.add(String.valueOf(primitiveId));
+        templateArgs.add(String.valueOf(primitiveVersion));
 
 
         String baseTemplateClass = getTemplateClass();
@@ -86,6 +123,314 @@ public final class RepositoryMetadataWriter {
         return new JavaCode(className, GENERATED_PACKAGE, content);
     }
 
+    /**
+     * Gera a implementacao concreta {@code XxxRepositoryImpl}, usada no lugar do JDK Proxy.
+     * Retorna {@code null} quando a interface nao pode ser implementada fora do seu pacote.
+     */
+    public JavaCode getImplementationJavaCode(List<ExecutableElement> allMethods){
+        if (!canGenerateImplementation(allMethods)) {
+            return null;
+        }
+
+        String className = repositoryElement.getSimpleName() + "Impl";
+        DeclaredType repositoryType = (DeclaredType) repositoryElement.asType();
+
+        StringBuilder fields = new StringBuilder();
+        StringBuilder initializers = new StringBuilder();
+        StringBuilder implementations = new StringBuilder();
+
+        int index = 0;
+        for (ExecutableElement method : allMethods) {
+            if (!isAbstractMethod(method)) continue;
+
+            ExecutableType executableType = (ExecutableType) types.asMemberOf(repositoryType, method);
+
+            String invokerField = "invoker" + index++;
+            String signature = resolveSignatureKey(method);
+
+            fields.append("    private final ").append(RepositoryMethodInvoker.class.getSimpleName())
+                    .append(" ").append(invokerField).append(";\n");
+
+            initializers.append("        this.").append(invokerField).append(" = executor.invoker(\"")
+                    .append(signature).append("\");\n");
+
+            appendMethodImplementation(implementations, method, executableType, invokerField);
+        }
+
+        String content = String.format(
+                getImplementationTemplateClass(),
+                GENERATED_PACKAGE,
+                RepositoryExecutor.class.getName(),
+                RepositoryMethodInvoker.class.getName(),
+                className,
+                repositoryElement.getQualifiedName(),
+                fields,
+                initializers,
+                implementations,
+                repositoryElement.getSimpleName(),
+                QueryBinder.class.getName()
+        );
+
+        return new JavaCode(className, GENERATED_PACKAGE, content);
+    }
+
+    /**
+     * Gera as classes concretas das interfaces de projecao usadas pelos metodos derivados,
+     * instanciadas diretamente pela expressao {@code SELECT new} sem reflexao ou proxies.
+     */
+    public List<JavaCode> getProjectionJavaCodes(){
+        Map<String, JavaCode> projections = new LinkedHashMap<>();
+
+        for (ExecutableElement method : methods) {
+            if (isCrudRepositoryMethod(method) || getAnnotationPresent(method, Query.class) != null) continue;
+
+            TypeElement projectionElement = findProjectionElement(resolveReturnType(method, processingEnv), entityType, processingEnv);
+            if (projectionElement == null || projectionElement.getKind() != ElementKind.INTERFACE) continue;
+
+            projections.computeIfAbsent(
+                    projectionElement.getQualifiedName().toString(),
+                    ignored -> generateProjectionImplementation(projectionElement)
+            );
+        }
+
+        return List.copyOf(projections.values());
+    }
+
+    private JavaCode generateProjectionImplementation(TypeElement projectionElement){
+        String className = getProjectionSimpleClassName(projectionElement);
+        List<ProjectionProperty> properties = getProjectionProperties(projectionElement);
+
+        StringBuilder fields = new StringBuilder();
+        StringBuilder constructorParams = new StringBuilder();
+        StringBuilder assignments = new StringBuilder();
+        StringBuilder accessors = new StringBuilder();
+        StringBuilder toString = new StringBuilder();
+
+        for (int i = 0; i < properties.size(); i++) {
+            ProjectionProperty property = properties.get(i);
+            String fieldType = findEntityField(entityElement, property.name()).asType().toString();
+
+            fields.append("    private final ").append(fieldType).append(" ").append(property.name()).append(";\n");
+
+            if (i > 0) {
+                constructorParams.append(", ");
+                toString.append(" + \", ");
+            }
+            constructorParams.append(fieldType).append(" ").append(property.name());
+            assignments.append("        this.").append(property.name()).append(" = ").append(property.name()).append(";\n");
+            toString.append(i == 0 ? "\"" : "").append(property.name()).append("=\" + this.").append(property.name());
+
+            accessors.append("\n    @Override\n")
+                    .append("    public ").append(property.type()).append(" ").append(property.accessor()).append("() {\n")
+                    .append("        return this.").append(property.name()).append(";\n")
+                    .append("    }\n");
+        }
+
+        String content = String.format(
+                getProjectionTemplateClass(),
+                GENERATED_PACKAGE,
+                className,
+                projectionElement.getQualifiedName(),
+                fields,
+                constructorParams,
+                assignments,
+                accessors,
+                projectionElement.getSimpleName(),
+                toString
+        );
+
+        return new JavaCode(className, GENERATED_PACKAGE, content);
+    }
+
+    private String getProjectionTemplateClass(){
+        return
+        """
+        package %1$s;
+
+        public final class %2$s implements %3$s {
+
+        %4$s
+            public %2$s(%5$s) {
+        %6$s    }
+        %7$s
+            @Override
+            public String toString() {
+                return "%8$s[" + %9$s + "]";
+            }
+
+        }
+        """;
+    }
+
+    private String getProjectionSimpleClassName(TypeElement projectionElement){
+        return repositoryElement.getSimpleName() + projectionElement.getSimpleName() + "Projection";
+    }
+
+    /**
+     * Classe instanciada pela projecao: o proprio record ou a implementacao gerada da interface.
+     */
+    private String resolveProjectionClassName(TypeElement projectionElement){
+        if (projectionElement.getKind() == ElementKind.RECORD) {
+            return projectionElement.getQualifiedName().toString();
+        }
+        return GENERATED_PACKAGE + "." + getProjectionSimpleClassName(projectionElement);
+    }
+
+    private String generateProjectionSelection(TypeElement projectionElement, String alias){
+        String constructorClass = (projectionElement.getKind() == ElementKind.RECORD)
+                ? processingEnv.getElementUtils().getBinaryName(projectionElement).toString()
+                : resolveProjectionClassName(projectionElement);
+
+        return getProjectionProperties(projectionElement).stream()
+                .map(property -> alias + "." + property.name())
+                .collect(Collectors.joining(", ", "new " + constructorClass + "(", ")"));
+    }
+
+    private String getImplementationTemplateClass(){
+        return
+        """
+        package %1$s;
+
+        import %2$s;
+        import %3$s;
+        import %10$s;
+
+        @SuppressWarnings("unchecked")
+        public final class %4$s implements %5$s {
+
+            private final RepositoryExecutor executor;
+        %6$s
+            public %4$s(RepositoryExecutor executor) {
+                this.executor = executor;
+        %7$s
+            }
+        %8$s
+            @Override
+            public String toString() {
+                return "GeneratedRepository<%9$s>";
+            }
+
+        }
+        """;
+    }
+
+    private boolean canGenerateImplementation(List<ExecutableElement> allMethods){
+        if (!repositoryElement.getModifiers().contains(Modifier.PUBLIC)) return false;
+        if (repositoryElement.getEnclosingElement().getKind() != ElementKind.PACKAGE) return false;
+
+        for (ExecutableElement method : allMethods) {
+            if (isAbstractMethod(method) && !method.getTypeParameters().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isAbstractMethod(ExecutableElement method){
+        return method.getModifiers().contains(Modifier.ABSTRACT);
+    }
+
+    private void appendMethodImplementation(StringBuilder sb, ExecutableElement method, ExecutableType executableType, String invokerField){
+        TypeMirror returnType = executableType.getReturnType();
+        String call = "this.executor.execute(this." + invokerField + ", " + generateCallArgumentsCode(method) + ")";
+
+        appendMethodDeclaration(sb, method, executableType);
+
+        if (returnType.getKind() == TypeKind.VOID) {
+            sb.append("        ").append(call).append(";\n");
+        } else if (returnType.getKind() == TypeKind.BOOLEAN) {
+            sb.append("        return (Boolean) ").append(call).append(";\n");
+        } else if (returnType.getKind().isPrimitive()) {
+            sb.append("        return ((Number) ").append(call).append(").")
+                    .append(returnType.getKind().name().toLowerCase()).append("Value();\n");
+        } else {
+            sb.append("        return (").append(returnType).append(") ").append(call).append(";\n");
+        }
+
+        sb.append("    }\n");
+    }
+
+    private void appendMethodDeclaration(StringBuilder sb, ExecutableElement method, ExecutableType executableType){
+        List<? extends VariableElement> params = method.getParameters();
+        List<? extends TypeMirror> paramTypes = executableType.getParameterTypes();
+
+        sb.append("\n    @Override\n    public ")
+                .append(executableType.getReturnType())
+                .append(" ")
+                .append(method.getSimpleName())
+                .append("(");
+
+        for (int i = 0; i < params.size(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(paramTypes.get(i)).append(" ").append(params.get(i).getSimpleName());
+        }
+        sb.append(")");
+
+        List<? extends TypeMirror> thrownTypes = executableType.getThrownTypes();
+        if (!thrownTypes.isEmpty()) {
+            sb.append(" throws ").append(thrownTypes.stream().map(TypeMirror::toString).collect(Collectors.joining(", ")));
+        }
+
+        sb.append(" {\n");
+    }
+
+    /**
+     * Metodos derivados e {@code @Query} aplicam os parametros com um {@link QueryBinder} tipado, sem array de
+     * argumentos; os metodos do {@code CrudRepository} e os {@code @Cacheable}, cuja chave sao os argumentos,
+     * continuam recebendo o array.
+     */
+    private String generateCallArgumentsCode(ExecutableElement method){
+        boolean paging = method.getParameters().stream().anyMatch(DeclarationTypeProcessorUtils::isPagingParameter);
+        if ((isCrudRepositoryMethod(method) && !paging) || resolveCacheTtlMillis(method) > 0) {
+            return generateArgumentsArrayCode(method);
+        }
+
+        String binder = generateQueryBinderCode(method);
+        if (!paging) {
+            return binder;
+        }
+
+        return findParameterName(method, Pageable.class) + ", " + findParameterName(method, Sort.class) + ", " + binder;
+    }
+
+    private String findParameterName(ExecutableElement method, Class<?> parameterType){
+        return method.getParameters().stream()
+                .filter(param -> isRawTypeOf(param.asType(), parameterType))
+                .map(param -> param.getSimpleName().toString())
+                .findFirst()
+                .orElse("null");
+    }
+
+    private String generateArgumentsArrayCode(ExecutableElement method){
+        List<? extends VariableElement> params = method.getParameters();
+        if (params.isEmpty()) {
+            return "RepositoryExecutor.NO_ARGS";
+        }
+
+        return params.stream()
+                .map(p -> p.getSimpleName().toString())
+                .collect(Collectors.joining(", ", "new Object[]{", "}"));
+    }
+
+    private String generateQueryBinderCode(ExecutableElement method){
+        Map<Integer, String> paramNames = resolveParamNames(method);
+        if (paramNames.isEmpty()) {
+            return "QueryBinder.NONE";
+        }
+
+        List<? extends VariableElement> params = method.getParameters();
+        StringBuilder sb = new StringBuilder("__query -> {");
+        paramNames.forEach((index, paramName) -> {
+            sb.append(" __query.setParameter(\"")
+                    .append(paramName)
+                    .append("\", ")
+                    .append(params.get(index).getSimpleName())
+                    .append(");");
+        });
+        sb.append(" }");
+        return sb.toString();
+    }
+
     private String getTemplateClass(){
         return
         """
@@ -122,6 +467,26 @@ public final class RepositoryMetadataWriter {
             public Class<?> getIdClass(){
                 return %6$s;
             }
+
+            @Override
+            public String getIdAttribute(){
+                return %7$s;
+            }
+
+            @Override
+            public boolean hasPrimitiveId(){
+                return %9$s;
+            }
+
+            @Override
+            public String getVersionAttribute(){
+                return %8$s;
+            }
+
+            @Override
+            public boolean hasPrimitiveVersion(){
+                return %10$s;
+            }
         
         }
         """;
@@ -180,16 +545,33 @@ public final class RepositoryMetadataWriter {
             query = generateQueryByMethodSignature(method);
         }
         String paramMapCode = generateParamMapCodeFromMethod(method);
-        TypeMirror returnType = method.getReturnType();
+        TypeMirror returnType = resolveReturnType(method, processingEnv);
         String returnStrategyEnum;
         String resultTypeClass;
         String operationTypeStr = OperationType.QUERY.name();
+        ParsedQueryMethod parsed = (annotationMirror == null) ? parseQueryMethodName(method.getSimpleName().toString(), entityElement) : null;
         boolean isAutoFlush = isAnnotationPresent(method, AutoFlush.class);
 
         if (returnType.getKind() == TypeKind.VOID) {
             returnStrategyEnum = ReturnStrategy.VOID.name();
             resultTypeClass = "Void.class";
         }
+        else if (parsed != null && parsed.isGrouped()) {
+            returnStrategyEnum = ReturnStrategy.MAP.name();
+            resultTypeClass = "Object[].class";
+        }
+        else if (isRawTypeOf(returnType, Page.class)) {
+            returnStrategyEnum = ReturnStrategy.PAGE.name();
+            resultTypeClass = getGenericTypes(returnType).getFirst().toString();
+        }
+        else if (isRawTypeOf(returnType, Slice.class)) {
+            returnStrategyEnum = ReturnStrategy.SLICE.name();
+            resultTypeClass = getGenericTypes(returnType).getFirst().toString();
+        }
+        else if (isStream(returnType, processingEnv)) {
+            returnStrategyEnum = ReturnStrategy.STREAM.name();
+            resultTypeClass = getGenericTypes(returnType).getFirst().toString();
+        }
         else if (isCollection(returnType, processingEnv)) {
             returnStrategyEnum = ReturnStrategy.COLLECTION.name();
             resultTypeClass = getGenericTypes(returnType).getFirst().toString();
@@ -206,8 +588,36 @@ public final class RepositoryMetadataWriter {
             returnStrategyEnum = ReturnStrategy.SINGLE_ENTITY.name();
             resultTypeClass = returnType.toString();
         }
+
+        TypeElement projectionElement = (parsed != null) ? findProjectionElement(returnType, entityType, processingEnv) : null;
+        if (projectionElement != null) {
+            operationTypeStr = OperationType.PROJECTION.name();
+            resultTypeClass = resolveProjectionClassName(projectionElement);
+        }
+
+        if (parsed != null && parsed.prefix().equals("existsBy")) {
+            operationTypeStr = OperationType.EXISTS.name();
+            returnStrategyEnum = ReturnStrategy.PRIMITIVE.name();
+            resultTypeClass = Integer.class.getName();
+        }
+
         String methodSignature = getMethodSignatureKey(method);
-        appendEntry(sb, methodSignature, operationTypeStr, query, isNativeQuery, isAutoFlush, returnStrategyEnum, resultTypeClass, paramMapCode);
+        boolean isReadOnly = isAnnotationPresent(method, ReadOnly.class);
+        long cacheTtlMillis = resolveCacheTtlMillis(method);
+        boolean isAsync = isAsync(method.getReturnType());
+        int maxResults = (parsed != null) ? parsed.maxResults() : 0;
+        String fetchGraphCode = generateFetchGraphCode(method);
+        appendEntry(sb, methodSignature, operationTypeStr, query, isNativeQuery, isAutoFlush, isReadOnly, cacheTtlMillis, isAsync, maxResults, fetchGraphCode, returnStrategyEnum, resultTypeClass, paramMapCode);
+    }
+
+    /**
+     * Metodos do CrudRepository sao indexados apenas pelo nome, exceto as sobrecargas paginadas.
+     */
+    private String resolveSignatureKey(ExecutableElement method) {
+        if (isCrudRepositoryMethod(method) && method.getParameters().stream().noneMatch(DeclarationTypeProcessorUtils::isPagingParameter)) {
+            return method.getSimpleName().toString();
+        }
+        return getMethodSignatureKey(method);
     }
 
     private String getMethodSignatureKey(ExecutableElement method) {
@@ -223,15 +633,25 @@ public final class RepositoryMetadataWriter {
     }
 
     private String generateParamMapCodeFromMethod(ExecutableElement method) {
-        List<? extends VariableElement> methodParams = method.getParameters();
+        Map<Integer, String> paramNames = resolveParamNames(method);
 
-        if (methodParams.isEmpty()) {
+        if (paramNames.isEmpty()) {
             return "java.util.Map.of()";
         }
 
-        StringBuilder sb = new StringBuilder("java.util.Map.of(");
+        return paramNames.entrySet().stream()
+                .map(entry -> entry.getKey() + ", \"" + entry.getValue() + "\"")
+                .collect(Collectors.joining(", ", "java.util.Map.of(", ")"));
+    }
+
+    private Map<Integer, String> resolveParamNames(ExecutableElement method) {
+        List<? extends VariableElement> methodParams = method.getParameters();
+        Map<Integer, String> paramNames = new LinkedHashMap<>();
+
         for (int i = 0; i < methodParams.size(); i++) {
             VariableElement param = methodParams.get(i);
+            if (isPagingParameter(param)) continue;
+
             AnnotationMirror queryParam = getAnnotationPresent(param, QueryParam.class);
 
             String paramName = null;
@@ -243,54 +663,80 @@ public final class RepositoryMetadataWriter {
                 paramName = param.getSimpleName().toString();
             }
 
-            sb.append(i)
-                    .append(", \"")
-                    .append(paramName)
-                    .append("\"");
-
-            if (i < methodParams.size() - 1) {
-                sb.append(", ");
-            }
-
+            paramNames.put(i, paramName);
         }
 
-        sb.append(")");
-        return sb.toString();
+        return paramNames;
     }
 
+    /**
+     * Gera a query dos metodos derivados. Os placeholders usam os nomes resolvidos dos parametros do metodo,
+     * na ordem de declaracao (primeiro os campos do {@code SET}, depois os criterios), casando com o {@code paramMap}.
+     */
     private String generateQueryByMethodSignature(ExecutableElement method){
         String methodName = method.getSimpleName().toString();
-        ParsedQueryMethod parsed = parseQueryMethodName(methodName);
+        ParsedQueryMethod parsed = parseQueryMethodName(methodName, entityElement);
         if (parsed == null) return "";
 
         StringBuilder query = new StringBuilder();
         String alias = "e";
+        List<String> placeholders = new ArrayList<>(resolveParamNames(method).values());
+        int placeholderIndex = 0;
 
         switch (parsed.prefix()) {
-            case "findBy":
-                query.append("SELECT ").append(alias).append(" FROM ").append(entitySimpleName).append(" ").append(alias);
+            case "findBy": {
+                TypeElement projectionElement = findProjectionElement(resolveReturnType(method, processingEnv), entityType, processingEnv);
+                String selection = (projectionElement != null) ? generateProjectionSelection(projectionElement, alias) : alias;
+                query.append(parsed.distinct() ? "SELECT DISTINCT " : "SELECT ")
+                        .append(selection).append(" FROM ").append(entitySimpleName).append(" ").append(alias);
                 break;
-            case "countBy", "existsBy":
+            }
+            case "countBy":
                 query.append("SELECT COUNT(").append(alias).append(") FROM ").append(entitySimpleName).append(" ").append(alias);
                 break;
+            case "existsBy":
+                query.append("SELECT 1 FROM ").append(entitySimpleName).append(" ").append(alias);
+                break;
             case "deleteBy":
                 query.append("DELETE FROM ").append(entitySimpleName).append(" ").append(alias);
                 break;
+            case "sum", "avg", "min", "max", "count": {
+                query.append("SELECT ");
+                if (parsed.isGrouped()) {
+                    query.append(alias).append(".").append(toFieldName(parsed.groupByProperty())).append(", ");
+                }
+                query.append(generateAggregateExpression(parsed, alias))
+                        .append(" FROM ").append(entitySimpleName).append(" ").append(alias);
+                break;
+            }
+            case RepositoryMetadataExtractor.UPDATE_PREFIX: {
+                // UPDATE VERSIONED incrementa o @Version, invalidando copias destacadas da linha alterada
+                query.append((versionAttribute != null) ? "UPDATE VERSIONED " : "UPDATE ")
+                        .append(entitySimpleName).append(" ").append(alias).append(" SET ");
+
+                List<String> updateProperties = parsed.updateProperties();
+                for (int i = 0; i < updateProperties.size(); i++) {
+                    if (i > 0) query.append(", ");
+                    query.append(alias).append(".").append(toFieldName(updateProperties.get(i)))
+                            .append(" = :").append(placeholders.get(placeholderIndex++));
+                }
+                break;
+            }
         }
 
         List<String> properties = parsed.properties();
+        List<Comparison> comparisons = parsed.comparisons();
         List<String> operators = parsed.operators();
 
         if (!properties.isEmpty()) {
             query.append(" WHERE ");
 
             for (int i = 0; i < properties.size(); i++) {
-                String rawProp = properties.get(i);
+                Comparison comparison = comparisons.get(i);
+                String path = alias + "." + toFieldName(properties.get(i));
 
-                String fieldName = Character.toLowerCase(rawProp.charAt(0)) + rawProp.substring(1);
-
-                query.append(alias).append(".").append(fieldName)
-                        .append(" = :").append(fieldName);
+                query.append(comparison.toJpql(path, placeholders.subList(placeholderIndex, placeholderIndex + comparison.arity())));
+                placeholderIndex += comparison.arity();
 
                 if (i < properties.size() - 1) {
                     String op = (i < operators.size()) ? operators.get(i).toUpperCase() : "AND";
@@ -299,9 +745,50 @@ public final class RepositoryMetadataWriter {
             }
         }
 
+        if (parsed.isGrouped()) {
+            query.append(" GROUP BY ").append(alias).append(".").append(toFieldName(parsed.groupByProperty()));
+        }
+
+        List<OrderProperty> orderBy = parsed.orderBy();
+        for (int i = 0; i < orderBy.size(); i++) {
+            OrderProperty order = orderBy.get(i);
+            query.append((i == 0) ? " ORDER BY " : ", ")
+                    .append(alias).append(".").append(toFieldName(order.property()))
+                    .append(order.descending() ? " DESC" : " ASC");
+        }
+
         return query.toString();
     }
 
+    /**
+     * {@code SUM} sem agrupamento usa {@code COALESCE} para devolver zero, e nao nulo, quando nenhuma linha atende aos criterios.
+     */
+    private String generateAggregateExpression(ParsedQueryMethod parsed, String alias) {
+        String function = parsed.prefix();
+        if (function.equals("count")) {
+            return "COUNT(" + alias + ")";
+        }
+
+        String expression = function.toUpperCase() + "(" + alias + "." + toFieldName(parsed.aggregateProperty()) + ")";
+        if (!function.equals("sum") || parsed.isGrouped()) {
+            return expression;
+        }
+
+        VariableElement field = findEntityField((TypeElement) ((DeclaredType) entityType).asElement(), parsed.aggregateProperty());
+        String fieldType = (field != null) ? normalizePrimitive(field.asType(), types).toString() : Long.class.getName();
+        String zero = switch (fieldType) {
+            case "java.lang.Double", "java.lang.Float" -> "0.0";
+            case "java.math.BigDecimal" -> "0.0BD";
+            case "java.math.BigInteger" -> "0BI";
+            default -> "0L";
+        };
+        return "COALESCE(" + expression + ", " + zero + ")";
+    }
+
+    private String toFieldName(String rawProperty) {
+        return Character.toLowerCase(rawProperty.charAt(0)) + rawProperty.substring(1);
+    }
+
     private String extractQueryByAnnotation(ExecutableElement method, AnnotationMirror annotationMirror){
         return getAnnotationsValue(annotationMirror, "value");
     }
@@ -318,9 +805,11 @@ public final class RepositoryMetadataWriter {
         boolean isAutoFlush = isAnnotationPresent(method, AutoFlush.class);
 
         String selectAll = "SELECT e FROM " + entitySimpleName + " e";
-        String selectById = "SELECT e FROM " + entitySimpleName + " e WHERE e.id = :id";
-        String deleteByIdQuery = "DELETE FROM " + entitySimpleName + " e WHERE e.id = :id";
+        String selectById = "SELECT e FROM " + entitySimpleName + " e WHERE e." + idAttribute + " = :id";
+        String deleteByIdQuery = "DELETE FROM " + entitySimpleName + " e WHERE e." + idAttribute + " = :id";
+        String deleteAllByIdQuery = "DELETE FROM " + entitySimpleName + " e WHERE e." + idAttribute + " IN :ids";
         String countQuery = "SELECT COUNT(e) FROM " + entitySimpleName + " e";
+        String existsByIdQuery = "SELECT 1 FROM " + entitySimpleName + " e WHERE e." + idAttribute + " = :id";
         String emptyQuery = "";
 
         switch (name) {
@@ -329,6 +818,16 @@ public final class RepositoryMetadataWriter {
                 appendEntry(sb, name, OperationType.SAVE.name(), emptyQuery, false, isAutoFlush, ReturnStrategy.SINGLE_ENTITY.name(), entityName + ".class", "java.util.Map.of(0, \"" + paramName + "\")");
                 break;
             }
+            case "insert": {
+                String paramName = params.getFirst().getSimpleName().toString();
+                appendEntry(sb, name, OperationType.INSERT.name(), emptyQuery, false, isAutoFlush, ReturnStrategy.SINGLE_ENTITY.name(), entityName + ".class", "java.util.Map.of(0, \"" + paramName + "\")");
+                break;
+            }
+            case "update": {
+                String paramName = params.getFirst().getSimpleName().toString();
+                appendEntry(sb, name, OperationType.UPDATE.name(), emptyQuery, false, isAutoFlush, ReturnStrategy.SINGLE_ENTITY.name(), entityName + ".class", "java.util.Map.of(0, \"" + paramName + "\")");
+                break;
+            }
             case "saveAll": {
                 String paramName = params.getFirst().getSimpleName().toString();
                 appendEntry(sb, name, OperationType.SAVE_ALL.name(), emptyQuery, false, isAutoFlush, ReturnStrategy.COLLECTION.name(), entityName + ".class", "java.util.Map.of(0, \"" + paramName + "\")");
@@ -339,6 +838,21 @@ public final class RepositoryMetadataWriter {
                 appendEntry(sb, name, OperationType.FIND_BY_ID.name(), selectById, false, isAutoFlush, ReturnStrategy.OPTIONAL.name(), entityName + ".class", "java.util.Map.of(0, \"" + paramName + "\")");
                 break;
             }
+            case "findAllById": {
+                String paramName = params.getFirst().getSimpleName().toString();
+                appendEntry(sb, name, OperationType.FIND_ALL_BY_ID.name(), emptyQuery, false, isAutoFlush, ReturnStrategy.COLLECTION.name(), entityName + ".class", "java.util.Map.of(0, \"" + paramName + "\")");
+                break;
+            }
+            case "findAllByIdAsMap": {
+                String paramName = params.getFirst().getSimpleName().toString();
+                appendEntry(sb, name, OperationType.FIND_ALL_BY_ID.name(), emptyQuery, false, isAutoFlush, ReturnStrategy.MAP.name(), entityName + ".class", "java.util.Map.of(0, \"" + paramName + "\")");
+                break;
+            }
+            case "existsById": {
+                String paramName = "id";
+                appendEntry(sb, name, OperationType.EXISTS.name(), existsByIdQuery, false, isAutoFlush, ReturnStrategy.PRIMITIVE.name(), Integer.class.getName(), "java.util.Map.of(0, \"" + paramName + "\")");
+                break;
+            }
             case "deleteAndFlush", "delete" : {
                 String paramName = params.getFirst().getSimpleName().toString();
                 appendEntry(sb, name, OperationType.DELETE.name(), emptyQuery, false, isAutoFlush, ReturnStrategy.VOID.name(), Void.class.getName(), "java.util.Map.of(0, \"" + paramName + "\")");
@@ -349,8 +863,22 @@ public final class RepositoryMetadataWriter {
                 appendEntry(sb, name, OperationType.DELETE_BY_ID.name(), deleteByIdQuery, false, isAutoFlush, ReturnStrategy.VOID.name(), Void.class.getName(), "java.util.Map.of(0, \"" + paramName + "\")");
                 break;
             }
+            case "deleteAllById": {
+                String paramName = params.getFirst().getSimpleName().toString();
+                appendEntry(sb, name, OperationType.DELETE_ALL_BY_ID.name(), deleteAllByIdQuery, false, isAutoFlush, ReturnStrategy.VOID.name(), Void.class.getName(), "java.util.Map.of(0, \"" + paramName + "\")");
+                break;
+            }
+            case "deleteAll": {
+                String paramName = params.getFirst().getSimpleName().toString();
+                appendEntry(sb, name, OperationType.DELETE_ALL.name(), deleteAllByIdQuery, false, isAutoFlush, ReturnStrategy.VOID.name(), Void.class.getName(), "java.util.Map.of(0, \"" + paramName + "\")");
+                break;
+            }
             case "findAll": {
-                appendEntry(sb, name, OperationType.FIND_ALL.name(), selectAll, false, isAutoFlush, ReturnStrategy.COLLECTION.name(), entityName + ".class", "java.util.Map.of()");
+                if (params.isEmpty()) {
+                    appendEntry(sb, name, OperationType.FIND_ALL.name(), selectAll, false, isAutoFlush, ReturnStrategy.COLLECTION.name(), entityName + ".class", "java.util.Map.of()");
+                } else {
+                    appendEntry(sb, resolveSignatureKey(method), OperationType.FIND_ALL.name(), selectAll, false, isAutoFlush, ReturnStrategy.PAGE.name(), entityName + ".class", "java.util.Map.of()");
+                }
                 break;
             }
             case "count": {
@@ -366,7 +894,7 @@ public final class RepositoryMetadataWriter {
         List<? extends TypeMirror> resolvedParams = executavelType.getParameterTypes();
         if (resolvedParams.isEmpty()) {
             return switch (name) {
-                case "findAll", "count", "deleteAll" -> true;
+                case "findAll", "count" -> true;
                 default -> false;
             };
         }
@@ -375,9 +903,11 @@ public final class RepositoryMetadataWriter {
             TypeMirror paramType = resolvedParams.getFirst();
 
             return switch (name) {
-                case "save", "delete", "saveAndFlush", "deleteAndFlush" -> typeUtils.isSameType(paramType, entityType);
-                case "saveAll" -> isCollectionOf(paramType, entityType);
+                case "save", "insert", "update", "delete", "saveAndFlush", "deleteAndFlush" -> typeUtils.isSameType(paramType, entityType);
+                case "saveAll", "deleteAll" -> isCollectionOf(paramType, entityType);
+                case "deleteAllById", "findAllById", "findAllByIdAsMap" -> isCollectionOf(paramType, idEntityType);
                 case "deleteById", "findById", "existsById" -> typeUtils.isSameType(paramType, idEntityType);
+                case "findAll" -> isRawTypeOf(paramType, Pageable.class);
                 default -> false;
             };
         }
@@ -405,6 +935,10 @@ public final class RepositoryMetadataWriter {
     }
 
     private void appendEntry(StringBuilder sb, String methodName, String operationTypeStr, String query, boolean isNative, boolean isAutoFlush ,String returnStrategyEnum, String resultTypeClass, String paramMapCode) {
+        appendEntry(sb, methodName, operationTypeStr, query, isNative, isAutoFlush, false, 0L, false, 0, "java.util.List.of()", returnStrategyEnum, resultTypeClass, paramMapCode);
+    }
+
+    private void appendEntry(StringBuilder sb, String methodName, String operationTypeStr, String query, boolean isNative, boolean isAutoFlush, boolean isReadOnly, long cacheTtlMillis, boolean isAsync, int maxResults, String fetchGraphCode, String returnStrategyEnum, String resultTypeClass, String paramMapCode) {
 
         if(!resultTypeClass.endsWith(".class")){
             resultTypeClass += ".class";
@@ -419,7 +953,12 @@ public final class RepositoryMetadataWriter {
                     ReturnStrategy.%s,
                     %s,
                     %s,
-                    %b
+                    %b,
+                    %b,
+                    %dL,
+                    %b,
+                    %d,
+                    %s
                 ));
                 """,
                 methodName,
@@ -430,10 +969,40 @@ public final class RepositoryMetadataWriter {
                 returnStrategyEnum,
                 resultTypeClass,
                 paramMapCode,
-                isAutoFlush
+                isAutoFlush,
+                isReadOnly,
+                cacheTtlMillis,
+                isAsync,
+                maxResults,
+                fetchGraphCode
         ));
     }
 
+    private String generateFetchGraphCode(ExecutableElement method) {
+        AnnotationMirror fetchGraph = getAnnotationPresent(method, FetchGraph.class);
+        List<? extends AnnotationValue> paths = (fetchGraph != null) ? getAnnotationsValue(fetchGraph, "value") : null;
+        if (paths == null || paths.isEmpty()) {
+            return "java.util.List.of()";
+        }
+
+        return paths.stream()
+                .map(path -> "\"" + escape(path.getValue().toString()) + "\"")
+                .collect(Collectors.joining(", ", "java.util.List.of(", ")"));
+    }
+
+    private long resolveCacheTtlMillis(ExecutableElement method) {
+        AnnotationMirror cacheable = getAnnotationPresent(method, Cacheable.class);
+        if (cacheable == null) {
+            return 0L;
+        }
+
+        Long ttl = getAnnotationsValue(cacheable, "ttl");
+        VariableElement unit = getAnnotationsValue(cacheable, "unit");
+
+        return TimeUnit.valueOf((unit != null) ? unit.getSimpleName().toString() : TimeUnit.SECONDS.name())
+                .toMillis((ttl != null) ? ttl : 60L);
+    }
+
     private String escape(String s) {
         if (s == null) return "";
 
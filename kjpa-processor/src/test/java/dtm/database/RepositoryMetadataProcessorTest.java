@@ -0,0 +1,278 @@
+package dtm.database;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaFileObject;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+
+class RepositoryMetadataProcessorTest {
+
+    private static final String METADATA = "dtm.database.repository.generated.ClienteRepositoryMetaData";
+    private static final String IMPLEMENTATION = "dtm.database.repository.generated.ClienteRepositoryImpl";
+
+    private static final JavaFileObject CLIENTE = cliente("@Entity");
+    private static final JavaFileObject CACHEABLE_CLIENTE = cliente("@Entity @Cacheable");
+
+    private static final JavaFileObject CLIENTE_RESUMO = JavaFileObjects.forSourceString("test.ClienteResumo", """
+            package test;
+
+            public record ClienteResumo(String nome, int idade) {}
+            """);
+
+    private static final JavaFileObject CLIENTE_NOME = JavaFileObjects.forSourceString("test.ClienteNome", """
+            package test;
+
+            public interface ClienteNome {
+                String getNome();
+            }
+            """);
+
+    @Test
+    void generatesMetadataAndImplementationForCrudRepository() {
+        Compilation compilation = compile();
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile(METADATA).contentsAsUtf8String()
+                .contains("SELECT e FROM Cliente e WHERE e.id = :id");
+        assertThat(compilation).generatedSourceFile(IMPLEMENTATION).contentsAsUtf8String()
+                .contains("public final class ClienteRepositoryImpl implements test.ClienteRepository");
+        assertThat(compilation).generatedSourceFile(IMPLEMENTATION).contentsAsUtf8String()
+                .contains("new Object[]{entity}");
+        assertThat(compilation).generatedSourceFile(IMPLEMENTATION).contentsAsUtf8String()
+                .contains("pageable, null, QueryBinder.NONE)");
+    }
+
+    @Test
+    void bindsDerivedQueryParametersWithoutArgumentArray() {
+        Compilation compilation = compile("List<Cliente> findByNomeAndIdade(String nome, int idade);");
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile(IMPLEMENTATION).contentsAsUtf8String()
+                .contains("__query -> { __query.setParameter(\"nome\", nome); __query.setParameter(\"idade\", idade); })");
+        assertThat(compilation).generatedSourceFile(IMPLEMENTATION).contentsAsUtf8String()
+                .doesNotContain("__args");
+    }
+
+    @Test
+    void passesPageableOutsideTheBinder() {
+        Compilation compilation = compile("Page<Cliente> findByAtivo(boolean ativo, Pageable pageable);");
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile(IMPLEMENTATION).contentsAsUtf8String()
+                .contains("pageable, null, __query -> { __query.setParameter(\"ativo\", ativo); })");
+    }
+
+    @Test
+    void cacheableMethodsKeepArgumentArrayAsCacheKey() {
+        Compilation compilation = compile("@Cacheable long countByIdade(int idade);");
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile(IMPLEMENTATION).contentsAsUtf8String()
+                .contains("new Object[]{idade}");
+    }
+
+    @Test
+    void resolvesCacheTtlInMilliseconds() {
+        Compilation compilation = compileWith(CACHEABLE_CLIENTE, "@Cacheable(ttl = 30) Optional<Cliente> findByNome(String nome);");
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile(METADATA).contentsAsUtf8String().contains("30000L");
+    }
+
+    @Test
+    void rejectsCacheTtlBelowOneMillisecond() {
+        Compilation compilation = compileWith(
+                CACHEABLE_CLIENTE,
+                "@Cacheable(ttl = 500, unit = TimeUnit.MICROSECONDS) List<Cliente> findByIdade(int idade);"
+        );
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("deve ser de ao menos 1 ms");
+    }
+
+    @Test
+    void rejectsCachedEntityOutsideSecondLevelCache() {
+        Compilation compilation = compile("@Cacheable List<Cliente> findByIdade(int idade);");
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("nao esta anotada com jakarta.persistence.Cacheable");
+    }
+
+    @Test
+    void derivesComparisonOperators() {
+        Compilation compilation = compile(
+                "List<Cliente> findByIdadeBetween(int minima, int maxima);",
+                "List<Cliente> findByNomeIn(Collection<String> nomes);",
+                "List<Cliente> findTop5ByIdadeGreaterThanOrderByNomeDesc(int idade);"
+        );
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile(METADATA).contentsAsUtf8String()
+                .contains("SELECT e FROM Cliente e WHERE e.idade BETWEEN :minima AND :maxima");
+        assertThat(compilation).generatedSourceFile(METADATA).contentsAsUtf8String()
+                .contains("SELECT e FROM Cliente e WHERE e.nome IN :nomes");
+        assertThat(compilation).generatedSourceFile(METADATA).contentsAsUtf8String()
+                .contains("SELECT e FROM Cliente e WHERE e.idade > :idade ORDER BY e.nome DESC");
+    }
+
+    @Test
+    void fieldEndingWithOperatorSuffixIsComparedByEquality() {
+        Compilation compilation = compile(
+                "List<Cliente> findByLoggedIn(boolean loggedIn);",
+                "long countByLoggedInAndAtivo(boolean loggedIn, boolean ativo);"
+        );
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile(METADATA).contentsAsUtf8String()
+                .contains("SELECT e FROM Cliente e WHERE e.loggedIn = :loggedIn");
+        assertThat(compilation).generatedSourceFile(METADATA).contentsAsUtf8String()
+                .contains("e.loggedIn = :loggedIn AND e.ativo = :ativo");
+    }
+
+    @Test
+    void rejectsTopWithPageable() {
+        Compilation compilation = compile("List<Cliente> findTop3ByIdade(int idade, Pageable pageable);");
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("limita o resultado com Top/First");
+    }
+
+    @Test
+    void rejectsUnknownProperty() {
+        Compilation compilation = compile("List<Cliente> findByApelido(String apelido);");
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("nao existe na entidade");
+    }
+
+    @Test
+    void derivesRecordProjection() {
+        Compilation compilation = compile("List<ClienteResumo> findByAtivo(boolean ativo);");
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile(METADATA).contentsAsUtf8String()
+                .contains("SELECT new test.ClienteResumo(e.nome, e.idade) FROM Cliente e WHERE e.ativo = :ativo");
+    }
+
+    @Test
+    void derivesInterfaceProjectionWithGeneratedImplementation() {
+        Compilation compilation = compile("List<ClienteNome> findByIdade(int idade);");
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile(METADATA).contentsAsUtf8String()
+                .contains("SELECT new dtm.database.repository.generated.ClienteRepositoryClienteNomeProjection(e.nome) FROM Cliente e WHERE e.idade = :idade");
+        assertThat(compilation).generatedSourceFile("dtm.database.repository.generated.ClienteRepositoryClienteNomeProjection")
+                .contentsAsUtf8String()
+                .contains("public final class ClienteRepositoryClienteNomeProjection implements test.ClienteNome");
+    }
+
+    @Test
+    void derivesAggregations() {
+        Compilation compilation = compile(
+                "long sumIdadeByAtivo(boolean ativo);",
+                "Map<String, Long> countGroupedByNome();"
+        );
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile(METADATA).contentsAsUtf8String()
+                .contains("SELECT COALESCE(SUM(e.idade), 0L) FROM Cliente e WHERE e.ativo = :ativo");
+        assertThat(compilation).generatedSourceFile(METADATA).contentsAsUtf8String()
+                .contains("SELECT e.nome, COUNT(e) FROM Cliente e GROUP BY e.nome");
+    }
+
+    @Test
+    void rejectsSumOfNonNumericField() {
+        Compilation compilation = compile("long sumNomeByAtivo(boolean ativo);");
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("o tipo deve ser numerico");
+    }
+
+    @Test
+    void derivesVersionedPartialUpdate() {
+        Compilation compilation = compile("int updateNomeById(String nome, Long id);");
+
+        assertThat(compilation).succeeded();
+        assertThat(compilation).generatedSourceFile(METADATA).contentsAsUtf8String()
+                .contains("UPDATE VERSIONED Cliente e SET e.nome = :nome WHERE e.id = :id");
+    }
+
+    @Test
+    void rejectsUpdateOfVersion() {
+        Compilation compilation = compile("int updateVersaoById(Long versao, Long id);");
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("nao pode ser alterado");
+    }
+
+    @Test
+    void rejectsAbstractNonQueryableMethod() {
+        Compilation compilation = compile("@NonQueryable List<Cliente> buscarAtivos();");
+
+        assertThat(compilation).failed();
+        assertThat(compilation).hadErrorContaining("nao possui implementacao");
+    }
+
+    private static Compilation compile(String... methods) {
+        return compileWith(CLIENTE, methods);
+    }
+
+    private static Compilation compileWith(JavaFileObject cliente, String... methods) {
+        JavaFileObject repository = JavaFileObjects.forSourceString("test.ClienteRepository", """
+                package test;
+
+                import dtm.database.annotations.Cacheable;
+                import dtm.database.annotations.NonQueryable;
+                import dtm.database.annotations.Repository;
+                import dtm.database.repository.CrudRepository;
+                import dtm.database.repository.pagination.Page;
+                import dtm.database.repository.pagination.Pageable;
+
+                import java.util.Collection;
+                import java.util.List;
+                import java.util.Map;
+                import java.util.Optional;
+                import java.util.concurrent.TimeUnit;
+
+                @Repository
+                public interface ClienteRepository extends CrudRepository<Cliente, Long> {
+                %s
+                }
+                """.formatted(String.join("\n", methods)));
+
+        return javac()
+                .withProcessors(new RepositoryMetadataProcessor())
+                .compile(cliente, CLIENTE_RESUMO, CLIENTE_NOME, repository);
+    }
+
+    private static JavaFileObject cliente(String annotations) {
+        return JavaFileObjects.forSourceString("test.Cliente", """
+                package test;
+
+                import jakarta.persistence.Cacheable;
+                import jakarta.persistence.Entity;
+                import jakarta.persistence.GeneratedValue;
+                import jakarta.persistence.Id;
+                import jakarta.persistence.Version;
+
+                %s
+                public class Cliente {
+                    @Id
+                    @GeneratedValue
+                    private Long id;
+
+                    @Version
+                    private Long versao;
+
+                    private String nome;
+                    private int idade;
+                    private boolean ativo;
+                    private boolean loggedIn;
+                }
+                """.formatted(annotations));
+    }
+}